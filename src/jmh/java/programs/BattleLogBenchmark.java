@@ -0,0 +1,67 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.PrintBattleLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость записи одного события журнала боя для потока симуляции: синхронный вывод строки
+ * в {@link PrintWriter} против постановки записи в буфер {@link AsyncBattleLog}.
+ * Вывод идёт в {@link Writer#nullWriter()}, поэтому измеряется форматирование, а не диск.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleLogBenchmark {
+
+    @Param({"BLOCK", "DROP"})
+    public BackPressurePolicy policy;
+
+    private PrintBattleLog synchronousLog;
+    private AsyncBattleLog asyncLog;
+    private Unit attacker;
+    private Unit target;
+
+    @Setup
+    public void setUp() {
+        attacker = new Unit("Archer 1", "Archer", 50, 10, 20, "RANGE", new HashMap<>(), new HashMap<>(), 0, 0);
+        target = new Unit("Knight 1", "Knight", 100, 20, 30, "MELEE", new HashMap<>(), new HashMap<>(), 1, 0);
+        PrintWriter writer = new PrintWriter(Writer.nullWriter());
+        synchronousLog = (a, t) -> writer.println(a.getName() + " -> " + t.getName() + ": health " + t.getHealth());
+        asyncLog = new AsyncBattleLog(Writer.nullWriter(), AsyncBattleLog.DEFAULT_CAPACITY, policy, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        asyncLog.close();
+    }
+
+    @Benchmark
+    public void printSynchronously() {
+        synchronousLog.printBattleLog(attacker, target);
+    }
+
+    @Benchmark
+    public void printAsynchronously() {
+        asyncLog.printBattleLog(attacker, target);
+    }
+}
@@ -0,0 +1,55 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratePresetBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int unitTypes;
+
+    @Param({"500", "1500", "5000"})
+    public int maxPoints;
+
+    private List<Unit> unitList;
+    private GeneratePresetImpl generator;
+
+    @Setup
+    public void setUp() {
+        unitList = new ArrayList<>();
+        for (int i = 0; i < unitTypes; i++) {
+            Unit unit = new Unit("Type" + i, "Type" + i, 50 + 7 * i, 10 + 3 * (i % 5), 15 + 5 * (i % 7),
+                    "MELEE", new HashMap<>(), new HashMap<>(), 0, 0);
+            unit.setAlive(true);
+            unitList.add(unit);
+        }
+        generator = new GeneratePresetImpl(BattleContext.seeded(1));
+    }
+
+    @Benchmark
+    public Army generate() {
+        return generator.generate(unitList, maxPoints);
+    }
+}
@@ -0,0 +1,72 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Составы пресетов для лимитов 500..2000 с шагом 50: отдельный вызов на каждый лимит
+ * против одного пакетного вызова {@link PresetStrategy#composeAll}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresetBatchBenchmark {
+
+    @Param({"4", "16"})
+    public int unitTypes;
+
+    @Param({"greedy", "knapsack"})
+    public String strategyName;
+
+    private List<Unit> unitList;
+    private PresetStrategy strategy;
+    private int[] budgets;
+
+    @Setup
+    public void setUp() {
+        unitList = new ArrayList<>();
+        for (int i = 0; i < unitTypes; i++) {
+            Unit unit = new Unit("Type" + i, "Type" + i, 50 + 7 * i, 10 + 3 * (i % 5), 15 + 5 * (i % 7),
+                    "MELEE", new HashMap<>(), new HashMap<>(), 0, 0);
+            unit.setAlive(true);
+            unitList.add(unit);
+        }
+        strategy = strategyName.equals("greedy") ? new GreedyPresetStrategy() : KnapsackPresetStrategy.totalAttack();
+        budgets = new int[31];
+        for (int i = 0; i < budgets.length; i++) {
+            budgets[i] = 500 + 50 * i;
+        }
+    }
+
+    @Benchmark
+    public List<PresetComposition> composeEachBudget() {
+        List<PresetComposition> compositions = new ArrayList<>(budgets.length);
+        for (int budget : budgets) {
+            compositions.add(strategy.compose(unitList, budget));
+        }
+        return compositions;
+    }
+
+    @Benchmark
+    public List<PresetComposition> composeAll() {
+        return strategy.composeAll(unitList, budgets);
+    }
+}
@@ -0,0 +1,95 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.computer.ComputerArcherProgram;
+import com.battle.heroes.army.programs.computer.ComputerKnightProgram;
+import com.battle.heroes.army.programs.user.UserArcherProgram;
+import com.battle.heroes.army.programs.user.UserKnightProgram;
+import com.battle.heroes.util.GameSpeedUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бой армий одинакового размера от 1 до 63 юнитов на сторону. Задержки программ библиотеки
+ * отключены ({@code GameSpeedUtil(0)}); для сравнения измеряется и {@link HeadlessBattleEngine}.
+ * Армии пересоздаются перед каждым вызовом, так как бой изменяет их состояние.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulateBattleBenchmark {
+
+    @Param({"1", "8", "32", "63"})
+    public int armySize;
+
+    private final GameSpeedUtil noDelay = new GameSpeedUtil(0);
+    private final SimulateBattleImpl simulator = new SimulateBattleImpl();
+    private final HeadlessBattleEngine headlessEngine = new HeadlessBattleEngine(BattleContext.seeded(1));
+
+    private Army playerArmy;
+    private Army computerArmy;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        playerArmy = createArmy(24);
+        computerArmy = createArmy(0);
+        for (Unit unit : playerArmy.getUnits()) {
+            unit.setProgram(isArcher(unit)
+                    ? new UserArcherProgram(unit, playerArmy, computerArmy, noDelay)
+                    : new UserKnightProgram(unit, playerArmy, computerArmy, noDelay,
+                    new SuitableForAttackUnitsFinderImpl(), new UnitTargetPathFinderImpl()));
+        }
+        for (Unit unit : computerArmy.getUnits()) {
+            unit.setProgram(isArcher(unit)
+                    ? new ComputerArcherProgram(unit, computerArmy, playerArmy, noDelay)
+                    : new ComputerKnightProgram(unit, computerArmy, playerArmy, noDelay,
+                    new SuitableForAttackUnitsFinderImpl(), new UnitTargetPathFinderImpl()));
+        }
+    }
+
+    @Benchmark
+    public Army simulateWithLibraryPrograms() throws InterruptedException {
+        simulator.simulate(playerArmy, computerArmy);
+        return playerArmy;
+    }
+
+    @Benchmark
+    public BattleOutcome simulateHeadless() {
+        return headlessEngine.run(playerArmy, computerArmy);
+    }
+
+    private Army createArmy(int firstColumn) {
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < armySize; i++) {
+            String type = i % 4 == 0 ? "Archer" : "Knight";
+            Unit unit = new Unit(type + " " + i, type, 60 + i % 13, 12 + i % 7, 20,
+                    "MELEE", new HashMap<>(), new HashMap<>(), firstColumn + i % 3, i / 3);
+            unit.setAlive(true);
+            units.add(unit);
+        }
+        return new Army(units);
+    }
+
+    private static boolean isArcher(Unit unit) {
+        return "Archer".equals(unit.getUnitType());
+    }
+}
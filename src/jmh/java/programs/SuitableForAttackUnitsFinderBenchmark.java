@@ -0,0 +1,74 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuitableForAttackUnitsFinderBenchmark {
+
+    /**
+     * dense — все 21 клетки каждого ряда заняты, sparse — занята каждая третья клетка.
+     */
+    @Param({"dense", "sparse"})
+    public String layout;
+
+    @Param({"true", "false"})
+    public boolean isLeftArmyTarget;
+
+    private final SuitableForAttackUnitsFinderImpl finder = new SuitableForAttackUnitsFinderImpl();
+    private final BitsetSuitableForAttackUnitsFinder bitsetFinder = new BitsetSuitableForAttackUnitsFinder();
+    private final List<Unit> buffer = new ArrayList<>();
+    private List<List<Unit>> unitsByRow;
+
+    @Setup
+    public void setUp() {
+        int step = "dense".equals(layout) ? 1 : 3;
+        unitsByRow = new ArrayList<>();
+        for (int x = 0; x < 3; x++) {
+            List<Unit> row = new ArrayList<>();
+            for (int y = x % step; y < 21; y += step) {
+                Unit unit = new Unit("Knight", "Knight", 100, 10, 20,
+                        "MELEE", new HashMap<>(), new HashMap<>(), x, y);
+                unit.setAlive(true);
+                row.add(unit);
+            }
+            unitsByRow.add(row);
+        }
+    }
+
+    @Benchmark
+    public List<Unit> getSuitableUnits() {
+        return finder.getSuitableUnits(unitsByRow, isLeftArmyTarget);
+    }
+
+    @Benchmark
+    public List<Unit> getSuitableUnitsBitset() {
+        return bitsetFinder.getSuitableUnits(unitsByRow, isLeftArmyTarget);
+    }
+
+    @Benchmark
+    public List<Unit> getSuitableUnitsBitsetIntoBuffer() {
+        bitsetFinder.getSuitableUnits(unitsByRow, isLeftArmyTarget, buffer);
+        return buffer;
+    }
+}
@@ -0,0 +1,111 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Edge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск пути через всё поле из колонки 0 в колонку 26.
+ * open — поле без препятствий, maze — вертикальные стены с чередующимися проходами,
+ * cluttered — треть клеток занята случайно расставленными юнитами,
+ * unreachable — цель окружена живыми юнитами.
+ * Каждый сценарий измеряется для A*, Jump Point Search и двунаправленного поиска;
+ * getTargetPathWithGrid берёт препятствия из {@link OccupancyGrid} и отсекает
+ * недостижимую цель по разметке связных компонент.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitTargetPathFinderBenchmark {
+
+    @Param({"open", "maze", "cluttered", "unreachable"})
+    public String scenario;
+
+    @Param({"A_STAR", "JUMP_POINT", "BIDIRECTIONAL"})
+    public PathSearchMode mode;
+
+    private UnitTargetPathFinderImpl finder;
+    private UnitTargetPathFinderImpl gridFinder;
+    private Unit attacker;
+    private Unit target;
+    private List<Unit> obstacles;
+
+    @Setup
+    public void setUp() {
+        finder = new UnitTargetPathFinderImpl(null, mode);
+        attacker = createUnit(0, 10);
+        target = createUnit(26, 10);
+        obstacles = new ArrayList<>();
+        obstacles.add(attacker);
+        obstacles.add(target);
+
+        if ("maze".equals(scenario)) {
+            for (int x = 3; x < 24; x += 4) {
+                int gap = (x / 4) % 2 == 0 ? 0 : 20;
+                for (int y = 0; y < 21; y++) {
+                    if (y != gap) {
+                        obstacles.add(createUnit(x, y));
+                    }
+                }
+            }
+        } else if ("cluttered".equals(scenario)) {
+            Random random = new Random(42);
+            for (int x = 1; x < 26; x++) {
+                for (int y = 0; y < 21; y++) {
+                    if (random.nextInt(3) == 0) {
+                        obstacles.add(createUnit(x, y));
+                    }
+                }
+            }
+        } else if ("unreachable".equals(scenario)) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if (dx != 0 || dy != 0) {
+                        obstacles.add(createUnit(26 + dx, 10 + dy));
+                    }
+                }
+            }
+        }
+
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.reset(new Army(obstacles), null);
+        gridFinder = new UnitTargetPathFinderImpl(grid, mode);
+    }
+
+    @Benchmark
+    public List<Edge> getTargetPath() {
+        return finder.getTargetPath(attacker, target, obstacles);
+    }
+
+    @Benchmark
+    public List<Edge> getTargetPathWithGrid() {
+        return gridFinder.getTargetPath(attacker, target, obstacles);
+    }
+
+    private static Unit createUnit(int x, int y) {
+        Unit unit = new Unit("Knight", "Knight", 100, 10, 20,
+                "MELEE", new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+}
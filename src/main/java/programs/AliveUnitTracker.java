@@ -0,0 +1,94 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Счётчики живых юнитов обеих армий в рамках одного боя.
+ * <p>
+ * В начале боя каждому живому юниту назначается слот в битовом наборе живых,
+ * далее симуляция сообщает о гибели цели через {@link #onUnitDied(Unit)} —
+ * в момент, когда {@link Unit#isAlive()} цели сменился на {@code false}.
+ * Повторное уведомление о том же юните ничего не меняет, поэтому счётчики
+ * остаются точными, даже если цель атаковали уже погибшей.
+ * <p>
+ * Алгоритмическая сложность:
+ * - заполнение: O(n), где n — количество юнитов обеих армий
+ * - уведомление о гибели: O(1)
+ * - проверка, остались ли у армии живые юниты: O(1)
+ * <p>
+ * Экземпляр не потокобезопасен и принадлежит одному бою.
+ */
+public class AliveUnitTracker {
+    private static final int PLAYER = 0;
+    private static final int COMPUTER = 1;
+
+    private final Map<Unit, Integer> slots = new IdentityHashMap<>();
+    private final int[] aliveCount = new int[2];
+    private long[] aliveBits = new long[1];
+    private int playerSlots;
+
+    public void reset(Army playerArmy, Army computerArmy) {
+        slots.clear();
+        Arrays.fill(aliveCount, 0);
+        Arrays.fill(aliveBits, 0L);
+        addArmy(playerArmy, PLAYER);
+        playerSlots = slots.size();
+        addArmy(computerArmy, COMPUTER);
+    }
+
+    /**
+     * Учитывает гибель юнита.
+     *
+     * @return {@code true}, если юнит до этого считался живым
+     */
+    public boolean onUnitDied(Unit unit) {
+        Integer slot = unit == null ? null : slots.get(unit);
+        if (slot == null || !isAlive(slot)) {
+            return false;
+        }
+        aliveBits[slot >>> 6] &= ~(1L << slot);
+        aliveCount[slot < playerSlots ? PLAYER : COMPUTER]--;
+        return true;
+    }
+
+    public int getPlayerAliveCount() {
+        return aliveCount[PLAYER];
+    }
+
+    public int getComputerAliveCount() {
+        return aliveCount[COMPUTER];
+    }
+
+    public boolean bothArmiesAlive() {
+        return aliveCount[PLAYER] > 0 && aliveCount[COMPUTER] > 0;
+    }
+
+    private boolean isAlive(int slot) {
+        return (aliveBits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void addArmy(Army army, int side) {
+        if (army == null || army.getUnits() == null) {
+            return;
+        }
+        List<Unit> units = army.getUnits();
+        for (Unit unit : units) {
+            if (unit == null || !unit.isAlive() || slots.containsKey(unit)) {
+                continue;
+            }
+            int slot = slots.size();
+            slots.put(unit, slot);
+            if ((slot >>> 6) >= aliveBits.length) {
+                aliveBits = Arrays.copyOf(aliveBits, aliveBits.length * 2);
+            }
+            aliveBits[slot >>> 6] |= 1L << slot;
+            aliveCount[side]++;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Глубокое копирование армий для независимых прогонов боя.
+ * <p>
+ * Копируются все поля юнита, словари бонусов копируются в новые {@link HashMap}.
+ * Программа юнита не копируется: программы библиотеки привязаны к конкретным объектам
+ * юнита и армий, а {@link HeadlessAttackResolver} для юнита без программы определяет
+ * тип атаки по типу юнита.
+ */
+public final class ArmyCopier {
+
+    private ArmyCopier() {
+    }
+
+    public static Army copy(Army army) {
+        List<Unit> units = new ArrayList<>(army.getUnits().size());
+        for (Unit unit : army.getUnits()) {
+            units.add(copy(unit));
+        }
+        Army copy = new Army(units);
+        copy.setPoints(army.getPoints());
+        return copy;
+    }
+
+    public static Unit copy(Unit unit) {
+        if (unit == null) {
+            return null;
+        }
+        Unit copy = new Unit(
+                unit.getName(),
+                unit.getUnitType(),
+                unit.getHealth(),
+                unit.getBaseAttack(),
+                unit.getCost(),
+                unit.getAttackType(),
+                unit.getAttackBonuses() == null ? null : new HashMap<>(unit.getAttackBonuses()),
+                unit.getDefenceBonuses() == null ? null : new HashMap<>(unit.getDefenceBonuses()),
+                unit.getxCoordinate(),
+                unit.getyCoordinate()
+        );
+        copy.setAlive(unit.isAlive());
+        return copy;
+    }
+}
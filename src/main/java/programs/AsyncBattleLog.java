@@ -0,0 +1,333 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.PrintBattleLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Журнал боя, выносящий форматирование и вывод из потока симуляции в фоновый поток.
+ * <p>
+ * Каждая атака превращается в запись фиксированного размера — номер хода, идентификаторы
+ * атакующего и цели, нанесённый урон и оставшееся здоровье цели — и кладётся в кольцевой буфер
+ * без блокировок (один производитель — поток симуляции, один потребитель — поток записи).
+ * Записи хранятся в параллельных массивах int[], поэтому запись события не выделяет памяти.
+ * Поток записи забирает все накопившиеся записи разом, форматирует их одним пакетом
+ * и выполняет одну операцию вывода на пакет; {@link Writer#flush()} вызывается, когда буфер опустел.
+ * <p>
+ * Идентификатор юнита — его порядковый номер в журнале: при {@link #onBattleStart} регистрируются
+ * все юниты обеих армий вместе с исходным здоровьем, остальные — при первом упоминании.
+ * Урон вычисляется как разница между последним известным и текущим здоровьем цели; для юнита,
+ * впервые встреченного уже раненым, он неизвестен ({@link #UNKNOWN_DAMAGE}).
+ * <p>
+ * Объём памяти ограничен ёмкостью буфера; поведение при переполнении задаёт
+ * {@link BackPressurePolicy}. {@link #onBattleEnd()} (его вызывает {@link SimulateBattleImpl})
+ * и {@link #flush()} дожидаются, пока все принятые записи будут выведены.
+ * <p>
+ * Алгоритмическая сложность: O(1) на событие в потоке симуляции (без учёта ожидания в режиме
+ * {@link BackPressurePolicy#BLOCK}), O(k) на пакет из k записей в потоке записи.
+ * <p>
+ * Методы журнала вызываются из одного потока симуляции; переданный {@link Writer}
+ * используется только потоком записи и не закрывается в {@link #close()}.
+ */
+public class AsyncBattleLog implements PrintBattleLog, BattleLifecycleListener, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int UNKNOWN_DAMAGE = -1;
+
+    private static final int UNKNOWN_HEALTH = Integer.MIN_VALUE;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+    private static final long WAIT_PARK_NANOS = 50_000L;
+
+    private final Writer out;
+    private final BackPressurePolicy policy;
+    private final int sampleInterval;
+    private final int capacity;
+    private final int mask;
+
+    private final int[] turns;
+    private final int[] attackerIds;
+    private final int[] targetIds;
+    private final int[] damages;
+    private final int[] healths;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private volatile long flushedSequence;
+    private long tail;
+    private long cachedHead;
+
+    private final IdentityHashMap<Unit, Integer> unitIds = new IdentityHashMap<>();
+    private int[] lastHealth = new int[64];
+    private volatile String[] unitNames = new String[64];
+    private int unitCount;
+    private int turn;
+    private long sampleCounter;
+
+    private volatile long droppedCount;
+    private volatile long writtenCount;
+    private volatile IOException failure;
+    private volatile boolean running = true;
+    private final Thread writerThread;
+
+    public AsyncBattleLog(Writer out) {
+        this(out, DEFAULT_CAPACITY, BackPressurePolicy.BLOCK, 1);
+    }
+
+    /**
+     * @param capacity       ёмкость буфера в записях; округляется вверх до степени двойки
+     * @param sampleInterval для {@link BackPressurePolicy#SAMPLE} — какое по счёту событие
+     *                       записывается при заполненном наполовину буфере
+     */
+    public AsyncBattleLog(Writer out, int capacity, BackPressurePolicy policy, int sampleInterval) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be in [2, 2^30]: " + capacity);
+        }
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("sampleInterval must be positive: " + sampleInterval);
+        }
+        this.out = out;
+        this.policy = policy;
+        this.sampleInterval = sampleInterval;
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.turns = new int[this.capacity];
+        this.attackerIds = new int[this.capacity];
+        this.targetIds = new int[this.capacity];
+        this.damages = new int[this.capacity];
+        this.healths = new int[this.capacity];
+
+        this.writerThread = new Thread(this::drainLoop, "battle-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Регистрирует юнитов обеих армий с их исходным здоровьем и начинает нумерацию ходов заново.
+     * Записи предыдущего боя предварительно выводятся.
+     */
+    @Override
+    public void onBattleStart(Army playerArmy, Army computerArmy) {
+        flush();
+        unitIds.clear();
+        Arrays.fill(unitNames, null);
+        unitCount = 0;
+        turn = 0;
+        registerArmy(playerArmy);
+        registerArmy(computerArmy);
+    }
+
+    @Override
+    public void onBattleEnd() {
+        flush();
+    }
+
+    @Override
+    public void printBattleLog(Unit attacker, Unit target) {
+        if (attacker == null || target == null) {
+            return;
+        }
+        if (!running) {
+            throw new IllegalStateException("Battle log is closed");
+        }
+        int attackerId = idOf(attacker);
+        int targetId = idOf(target);
+        int health = target.getHealth();
+        int previousHealth = lastHealth[targetId];
+        lastHealth[targetId] = health;
+        turn++;
+
+        if (!claimSlot()) {
+            droppedCount++;
+            return;
+        }
+        int slot = (int) tail & mask;
+        turns[slot] = turn;
+        attackerIds[slot] = attackerId;
+        targetIds[slot] = targetId;
+        damages[slot] = previousHealth == UNKNOWN_HEALTH ? UNKNOWN_DAMAGE : previousHealth - health;
+        healths[slot] = health;
+        tail++;
+        published.lazySet(tail);
+
+        if ((tail & (mask >>> 1)) == 0) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Дожидается, пока поток записи выведет все принятые записи и сбросит {@link Writer}.
+     *
+     * @throws UncheckedIOException если вывод завершился ошибкой
+     */
+    public void flush() {
+        long target = tail;
+        while (flushedSequence < target && writerThread.isAlive()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+        IOException error = failure;
+        if (error != null) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    /**
+     * Выводит оставшиеся записи и останавливает поток записи. Переданный {@link Writer} не закрывается.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            running = false;
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Количество событий, отброшенных из-за переполнения буфера.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Количество событий, переданных в {@link Writer}.
+     */
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private boolean claimSlot() {
+        int limit = policy == BackPressurePolicy.SAMPLE ? capacity >>> 1 : capacity;
+        long occupied = tail - cachedHead;
+        if (occupied >= limit) {
+            cachedHead = consumed.get();
+            occupied = tail - cachedHead;
+        }
+        switch (policy) {
+            case BLOCK:
+                while (occupied >= capacity) {
+                    LockSupport.unpark(writerThread);
+                    LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+                    cachedHead = consumed.get();
+                    occupied = tail - cachedHead;
+                }
+                return true;
+            case DROP:
+                return occupied < capacity;
+            default:
+                if (occupied < limit) {
+                    return true;
+                }
+                return occupied < capacity && ++sampleCounter % sampleInterval == 0;
+        }
+    }
+
+    private void registerArmy(Army army) {
+        if (army == null || army.getUnits() == null) {
+            return;
+        }
+        for (Unit unit : army.getUnits()) {
+            if (unit != null) {
+                int id = idOf(unit);
+                lastHealth[id] = unit.getHealth();
+            }
+        }
+    }
+
+    private int idOf(Unit unit) {
+        Integer id = unitIds.get(unit);
+        if (id != null) {
+            return id;
+        }
+        int newId = unitCount++;
+        if (newId == lastHealth.length) {
+            lastHealth = Arrays.copyOf(lastHealth, newId * 2);
+            unitNames = Arrays.copyOf(unitNames, newId * 2);
+        }
+        lastHealth[newId] = UNKNOWN_HEALTH;
+        unitNames[newId] = unit.getName();
+        unitIds.put(unit, newId);
+        return newId;
+    }
+
+    private void drainLoop() {
+        StringBuilder batch = new StringBuilder(256);
+        long head = consumed.get();
+        while (true) {
+            long available = published.get();
+            if (available == head) {
+                if (!running && published.get() == head) {
+                    break;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            String[] names = unitNames;
+            for (long sequence = head; sequence < available; sequence++) {
+                appendRecord(batch, (int) sequence & mask, names);
+            }
+            long batchSize = available - head;
+            head = available;
+            consumed.lazySet(head);
+
+            boolean drained = published.get() == head;
+            if (write(batch, drained)) {
+                writtenCount += batchSize;
+            }
+            batch.setLength(0);
+            if (drained) {
+                flushedSequence = head;
+            }
+        }
+    }
+
+    private void appendRecord(StringBuilder batch, int slot, String[] names) {
+        batch.append('[').append(turns[slot]).append("] ")
+                .append(names[attackerIds[slot]]).append(" -> ").append(names[targetIds[slot]])
+                .append(": damage ");
+        if (damages[slot] == UNKNOWN_DAMAGE) {
+            batch.append('?');
+        } else {
+            batch.append(damages[slot]);
+        }
+        batch.append(", health ").append(healths[slot]).append('\n');
+    }
+
+    private boolean write(StringBuilder batch, boolean drained) {
+        if (failure != null) {
+            return false;
+        }
+        try {
+            out.append(batch);
+            if (drained) {
+                out.flush();
+            }
+            return true;
+        } catch (IOException e) {
+            failure = e;
+            return false;
+        }
+    }
+}
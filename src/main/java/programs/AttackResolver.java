@@ -0,0 +1,23 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+
+/**
+ * Выполняет один ход атакующего юнита в симуляции боя.
+ * <p>
+ * По умолчанию {@link SimulateBattleImpl} делегирует ход программе юнита
+ * ({@link com.battle.heroes.army.programs.Program#attack()}); альтернативные реализации
+ * выполняют ту же логику без задержек и вывода. Быстрая симуляция {@link HeadlessBattleEngine}
+ * этот интерфейс не использует: её ходы выполняет {@link HeadlessAttackResolver} по номерам юнитов
+ * в {@link BattleState}.
+ */
+public interface AttackResolver {
+    AttackResolver PROGRAM = (attacker, allyArmy, enemyArmy, isPlayerUnit) -> attacker.getProgram().attack();
+
+    /**
+     * @param isPlayerUnit {@code true}, если атакует юнит армии игрока
+     * @return атакованный юнит или {@code null}, если атака не состоялась
+     */
+    Unit attack(Unit attacker, Army allyArmy, Army enemyArmy, boolean isPlayerUnit) throws InterruptedException;
+}
@@ -0,0 +1,21 @@
+package programs;
+
+/**
+ * Поведение {@link AsyncBattleLog}, когда фоновая запись не успевает за симуляцией
+ * и буфер событий заполняется.
+ */
+public enum BackPressurePolicy {
+    /**
+     * Поток симуляции ждёт, пока в буфере освободится место; ни одно событие не теряется.
+     */
+    BLOCK,
+    /**
+     * Событие, не поместившееся в заполненный буфер, отбрасывается.
+     */
+    DROP,
+    /**
+     * Пока буфер заполнен меньше чем наполовину, записываются все события; дальше — только
+     * каждое N-е, а при полном буфере событие отбрасывается.
+     */
+    SAMPLE
+}
@@ -0,0 +1,85 @@
+package programs;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Контекст боя с воспроизводимым источником случайных чисел.
+ * <p>
+ * Основан на {@link SplittableRandom}: генератор быстрый, не синхронизирован и умеет
+ * порождать независимые потоки ({@link #split()}, {@link #forStream(long, long)}),
+ * поэтому параллельные прогоны получают собственные воспроизводимые последовательности
+ * и не конкурируют за общий {@link java.util.Random}.
+ * <p>
+ * Используется генератором пресетов ({@link GeneratePresetImpl}) и быстрой симуляцией
+ * ({@link HeadlessAttackResolver}) вместо глобального генератора {@link java.util.Collections#shuffle(List)}.
+ * <p>
+ * Экземпляр не потокобезопасен: каждому потоку нужен свой контекст, полученный через {@link #split()}.
+ */
+public class BattleContext {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final SplittableRandom random;
+
+    private BattleContext(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public static BattleContext seeded(long seed) {
+        return new BattleContext(new SplittableRandom(seed));
+    }
+
+    public static BattleContext unseeded() {
+        return new BattleContext(new SplittableRandom());
+    }
+
+    /**
+     * Возвращает контекст независимого потока с номером {@code stream}.
+     * Результат зависит только от зерна и номера, поэтому поток i можно получить
+     * в любом порядке и на любом потоке выполнения.
+     */
+    public static BattleContext forStream(long seed, long stream) {
+        return seeded(mix(seed + (stream + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Порождает новый контекст с независимой последовательностью случайных чисел.
+     */
+    public BattleContext split() {
+        return new BattleContext(random.split());
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Перемешивает список тем же алгоритмом Фишера — Йетса, что и {@link java.util.Collections#shuffle},
+     * используя генератор контекста.
+     */
+    public <T> void shuffle(List<T> list) {
+        for (int i = list.size(); i > 1; i--) {
+            int j = random.nextInt(i);
+            list.set(j, list.set(i - 1, list.get(j)));
+        }
+    }
+
+    /**
+     * Перемешивает первые n элементов массива тем же алгоритмом и с тем же расходом случайных чисел,
+     * что и {@link #shuffle(List)} для списка из n элементов.
+     */
+    public void shuffle(int[] values, int n) {
+        for (int i = n; i > 1; i--) {
+            int j = random.nextInt(i);
+            int value = values[i - 1];
+            values[i - 1] = values[j];
+            values[j] = value;
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,16 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+
+/**
+ * Наблюдатель за началом и окончанием боя в {@link SimulateBattleImpl}.
+ * <p>
+ * Если журнал боя ({@link com.battle.heroes.army.programs.PrintBattleLog}) реализует этот
+ * интерфейс, симуляция уведомляет его перед первым ходом и после завершения боя — в том числе
+ * при прерывании, — чтобы журнал мог подготовить данные о юнитах и дописать накопленные записи.
+ */
+public interface BattleLifecycleListener {
+    void onBattleStart(Army playerArmy, Army computerArmy);
+
+    void onBattleEnd();
+}
@@ -0,0 +1,53 @@
+package programs;
+
+/**
+ * Точки измерения горячих путей: симуляция боя, поиск пути, поиск доступных целей и генерация пресета.
+ * <p>
+ * Компоненты хранят ссылку на метрики (по умолчанию {@link #NOOP}) и перед замером проверяют
+ * {@link #isEnabled()}: для {@link #NOOP} проверка после встраивания JIT сводится к константе,
+ * и ни вызовов {@link System#nanoTime()}, ни записи значений в горячем пути не остаётся.
+ * Собирающая реализация — {@link MetricsRegistry}.
+ * <p>
+ * Все методы записи по умолчанию ничего не делают; время передаётся в наносекундах.
+ */
+public interface BattleMetrics {
+    /**
+     * Метрики, которые ничего не собирают.
+     */
+    BattleMetrics NOOP = new BattleMetrics() {
+    };
+
+    /**
+     * {@code false}, если замеры можно не выполнять.
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * Бой (или его продолжение со снимка) завершён: длительность, раунды, ходы и атаки.
+     */
+    default void recordBattle(long nanos, int rounds, int turns, int attacks) {
+    }
+
+    /**
+     * Запрос пути выполнен. Если поиск не запускался (цель недостижима по разметке компонент,
+     * старт совпадает с целью), раскрытых узлов и пиковый размер открытого множества — 0.
+     *
+     * @param pathLength число клеток найденного пути или 0
+     */
+    default void recordPathSearch(long nanos, int expandedNodes, int openSetPeak, int pathLength) {
+    }
+
+    /**
+     * Поиск доступных для атаки юнитов выполнен и нашёл suitableCount целей.
+     */
+    default void recordSuitableTargets(long nanos, int suitableCount) {
+    }
+
+    /**
+     * Пресет армии сгенерирован из unitCount юнитов.
+     */
+    default void recordPreset(long nanos, int unitCount) {
+    }
+}
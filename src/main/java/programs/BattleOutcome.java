@@ -0,0 +1,52 @@
+package programs;
+
+/**
+ * Итог одного боя: победитель, количество раундов и атак, число выживших юнитов каждой армии.
+ */
+public class BattleOutcome {
+    public enum Winner {
+        PLAYER,
+        COMPUTER,
+        DRAW
+    }
+
+    private final Winner winner;
+    private final int rounds;
+    private final int attacks;
+    private final int playerSurvivors;
+    private final int computerSurvivors;
+
+    public BattleOutcome(int rounds, int attacks, int playerSurvivors, int computerSurvivors) {
+        this.rounds = rounds;
+        this.attacks = attacks;
+        this.playerSurvivors = playerSurvivors;
+        this.computerSurvivors = computerSurvivors;
+        if (playerSurvivors > 0 && computerSurvivors == 0) {
+            this.winner = Winner.PLAYER;
+        } else if (computerSurvivors > 0 && playerSurvivors == 0) {
+            this.winner = Winner.COMPUTER;
+        } else {
+            this.winner = Winner.DRAW;
+        }
+    }
+
+    public Winner getWinner() {
+        return winner;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public int getAttacks() {
+        return attacks;
+    }
+
+    public int getPlayerSurvivors() {
+        return playerSurvivors;
+    }
+
+    public int getComputerSurvivors() {
+        return computerSurvivors;
+    }
+}
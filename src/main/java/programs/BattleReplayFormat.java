@@ -0,0 +1,61 @@
+package programs;
+
+/**
+ * Константы двоичного формата повтора боя, общие для {@link BattleReplayWriter} и {@link BattleReplayReader}.
+ * <p>
+ * Файл состоит из заголовка и следующих за ним записей событий фиксированной ширины.
+ * Все числа записываются в порядке big-endian ({@link java.nio.ByteBuffer} по умолчанию).
+ * <p>
+ * Заголовок:
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * long   число событий (-1, если запись не была завершена)
+ * int    номер последнего хода
+ * int    очки армии игрока, int очки армии компьютера
+ * int    число юнитов игрока, int число юнитов компьютера
+ * юниты: сначала игрока, затем компьютера — в порядке армий (как в {@link BattleState}):
+ *        строки name, unitType, attackType; int health, baseAttack, cost, x, y; byte alive;
+ *        карты бонусов атаки и защиты: int размер (-1 для {@code null}), затем пары (строка, double)
+ * </pre>
+ * Строка — short длина в байтах UTF-8 (-1 для {@code null}) и сами байты.
+ * <p>
+ * Событие ({@link #RECORD_SIZE} байт):
+ * <pre>
+ * int   номер хода
+ * byte  вид: {@link #KIND_MOVE} или {@link #KIND_ATTACK}
+ * byte  флаги: для атаки бит {@link #FLAG_TARGET_ALIVE}
+ * short резерв
+ * int   юнит (перемещающийся или атакующий)
+ * int   перемещение: исходная клетка; атака: юнит-цель
+ * int   перемещение: конечная клетка; атака: здоровье цели после удара
+ * </pre>
+ * Клетка упакована как (x &lt;&lt; 16) | (y &amp; 0xFFFF).
+ */
+final class BattleReplayFormat {
+    static final int MAGIC = 0x48525031;
+    static final int VERSION = 1;
+
+    static final int EVENT_COUNT_OFFSET = 8;
+    static final int LAST_TURN_OFFSET = 16;
+
+    static final int RECORD_SIZE = 20;
+    static final byte KIND_MOVE = 1;
+    static final byte KIND_ATTACK = 2;
+    static final byte FLAG_TARGET_ALIVE = 1;
+
+    private BattleReplayFormat() {
+    }
+
+    static int packCell(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    static int cellX(int packed) {
+        return packed >> 16;
+    }
+
+    static int cellY(int packed) {
+        return (short) packed;
+    }
+}
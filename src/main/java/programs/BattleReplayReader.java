@@ -0,0 +1,276 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Чтение повтора боя, записанного {@link BattleReplayWriter}, через отображение файла в память.
+ * <p>
+ * Файл отображается целиком вызовом {@link FileChannel#map}; в куче разбирается только заголовок
+ * с исходным состоянием юнитов, а записи событий читаются из отображения по смещению
+ * по мере применения. Записи упорядочены по номеру хода и имеют фиксированную ширину,
+ * поэтому граница любого хода находится двоичным поиском ({@link #eventIndexAfterTurn}).
+ * <p>
+ * Состояние боя восстанавливается в компактном {@link BattleState}: {@link #stateAtTurn(int)}
+ * строит исходное состояние и применяет к нему события до заданного хода включительно;
+ * {@link #apply} позволяет продолжить воспроизведение с уже достигнутой позиции.
+ * <p>
+ * Алгоритмическая сложность:
+ * - открытие: O(n + b), где n — число юнитов, b — число записей бонусов в заголовке
+ * - поиск границы хода: O(log e), где e — число событий
+ * - восстановление состояния на ход t: O(n + b + k), где k — число событий до хода t
+ * <p>
+ * Экземпляр не потокобезопасен.
+ */
+public class BattleReplayReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final List<UnitRecord> playerUnits;
+    private final List<UnitRecord> computerUnits;
+    private final int playerPoints;
+    private final int computerPoints;
+    private final int eventsOffset;
+    private final int eventCount;
+    private final int lastTurn;
+
+    private BattleReplayReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Replay file is too large: " + size + " bytes");
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        if (size < BattleReplayFormat.LAST_TURN_OFFSET + 4 || buffer.getInt(0) != BattleReplayFormat.MAGIC) {
+            throw new IOException("Not a battle replay file");
+        }
+        int version = buffer.getInt(4);
+        if (version != BattleReplayFormat.VERSION) {
+            throw new IOException("Unsupported replay version: " + version);
+        }
+
+        ByteBuffer header = buffer.duplicate();
+        header.position(BattleReplayFormat.LAST_TURN_OFFSET + 4);
+        this.playerPoints = header.getInt();
+        this.computerPoints = header.getInt();
+        int playerCount = header.getInt();
+        int computerCount = header.getInt();
+        this.playerUnits = readUnits(header, playerCount);
+        this.computerUnits = readUnits(header, computerCount);
+        this.eventsOffset = header.position();
+
+        long storedCount = buffer.getLong(BattleReplayFormat.EVENT_COUNT_OFFSET);
+        int recordsInFile = (int) ((size - eventsOffset) / BattleReplayFormat.RECORD_SIZE);
+        if (storedCount < 0) {
+            this.eventCount = recordsInFile;
+            this.lastTurn = recordsInFile == 0 ? 0
+                    : buffer.getInt(eventsOffset + (recordsInFile - 1) * BattleReplayFormat.RECORD_SIZE);
+        } else {
+            if (storedCount > recordsInFile) {
+                throw new IOException("Replay file is truncated: " + recordsInFile + " of " + storedCount + " events");
+            }
+            this.eventCount = (int) storedCount;
+            this.lastTurn = buffer.getInt(BattleReplayFormat.LAST_TURN_OFFSET);
+        }
+    }
+
+    /**
+     * Открывает файл повтора. Если запись боя не была завершена, число событий
+     * определяется по размеру файла.
+     */
+    public static BattleReplayReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new BattleReplayReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Номер последнего хода боя; ходы нумеруются с 1, ход 0 — исходное состояние.
+     */
+    public int getLastTurn() {
+        return lastTurn;
+    }
+
+    public int getUnitCount() {
+        return playerUnits.size() + computerUnits.size();
+    }
+
+    public int getEventTurn(int event) {
+        return buffer.getInt(recordOffset(event));
+    }
+
+    public int getEventKind(int event) {
+        return buffer.get(recordOffset(event) + 4);
+    }
+
+    /**
+     * Юнит события в нумерации {@link BattleState}: перемещающийся или атакующий.
+     */
+    public int getEventUnit(int event) {
+        return buffer.getInt(recordOffset(event) + 8);
+    }
+
+    /**
+     * Индекс первого события, относящегося к ходу после turn (или {@link #getEventCount()}).
+     */
+    public int eventIndexAfterTurn(int turn) {
+        int low = 0;
+        int high = eventCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getEventTurn(mid) <= turn) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Создаёт состояние боя до первого хода: новые юниты по данным заголовка, без программ.
+     */
+    public BattleState initialState() {
+        Army player = new Army(toUnits(playerUnits));
+        player.setPoints(playerPoints);
+        Army computer = new Army(toUnits(computerUnits));
+        computer.setPoints(computerPoints);
+        return BattleState.of(player, computer);
+    }
+
+    /**
+     * Восстанавливает состояние боя после хода turn (0 — исходное состояние).
+     */
+    public BattleState stateAtTurn(int turn) {
+        BattleState state = initialState();
+        apply(state, 0, eventIndexAfterTurn(turn));
+        return state;
+    }
+
+    /**
+     * Применяет к состоянию события с индексами [fromEvent, toEvent).
+     */
+    public void apply(BattleState state, int fromEvent, int toEvent) {
+        for (int event = fromEvent; event < toEvent; event++) {
+            int offset = recordOffset(event);
+            byte kind = buffer.get(offset + 4);
+            byte flags = buffer.get(offset + 5);
+            int unit = buffer.getInt(offset + 8);
+            int first = buffer.getInt(offset + 12);
+            int second = buffer.getInt(offset + 16);
+            if (kind == BattleReplayFormat.KIND_MOVE) {
+                state.moveTo(unit, BattleReplayFormat.cellX(second), BattleReplayFormat.cellY(second));
+            } else if (kind == BattleReplayFormat.KIND_ATTACK) {
+                state.setHealth(first, second);
+                if ((flags & BattleReplayFormat.FLAG_TARGET_ALIVE) == 0) {
+                    state.markDead(first);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int recordOffset(int event) {
+        if (event < 0 || event >= eventCount) {
+            throw new IndexOutOfBoundsException("Event " + event + " of " + eventCount);
+        }
+        return eventsOffset + event * BattleReplayFormat.RECORD_SIZE;
+    }
+
+    private static List<UnitRecord> readUnits(ByteBuffer header, int count) {
+        List<UnitRecord> units = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UnitRecord unit = new UnitRecord();
+            unit.name = readString(header);
+            unit.unitType = readString(header);
+            unit.attackType = readString(header);
+            unit.health = header.getInt();
+            unit.baseAttack = header.getInt();
+            unit.cost = header.getInt();
+            unit.x = header.getInt();
+            unit.y = header.getInt();
+            unit.alive = header.get() != 0;
+            unit.attackBonuses = readBonuses(header);
+            unit.defenceBonuses = readBonuses(header);
+            units.add(unit);
+        }
+        return units;
+    }
+
+    private static Map<String, Double> readBonuses(ByteBuffer header) {
+        int size = header.getInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Double> bonuses = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = readString(header);
+            bonuses.put(key, header.getDouble());
+        }
+        return bonuses;
+    }
+
+    private static String readString(ByteBuffer header) {
+        int length = header.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        header.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<Unit> toUnits(List<UnitRecord> records) {
+        List<Unit> units = new ArrayList<>(records.size());
+        for (UnitRecord record : records) {
+            Unit unit = new Unit(record.name, record.unitType, record.health, record.baseAttack, record.cost,
+                    record.attackType, copyOf(record.attackBonuses), copyOf(record.defenceBonuses),
+                    record.x, record.y);
+            unit.setAlive(record.alive);
+            units.add(unit);
+        }
+        return units;
+    }
+
+    private static Map<String, Double> copyOf(Map<String, Double> bonuses) {
+        return bonuses == null ? null : new HashMap<>(bonuses);
+    }
+
+    private static class UnitRecord {
+        String name;
+        String unitType;
+        String attackType;
+        int health;
+        int baseAttack;
+        int cost;
+        int x;
+        int y;
+        boolean alive;
+        Map<String, Double> attackBonuses;
+        Map<String, Double> defenceBonuses;
+    }
+}
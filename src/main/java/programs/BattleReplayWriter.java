@@ -0,0 +1,266 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Edge;
+import com.battle.heroes.army.programs.UnitTargetPathFinder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись повтора боя в компактный двоичный формат {@link BattleReplayFormat}.
+ * <p>
+ * В начале боя ({@link #onBattleStart}) в файл пишется заголовок с исходным состоянием
+ * всех юнитов обеих армий, далее на каждый ход ({@link #onTurn}) — записи фиксированной ширины:
+ * перемещения атакующего (начальная и конечная клетки) и атака (цель, её здоровье и признак жизни).
+ * <p>
+ * Программы ближнего боя библиотеки проходят путь до цели, бьют и возвращаются на исходную клетку,
+ * поэтому по позиции юнита до и после хода перемещения не видно. Чтобы путь попал в повтор,
+ * программы юнитов должны искать путь через {@link #recordPaths(UnitTargetPathFinder)}: тогда ход
+ * записывается как перемещение по концам найденного пути, атака и возвращение в итоговую клетку.
+ * Без этого записывается только перемещение из клетки до хода в клетку после хода, если они различаются.
+ * Записи копятся в прямом буфере и сбрасываются в {@link FileChannel} блоками; в конце боя
+ * ({@link #onBattleEnd()}) в заголовок дописываются число событий и номер последнего хода.
+ * <p>
+ * Подключается к {@link SimulateBattleImpl#setReplayWriter}. Один файл содержит один бой.
+ * <p>
+ * Алгоритмическая сложность: O(n + b) на заголовок, где n — число юнитов, b — число записей бонусов;
+ * O(1) на событие.
+ * <p>
+ * Экземпляр не потокобезопасен. Ошибки ввода-вывода пробрасываются как {@link UncheckedIOException}.
+ */
+public class BattleReplayWriter implements BattleLifecycleListener, AutoCloseable {
+    private static final int BUFFER_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer records = ByteBuffer.allocateDirect(BUFFER_RECORDS * BattleReplayFormat.RECORD_SIZE);
+    private final IdentityHashMap<Unit, Integer> unitIds = new IdentityHashMap<>();
+    private long eventCount;
+    private int turn;
+    private boolean started;
+    private boolean finished;
+    private Unit pathUnit;
+    private int pathStart;
+    private int pathEnd;
+
+    public BattleReplayWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Записывает заголовок с исходным состоянием армий.
+     *
+     * @throws IllegalStateException если бой в этот файл уже записывался
+     */
+    @Override
+    public void onBattleStart(Army playerArmy, Army computerArmy) {
+        if (started) {
+            throw new IllegalStateException("Replay file already contains a battle");
+        }
+        started = true;
+        List<Unit> playerUnits = playerArmy.getUnits();
+        List<Unit> computerUnits = computerArmy.getUnits();
+        for (Unit unit : playerUnits) {
+            unitIds.put(unit, unitIds.size());
+        }
+        for (Unit unit : computerUnits) {
+            unitIds.put(unit, unitIds.size());
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(bytes);
+            header.writeInt(BattleReplayFormat.MAGIC);
+            header.writeInt(BattleReplayFormat.VERSION);
+            header.writeLong(-1L);
+            header.writeInt(0);
+            header.writeInt(playerArmy.getPoints());
+            header.writeInt(computerArmy.getPoints());
+            header.writeInt(playerUnits.size());
+            header.writeInt(computerUnits.size());
+            for (Unit unit : playerUnits) {
+                writeUnit(header, unit);
+            }
+            for (Unit unit : computerUnits) {
+                writeUnit(header, unit);
+            }
+            header.flush();
+            writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Возвращает поиск пути, который делегирует запрос и запоминает концы найденного пути —
+     * они записываются перемещением в ближайшем {@link #onTurn} этого же юнита.
+     */
+    public UnitTargetPathFinder recordPaths(UnitTargetPathFinder delegate) {
+        return (attackUnit, targetUnit, obstacles) -> {
+            List<Edge> path = delegate.getTargetPath(attackUnit, targetUnit, obstacles);
+            if (path != null && !path.isEmpty()) {
+                Edge first = path.get(0);
+                Edge last = path.get(path.size() - 1);
+                pathUnit = attackUnit;
+                pathStart = BattleReplayFormat.packCell(first.getX(), first.getY());
+                pathEnd = BattleReplayFormat.packCell(last.getX(), last.getY());
+            }
+            return path;
+        };
+    }
+
+    /**
+     * Записывает ход юнита: перемещение по концам пути, найденного за этот ход через
+     * {@link #recordPaths}, атаку на цель, если она была, и перемещение в текущие координаты
+     * юнита, если он не остался в конце пути. Если путь не запрашивался, записывается
+     * перемещение из клетки (fromX, fromY) в текущие координаты, если они изменились.
+     */
+    public void onTurn(Unit attacker, int fromX, int fromY, Unit target) {
+        turn++;
+        boolean walked = pathUnit == attacker && attacker != null;
+        pathUnit = null;
+        Integer attackerId = unitIds.get(attacker);
+        if (attackerId == null) {
+            return;
+        }
+        int from = BattleReplayFormat.packCell(fromX, fromY);
+        int to = BattleReplayFormat.packCell(attacker.getxCoordinate(), attacker.getyCoordinate());
+        if (walked) {
+            putRecord(BattleReplayFormat.KIND_MOVE, 0, attackerId, pathStart, pathEnd);
+            from = pathEnd;
+        } else if (from != to) {
+            putRecord(BattleReplayFormat.KIND_MOVE, 0, attackerId, from, to);
+            from = to;
+        }
+        Integer targetId = target == null ? null : unitIds.get(target);
+        if (targetId != null) {
+            putRecord(BattleReplayFormat.KIND_ATTACK, target.isAlive() ? BattleReplayFormat.FLAG_TARGET_ALIVE : 0,
+                    attackerId, targetId, target.getHealth());
+        }
+        if (from != to) {
+            putRecord(BattleReplayFormat.KIND_MOVE, 0, attackerId, from, to);
+        }
+    }
+
+    /**
+     * Сбрасывает накопленные события и дописывает в заголовок их число и номер последнего хода.
+     */
+    @Override
+    public void onBattleEnd() {
+        if (!started || finished) {
+            return;
+        }
+        finished = true;
+        try {
+            flushRecords();
+            ByteBuffer totals = ByteBuffer.allocate(12);
+            totals.putLong(eventCount).putInt(turn).flip();
+            while (totals.hasRemaining()) {
+                channel.write(totals, BattleReplayFormat.EVENT_COUNT_OFFSET + totals.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Номер последнего записанного хода (ходы нумеруются с 1).
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            onBattleEnd();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void putRecord(byte kind, int flags, int unit, int first, int second) {
+        if (!records.hasRemaining()) {
+            try {
+                flushRecords();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        records.putInt(turn)
+                .put(kind)
+                .put((byte) flags)
+                .putShort((short) 0)
+                .putInt(unit)
+                .putInt(first)
+                .putInt(second);
+        eventCount++;
+    }
+
+    private void flushRecords() throws IOException {
+        records.flip();
+        writeFully(records);
+        records.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeUnit(DataOutputStream out, Unit unit) throws IOException {
+        writeString(out, unit.getName());
+        writeString(out, unit.getUnitType());
+        writeString(out, unit.getAttackType());
+        out.writeInt(unit.getHealth());
+        out.writeInt(unit.getBaseAttack());
+        out.writeInt(unit.getCost());
+        out.writeInt(unit.getxCoordinate());
+        out.writeInt(unit.getyCoordinate());
+        out.writeBoolean(unit.isAlive());
+        writeBonuses(out, unit.getAttackBonuses());
+        writeBonuses(out, unit.getDefenceBonuses());
+    }
+
+    private static void writeBonuses(DataOutputStream out, Map<String, Double> bonuses) throws IOException {
+        if (bonuses == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bonuses.size());
+        for (Map.Entry<String, Double> entry : bonuses.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeDouble(entry.getValue() == null ? 0.0 : entry.getValue());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String is too long for the replay header: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
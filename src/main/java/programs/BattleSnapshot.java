@@ -0,0 +1,108 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+
+/**
+ * Снимок боя в середине симуляции: изменяемые поля юнитов и позиция в очереди ходов.
+ * <p>
+ * Поля юнитов хранит {@link MutableBattleState} — изменяемая часть {@link BattleState}: та же нумерация
+ * (сначала юниты игрока в порядке армии, затем юниты компьютера) и те же процедуры копирования
+ * из юнитов и обратно. Для каждого юнита хранятся только здоровье, координаты и признак жизни;
+ * имена, бонусы и программы юнитов не копируются — при продолжении боя они берутся из армий,
+ * на которые снимок накладывается ({@link #applyTo(Army, Army)}).
+ * Вместе с позицией {@link TurnScheduler.Cursor} и счётчиками раундов и атак этого достаточно,
+ * чтобы {@link SimulateBattleImpl#resume} продолжил бой с того же места.
+ * <p>
+ * Снимок неизменяем (состояние не выходит за его пределы), поэтому из одного снимка можно запускать
+ * сколько угодно продолжений — последовательно на тех же армиях или параллельно на их копиях ({@link ArmyCopier}).
+ * <p>
+ * Алгоритмическая сложность: снятие и наложение — O(n), где n — число юнитов обеих армий;
+ * память — 3 * n int и n бит.
+ */
+public final class BattleSnapshot {
+    private final MutableBattleState state;
+    private final TurnScheduler.Cursor cursor;
+    private final int roundCount;
+    private final int turnCount;
+    private final int attackCount;
+    private final boolean turnPending;
+
+    private BattleSnapshot(MutableBattleState state, TurnScheduler.Cursor cursor,
+                           int roundCount, int turnCount, int attackCount, boolean turnPending) {
+        this.state = state;
+        this.cursor = cursor;
+        this.roundCount = roundCount;
+        this.turnCount = turnCount;
+        this.attackCount = attackCount;
+        this.turnPending = turnPending;
+    }
+
+    static BattleSnapshot capture(Army playerArmy, Army computerArmy, TurnScheduler.Cursor cursor,
+                                  int roundCount, int turnCount, int attackCount, boolean turnPending) {
+        return new BattleSnapshot(MutableBattleState.of(playerArmy, computerArmy),
+                cursor, roundCount, turnCount, attackCount, turnPending);
+    }
+
+    /**
+     * Записывает здоровье, координаты и признак жизни в юнитов армий того же состава.
+     *
+     * @throws IllegalArgumentException если размеры армий не совпадают со снимком
+     */
+    public void applyTo(Army playerArmy, Army computerArmy) {
+        state.applyTo(playerArmy, computerArmy);
+    }
+
+    public int size() {
+        return state.size();
+    }
+
+    public int getPlayerCount() {
+        return state.getPlayerCount();
+    }
+
+    public int getHealth(int unit) {
+        return state.getHealth(unit);
+    }
+
+    public int getX(int unit) {
+        return state.getX(unit);
+    }
+
+    public int getY(int unit) {
+        return state.getY(unit);
+    }
+
+    public boolean isAlive(int unit) {
+        return state.isAlive(unit);
+    }
+
+    /**
+     * Номер раунда, в котором снят снимок.
+     */
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    /**
+     * Количество завершённых ходов на момент снимка.
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    public int getAttackCount() {
+        return attackCount;
+    }
+
+    /**
+     * {@code true}, если снимок снят до хода текущего атакующего (из {@link AttackResolver});
+     * тогда продолжение начинается с его хода.
+     */
+    public boolean isTurnPending() {
+        return turnPending;
+    }
+
+    TurnScheduler.Cursor getCursor() {
+        return cursor;
+    }
+}
@@ -0,0 +1,334 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Program;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компактное состояние боя в виде параллельных примитивных массивов (struct-of-arrays).
+ * <p>
+ * Юниты обеих армий нумеруются подряд: сначала юниты игрока в порядке армии,
+ * затем юниты компьютера. Для юнита i хранятся атака и стоимость в массивах int[];
+ * изменяемые поля — здоровье, координаты и признак жизни — хранит {@link MutableBattleState}
+ * ({@link #getMutableState()}), а методы этого класса обращаются к нему. Типы юнитов и типы атаки
+ * интернируются в маленькие целые числа, а бонусы атаки и защиты заранее раскладываются
+ * в матрицы double[тип][тип], поэтому горячий цикл боя не обращается к строкам и картам.
+ * <p>
+ * Имена, исходные карты бонусов и программы юнитов сохраняются для обратного преобразования:
+ * {@link #toPlayerArmy()} и {@link #toComputerArmy()} восстанавливают армии без потерь,
+ * а {@link #applyTo(Army, Army)} записывает изменяемые поля обратно в исходные юниты.
+ * <p>
+ * На этом состоянии работает цикл {@link HeadlessBattleEngine}: очередь ходов ({@link TurnScheduler}),
+ * подсчёт живых, выбор целей и удары ({@link HeadlessAttackResolver}) читают и меняют массивы состояния
+ * по номеру юнита, без обращения к объектам {@link Unit} и хэш-таблицам; в юниты армий результат
+ * записывается один раз, в конце боя. Любое перемещение или гибель увеличивает номер версии
+ * ({@link #getVersion()}), по которому кэши определяют, что поле не менялось.
+ * <p>
+ * Матрица бонусов заполняется по первому юниту каждого типа; если у юнитов одного типа
+ * разные бонусы, точные значения остаются доступны через исходные карты.
+ * <p>
+ * Алгоритмическая сложность:
+ * - построение и обратное преобразование: O(n + b), где n — число юнитов, b — число записей бонусов
+ * - чтение и изменение полей юнита, проверка и пометка гибели: O(1)
+ * - число живых юнитов стороны: O(1)
+ * - перечитывание изменяемых полей из юнитов ({@link #readFrom(Army, Army)}): O(n)
+ * <p>
+ * Экземпляр не потокобезопасен.
+ */
+public class BattleState {
+    public static final int PLAYER = 0;
+    public static final int COMPUTER = 1;
+
+    private final int size;
+    private final int playerCount;
+
+    private final MutableBattleState mutable;
+    private final int[] attack;
+    private final int[] cost;
+    private final int[] type;
+    private final int[] attackType;
+
+    private final List<String> typeNames;
+    private final List<String> attackTypeNames;
+    private final double[][] attackBonus;
+    private final double[][] defenceBonus;
+
+    private final String[] names;
+    private final Map<String, Double>[] attackBonusMaps;
+    private final Map<String, Double>[] defenceBonusMaps;
+    private final Program[] programs;
+    private final int playerPoints;
+    private final int computerPoints;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private BattleState(List<Unit> units, int playerCount, int playerPoints, int computerPoints) {
+        this.size = units.size();
+        this.playerCount = playerCount;
+        this.playerPoints = playerPoints;
+        this.computerPoints = computerPoints;
+
+        mutable = MutableBattleState.of(units, playerCount);
+        attack = new int[size];
+        cost = new int[size];
+        type = new int[size];
+        attackType = new int[size];
+        names = new String[size];
+        attackBonusMaps = new Map[size];
+        defenceBonusMaps = new Map[size];
+        programs = new Program[size];
+
+        Map<String, Integer> typeIds = new HashMap<>();
+        typeNames = new ArrayList<>();
+        Map<String, Integer> attackTypeIds = new HashMap<>();
+        attackTypeNames = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            Unit unit = units.get(i);
+            attack[i] = unit.getBaseAttack();
+            cost[i] = unit.getCost();
+            type[i] = intern(unit.getUnitType(), typeIds, typeNames);
+            attackType[i] = intern(unit.getAttackType(), attackTypeIds, attackTypeNames);
+            names[i] = unit.getName();
+            attackBonusMaps[i] = copyOf(unit.getAttackBonuses());
+            defenceBonusMaps[i] = copyOf(unit.getDefenceBonuses());
+            programs[i] = unit.getProgram();
+        }
+
+        for (int i = 0; i < size; i++) {
+            internKeys(attackBonusMaps[i], typeIds, typeNames);
+            internKeys(defenceBonusMaps[i], typeIds, typeNames);
+        }
+
+        int types = typeNames.size();
+        attackBonus = new double[types][types];
+        defenceBonus = new double[types][types];
+        boolean[] filled = new boolean[types];
+        for (int i = 0; i < size; i++) {
+            if (filled[type[i]]) {
+                continue;
+            }
+            filled[type[i]] = true;
+            fillRow(attackBonus[type[i]], attackBonusMaps[i], typeIds);
+            fillRow(defenceBonus[type[i]], defenceBonusMaps[i], typeIds);
+        }
+    }
+
+    public static BattleState of(Army playerArmy, Army computerArmy) {
+        List<Unit> units = new ArrayList<>(playerArmy.getUnits());
+        units.addAll(computerArmy.getUnits());
+        return new BattleState(units, playerArmy.getUnits().size(), playerArmy.getPoints(), computerArmy.getPoints());
+    }
+
+    /**
+     * Изменяемая часть состояния: здоровье, координаты и признак жизни в той же нумерации.
+     */
+    public MutableBattleState getMutableState() {
+        return mutable;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Возвращает сторону юнита: {@link #PLAYER} или {@link #COMPUTER}.
+     */
+    public int sideOf(int unit) {
+        return unit < playerCount ? PLAYER : COMPUTER;
+    }
+
+    public int getHealth(int unit) {
+        return mutable.getHealth(unit);
+    }
+
+    public void setHealth(int unit, int value) {
+        mutable.setHealth(unit, value);
+    }
+
+    public int getAttack(int unit) {
+        return attack[unit];
+    }
+
+    public int getCost(int unit) {
+        return cost[unit];
+    }
+
+    public int getX(int unit) {
+        return mutable.getX(unit);
+    }
+
+    public int getY(int unit) {
+        return mutable.getY(unit);
+    }
+
+    public void moveTo(int unit, int newX, int newY) {
+        mutable.moveTo(unit, newX, newY);
+    }
+
+    public boolean isAlive(int unit) {
+        return mutable.isAlive(unit);
+    }
+
+    /**
+     * Помечает юнит погибшим. Повторный вызов для уже погибшего юнита ничего не меняет.
+     */
+    public void markDead(int unit) {
+        mutable.markDead(unit);
+    }
+
+    /**
+     * Наносит урон юниту и помечает его погибшим, если здоровье стало не больше нуля.
+     *
+     * @return {@code true}, если юнит погиб от этого удара
+     */
+    public boolean applyDamage(int unit, int damage) {
+        return mutable.applyDamage(unit, damage);
+    }
+
+    public int getAliveCount(int side) {
+        return mutable.getAliveCount(side);
+    }
+
+    /**
+     * Номер версии состояния; увеличивается при каждом перемещении и гибели юнита.
+     */
+    public long getVersion() {
+        return mutable.getVersion();
+    }
+
+    public int getTypeId(int unit) {
+        return type[unit];
+    }
+
+    public int getAttackTypeId(int unit) {
+        return attackType[unit];
+    }
+
+    public int getTypeCount() {
+        return typeNames.size();
+    }
+
+    public String getTypeName(int typeId) {
+        return typeNames.get(typeId);
+    }
+
+    public String getAttackTypeName(int attackTypeId) {
+        return attackTypeNames.get(attackTypeId);
+    }
+
+    /**
+     * Бонус атаки юнитов типа attackerType против типа targetType (0, если бонуса нет).
+     */
+    public double getAttackBonus(int attackerType, int targetType) {
+        return attackBonus[attackerType][targetType];
+    }
+
+    /**
+     * Бонус защиты юнитов типа defenderType против типа attackerType (0, если бонуса нет).
+     */
+    public double getDefenceBonus(int defenderType, int attackerType) {
+        return defenceBonus[defenderType][attackerType];
+    }
+
+    public Army toPlayerArmy() {
+        return toArmy(0, playerCount, playerPoints);
+    }
+
+    public Army toComputerArmy() {
+        return toArmy(playerCount, size, computerPoints);
+    }
+
+    /**
+     * Записывает здоровье, координаты и признак жизни обратно в юниты исходных армий.
+     * Армии должны содержать те же юниты в том же порядке, что и при построении состояния.
+     *
+     * @throws IllegalArgumentException если размеры армий не совпадают с состоянием
+     */
+    public void applyTo(Army playerArmy, Army computerArmy) {
+        mutable.applyTo(playerArmy, computerArmy);
+    }
+
+    /**
+     * Перечитывает здоровье, координаты и признак жизни из юнитов армий того же состава —
+     * например, после хода, выполненного программой юнита напрямую над объектами {@link Unit}.
+     *
+     * @throws IllegalArgumentException если размеры армий не совпадают с состоянием
+     */
+    public void readFrom(Army playerArmy, Army computerArmy) {
+        mutable.readFrom(playerArmy, computerArmy);
+    }
+
+    /**
+     * Перечитывает здоровье, координаты и признак жизни одного юнита из объекта {@link Unit}.
+     * Версия увеличивается, только если юнит переместился, погиб или ожил.
+     */
+    public void readFrom(int unit, Unit source) {
+        mutable.readFrom(unit, source);
+    }
+
+    private Army toArmy(int from, int to, int points) {
+        List<Unit> units = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Unit unit = new Unit(
+                    names[i],
+                    typeNames.get(type[i]),
+                    mutable.getHealth(i),
+                    attack[i],
+                    cost[i],
+                    attackTypeNames.get(attackType[i]),
+                    copyOf(attackBonusMaps[i]),
+                    copyOf(defenceBonusMaps[i]),
+                    mutable.getX(i),
+                    mutable.getY(i)
+            );
+            unit.setAlive(isAlive(i));
+            unit.setProgram(programs[i]);
+            units.add(unit);
+        }
+        Army army = new Army(units);
+        army.setPoints(points);
+        return army;
+    }
+
+    private static int intern(String value, Map<String, Integer> ids, List<String> names) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = names.size();
+            ids.put(value, id);
+            names.add(value);
+        }
+        return id;
+    }
+
+    private static void internKeys(Map<String, Double> bonuses, Map<String, Integer> ids, List<String> names) {
+        if (bonuses != null) {
+            for (String key : bonuses.keySet()) {
+                intern(key, ids, names);
+            }
+        }
+    }
+
+    private static void fillRow(double[] row, Map<String, Double> bonuses, Map<String, Integer> ids) {
+        if (bonuses == null) {
+            return;
+        }
+        for (Map.Entry<String, Double> entry : bonuses.entrySet()) {
+            if (entry.getValue() != null) {
+                row[ids.get(entry.getKey())] = entry.getValue();
+            }
+        }
+    }
+
+    private static Map<String, Double> copyOf(Map<String, Double> bonuses) {
+        return bonuses == null ? null : new HashMap<>(bonuses);
+    }
+}
@@ -0,0 +1,218 @@
+package programs;
+
+import java.util.Arrays;
+
+/**
+ * Двунаправленный поиск в ширину на поле с единичной стоимостью шага; размеры поля и правило
+ * перемещения задаёт {@link BoardGeometry} (по умолчанию — 27x21 с движением в 8 направлениях).
+ * <p>
+ * Волны поиска идут одновременно от стартовой клетки и от клетки цели; на каждом шаге
+ * раскрывается целый слой той волны, чей фронт меньше. Когда волна находит клетку,
+ * уже достигнутую встречной волной, путь через неё — кандидат; после раскрытия слоя
+ * выбирается кандидат с минимальной суммарной длиной, поэтому найденный путь кратчайший
+ * и по длине совпадает с путём A*. Для запросов через всё поле (из колонок 0–2 в колонки
+ * 24–26) каждая волна проходит примерно половину расстояния, и раскрывается заметно
+ * меньше клеток, чем при поиске в ширину от одного конца; операций с кучей нет вовсе.
+ * <p>
+ * Семантика блокировок совпадает с {@link GridPathEngine}: клетка цели считается свободной
+ * независимо от набора блокировок; стартовая клетка (на ней стоит сам атакующий) —
+ * тоже, так как обратная волна должна в неё войти. Если волны не встретились, пути нет.
+ * <p>
+ * Алгоритмическая сложность: O(V), где V = W * H — число клеток поля.
+ * <p>
+ * Экземпляр не потокобезопасен: каждому потоку нужен собственный движок.
+ */
+public class BidirectionalSearchEngine implements PathSearch {
+    private final BoardGeometry geometry;
+    private final int[] directionX;
+    private final int[] directionY;
+
+    private final int[] forwardStamp;
+    private final int[] backwardStamp;
+    private final int[] forwardDistance;
+    private final int[] backwardDistance;
+    private final int[] forwardParent;
+    private final int[] backwardParent;
+    private int stamp;
+
+    private final int[] forwardQueue;
+    private final int[] backwardQueue;
+
+    private final int[] path;
+    private int pathLength;
+
+    private long[] blocked;
+    private int start;
+    private int target;
+
+    private int bestMeet;
+    private int bestLength;
+
+    private int expandedNodes;
+    private int openSetPeak;
+
+    public BidirectionalSearchEngine() {
+        this(BoardGeometry.STANDARD);
+    }
+
+    public BidirectionalSearchEngine(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.directionX = geometry.getMovement().dx();
+        this.directionY = geometry.getMovement().dy();
+        int cells = geometry.getCellCount();
+        this.forwardStamp = new int[cells];
+        this.backwardStamp = new int[cells];
+        this.forwardDistance = new int[cells];
+        this.backwardDistance = new int[cells];
+        this.forwardParent = new int[cells];
+        this.backwardParent = new int[cells];
+        this.forwardQueue = new int[cells];
+        this.backwardQueue = new int[cells];
+        this.path = new int[cells];
+    }
+
+    @Override
+    public int findPath(int startX, int startY, int targetX, int targetY, long[] blockedBits) {
+        pathLength = 0;
+        expandedNodes = 0;
+        openSetPeak = 0;
+        if (!geometry.isInside(startX, startY) || !geometry.isInside(targetX, targetY)) {
+            return 0;
+        }
+
+        start = geometry.cellIndex(startX, startY);
+        target = geometry.cellIndex(targetX, targetY);
+        if (start == target) {
+            path[0] = start;
+            pathLength = 1;
+            return pathLength;
+        }
+
+        blocked = blockedBits;
+        nextStamp();
+
+        forwardStamp[start] = stamp;
+        forwardDistance[start] = 0;
+        forwardParent[start] = -1;
+        backwardStamp[target] = stamp;
+        backwardDistance[target] = 0;
+        backwardParent[target] = -1;
+
+        forwardQueue[0] = start;
+        backwardQueue[0] = target;
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+
+        bestMeet = -1;
+        bestLength = Integer.MAX_VALUE;
+
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            openSetPeak = Math.max(openSetPeak, forwardTail - forwardHead + backwardTail - backwardHead);
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int layerEnd = forwardTail;
+                forwardTail = expandLayer(forwardQueue, forwardHead, layerEnd,
+                        forwardStamp, forwardDistance, forwardParent, backwardStamp, backwardDistance);
+                forwardHead = layerEnd;
+            } else {
+                int layerEnd = backwardTail;
+                backwardTail = expandLayer(backwardQueue, backwardHead, layerEnd,
+                        backwardStamp, backwardDistance, backwardParent, forwardStamp, forwardDistance);
+                backwardHead = layerEnd;
+            }
+            if (bestMeet >= 0) {
+                return buildPath(bestMeet);
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public int getPathLength() {
+        return pathLength;
+    }
+
+    @Override
+    public int getPathCell(int i) {
+        return path[i];
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    @Override
+    public int getOpenSetPeak() {
+        return openSetPeak;
+    }
+
+    /**
+     * Раскрывает слой queue[head, layerEnd) одной волны и дописывает следующий слой в конец очереди.
+     *
+     * @return новый конец очереди
+     */
+    private int expandLayer(int[] queue, int head, int layerEnd,
+                            int[] ownStamp, int[] ownDistance, int[] ownParent,
+                            int[] otherStamp, int[] otherDistance) {
+        int tail = layerEnd;
+        expandedNodes += layerEnd - head;
+        for (int i = head; i < layerEnd; i++) {
+            int current = queue[i];
+            int cx = geometry.cellX(current);
+            int cy = geometry.cellY(current);
+            int nextDistance = ownDistance[current] + 1;
+
+            for (int d = 0; d < directionX.length; d++) {
+                int nx = cx + directionX[d];
+                int ny = cy + directionY[d];
+                if (!geometry.isInside(nx, ny)) continue;
+                int next = geometry.cellIndex(nx, ny);
+                if (ownStamp[next] == stamp || !isPassable(next)) continue;
+
+                ownStamp[next] = stamp;
+                ownDistance[next] = nextDistance;
+                ownParent[next] = current;
+                queue[tail++] = next;
+
+                if (otherStamp[next] == stamp) {
+                    int length = nextDistance + otherDistance[next];
+                    if (length < bestLength) {
+                        bestLength = length;
+                        bestMeet = next;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    private boolean isPassable(int cell) {
+        return cell == target || cell == start || !GridPathEngine.isBlocked(blocked, cell);
+    }
+
+    private int buildPath(int meet) {
+        int length = forwardDistance[meet] + backwardDistance[meet] + 1;
+        int i = forwardDistance[meet];
+        for (int cell = meet; cell != -1; cell = forwardParent[cell]) {
+            path[i--] = cell;
+        }
+        i = forwardDistance[meet] + 1;
+        for (int cell = backwardParent[meet]; cell != -1; cell = backwardParent[cell]) {
+            path[i++] = cell;
+        }
+        pathLength = length;
+        return length;
+    }
+
+    private void nextStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(forwardStamp, 0);
+            Arrays.fill(backwardStamp, 0);
+            stamp = 1;
+        }
+    }
+}
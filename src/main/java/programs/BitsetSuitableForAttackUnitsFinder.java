@@ -0,0 +1,200 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.SuitableForAttackUnitsFinder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поиск доступных для атаки юнитов на битовых масках рядов.
+ * <p>
+ * Высота поля — 21 клетка, поэтому координаты y живых юнитов ряда помещаются в одно int:
+ * бит y установлен, если в клетке есть живой юнит. Юнит не прикрыт, если в маске сброшен бит
+ * соседа — y-1 для цели слева, y+1 для цели справа, — и маска всех неприкрытых клеток ряда
+ * вычисляется одной операцией: mask & ~(mask << 1) или mask & ~(mask >>> 1).
+ * <p>
+ * Результат и его порядок совпадают с {@link SuitableForAttackUnitsFinderImpl}:
+ * ряды по порядку, внутри ряда — порядок списка. Если в ряду есть живой юнит с координатой y
+ * вне диапазона [0, 31], ряд обрабатывается исходным алгоритмом.
+ * <p>
+ * Алгоритмическая сложность: O(n), где n — общее количество юнитов во всех рядах,
+ * без упаковки координат в Integer и промежуточных коллекций. Вариант
+ * {@link #getSuitableUnits(List, boolean, List)} заполняет переданный список
+ * и в установившемся режиме не выделяет память.
+ * <p>
+ * Экземпляр не хранит состояния между вызовами, кроме ссылки на метрики, и потокобезопасен,
+ * если метрики потокобезопасны.
+ */
+public class BitsetSuitableForAttackUnitsFinder implements SuitableForAttackUnitsFinder {
+    private static final int MAX_MASK_Y = Integer.SIZE - 1;
+
+    private final SuitableForAttackUnitsFinderImpl fallback = new SuitableForAttackUnitsFinderImpl();
+    private BattleMetrics metrics = BattleMetrics.NOOP;
+
+    /**
+     * Задаёт метрики: задержку каждого запроса и число найденных целей.
+     * По умолчанию — {@link BattleMetrics#NOOP}.
+     */
+    public void setMetrics(BattleMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<Unit> getSuitableUnits(List<List<Unit>> unitsByRow, boolean isLeftArmyTarget) {
+        List<Unit> suitableUnits = new ArrayList<>();
+        getSuitableUnits(unitsByRow, isLeftArmyTarget, suitableUnits);
+        return suitableUnits;
+    }
+
+    /**
+     * Определяет доступные для атаки юниты армии side в колонках [firstColumn, firstColumn + columnCount)
+     * по готовым маскам колонок {@link BoardIndex}; результат совпадает
+     * с {@link SuitableForAttackUnitsFinderImpl#getSuitableUnits(BoardIndex, int, int, int, boolean)}.
+     * <p>
+     * Алгоритмическая сложность: O(c + k), где c — число колонок, k — число юнитов в них.
+     */
+    public List<Unit> getSuitableUnits(BoardIndex board, int side, int firstColumn, int columnCount,
+                                       boolean isLeftArmyTarget) {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        List<Unit> suitableUnits = new ArrayList<>();
+        addSuitable(board, side, firstColumn, columnCount, isLeftArmyTarget, suitableUnits);
+        if (metrics.isEnabled()) {
+            metrics.recordSuitableTargets(System.nanoTime() - start, suitableUnits.size());
+        }
+        return suitableUnits;
+    }
+
+    /**
+     * Записывает в out номера доступных для атаки юнитов стороны side состояния боя
+     * в колонках [firstColumn, firstColumn + columnCount): колонки по возрастанию x,
+     * внутри колонки — по возрастанию номера, то есть в порядке армии, как у варианта с {@link BoardIndex}.
+     * Маски колонок берутся из индекса {@link StateBoardIndex}, который обновляется вместе с состоянием;
+     * колонка с живым юнитом вне диапазона [0, 31] обрабатывается перебором её юнитов.
+     * <p>
+     * Алгоритмическая сложность: O(c + k), где c — число колонок, k — число юнитов в них.
+     *
+     * @param out массив не короче числа юнитов стороны
+     * @return количество записанных номеров
+     */
+    public int getSuitableUnits(StateBoardIndex board, int side, int firstColumn, int columnCount,
+                                boolean isLeftArmyTarget, int[] out) {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        BattleState state = board.getState();
+        int count = 0;
+        for (int x = firstColumn; x < firstColumn + columnCount; x++) {
+            int mask = board.getColumnMask(side, x);
+            boolean fitsMask = board.getOutsideCount(side, x) == 0;
+            if (mask == 0 && fitsMask) {
+                continue;
+            }
+
+            int[] units = board.getColumnUnits(side, x);
+            int size = board.getColumnSize(side, x);
+            int uncovered = uncoveredMask(mask, isLeftArmyTarget);
+            for (int j = 0; j < size; j++) {
+                int i = units[j];
+                if (!state.isAlive(i)) {
+                    continue;
+                }
+                boolean suitable = fitsMask
+                        ? (uncovered & (1 << state.getY(i))) != 0
+                        : !isCovered(state, units, size, i, isLeftArmyTarget);
+                if (suitable) {
+                    out[count++] = i;
+                }
+            }
+        }
+        if (metrics.isEnabled()) {
+            metrics.recordSuitableTargets(System.nanoTime() - start, count);
+        }
+        return count;
+    }
+
+    /**
+     * Очищает список out и записывает в него доступные для атаки юниты.
+     */
+    public void getSuitableUnits(List<List<Unit>> unitsByRow, boolean isLeftArmyTarget, List<Unit> out) {
+        out.clear();
+        if (unitsByRow == null) {
+            return;
+        }
+
+        for (int r = 0; r < unitsByRow.size(); r++) {
+            List<Unit> row = unitsByRow.get(r);
+            if (row == null || row.isEmpty()) {
+                continue;
+            }
+
+            int mask = 0;
+            boolean fitsMask = true;
+            for (int i = 0; i < row.size(); i++) {
+                Unit unit = row.get(i);
+                if (unit == null || !unit.isAlive()) {
+                    continue;
+                }
+                int y = unit.getyCoordinate();
+                if (y < 0 || y > MAX_MASK_Y) {
+                    fitsMask = false;
+                    break;
+                }
+                mask |= 1 << y;
+            }
+
+            if (!fitsMask) {
+                out.addAll(fallback.getSuitableUnits(List.of(row), isLeftArmyTarget));
+                continue;
+            }
+
+            addUncovered(row, uncoveredMask(mask, isLeftArmyTarget), out);
+        }
+    }
+
+    /**
+     * Добавляет в out доступные для атаки юниты колонок индекса: колонки по возрастанию x,
+     * внутри колонки — порядок армии.
+     */
+    static void addSuitable(BoardIndex board, int side, int firstColumn, int columnCount,
+                            boolean isLeftArmyTarget, List<Unit> out) {
+        for (int x = firstColumn; x < firstColumn + columnCount; x++) {
+            int mask = board.getColumnMask(side, x);
+            if (mask != 0) {
+                addUncovered(board.getColumnUnits(side, x), uncoveredMask(mask, isLeftArmyTarget), out);
+            }
+        }
+    }
+
+    private static boolean isCovered(BattleState state, int[] column, int size, int unit, boolean isLeftArmyTarget) {
+        int neighbourY = state.getY(unit) + (isLeftArmyTarget ? -1 : 1);
+        for (int j = 0; j < size; j++) {
+            if (state.isAlive(column[j]) && state.getY(column[j]) == neighbourY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Маска клеток ряда без прикрывающего соседа: y-1 для цели слева, y+1 для цели справа.
+     *
+     * @param mask маска живых юнитов ряда: бит y установлен, если клетка (x, y) занята
+     */
+    static int uncoveredMask(int mask, boolean isLeftArmyTarget) {
+        return mask & ~(isLeftArmyTarget ? mask << 1 : mask >>> 1);
+    }
+
+    /**
+     * Добавляет в out живые юниты ряда, чьи клетки есть в маске uncovered, в порядке ряда.
+     */
+    static void addUncovered(List<Unit> row, int uncovered, List<Unit> out) {
+        if (uncovered == 0) {
+            return;
+        }
+        for (int i = 0; i < row.size(); i++) {
+            Unit unit = row.get(i);
+            if (unit != null && unit.isAlive() && (uncovered & (1 << unit.getyCoordinate())) != 0) {
+                out.add(unit);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package programs;
+
+/**
+ * Геометрия игрового поля: размеры, зоны развёртывания армий и правило перемещения.
+ * <p>
+ * Клетка (x, y) кодируется индексом y * width + x, поэтому любые структуры поля —
+ * битовые наборы занятости, массивы расстояний и родителей — хранятся в плоских массивах
+ * длины width * height без хеш-таблиц и масштабируются на большие поля (например, 200x150).
+ * <p>
+ * Зоны развёртывания — первые и последние {@link #getDeploymentColumns()} колонок поля:
+ * левая занята армией компьютера ({@link GeneratePresetImpl}), правая — армией игрока.
+ * <p>
+ * Экземпляр неизменяем и может разделяться между потоками.
+ */
+public final class BoardGeometry {
+    /**
+     * Поле исходной игры: 27x21, зоны по 3 колонки, движение в 8 направлениях.
+     */
+    public static final BoardGeometry STANDARD =
+            new BoardGeometry(27, 21, 3, MovementRule.EIGHT_NEIGHBOURS);
+
+    private final int width;
+    private final int height;
+    private final int cells;
+    private final int bitsetWords;
+    private final int deploymentColumns;
+    private final MovementRule movement;
+
+    public BoardGeometry(int width, int height, int deploymentColumns, MovementRule movement) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board dimensions must be positive: " + width + "x" + height);
+        }
+        if ((long) width * height > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Board is too large: " + width + "x" + height);
+        }
+        if (deploymentColumns <= 0 || deploymentColumns > width) {
+            throw new IllegalArgumentException("deploymentColumns must be in [1, " + width + "]: " + deploymentColumns);
+        }
+        if (movement == null) {
+            throw new IllegalArgumentException("movement must not be null");
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.bitsetWords = (cells + 63) >>> 6;
+        this.deploymentColumns = deploymentColumns;
+        this.movement = movement;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return cells;
+    }
+
+    /**
+     * Количество слов long[] в битовом наборе, покрывающем все клетки поля.
+     */
+    public int getBitsetWords() {
+        return bitsetWords;
+    }
+
+    public int getDeploymentColumns() {
+        return deploymentColumns;
+    }
+
+    /**
+     * Первая колонка правой зоны развёртывания (армия игрока).
+     */
+    public int getRightZoneFirstColumn() {
+        return width - deploymentColumns;
+    }
+
+    public MovementRule getMovement() {
+        return movement;
+    }
+
+    public int cellIndex(int x, int y) {
+        return y * width + x;
+    }
+
+    public int cellX(int cell) {
+        return cell % width;
+    }
+
+    public int cellY(int cell) {
+        return cell / width;
+    }
+
+    public boolean isInside(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Длина кратчайшего пути между клетками на пустом поле по правилу перемещения.
+     */
+    public int distance(int x, int y, int tx, int ty) {
+        return movement.distance(x, y, tx, ty);
+    }
+}
@@ -0,0 +1,201 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Индекс поля по колонкам для каждой армии, общий для всех ходов одного боя.
+ * <p>
+ * Для каждой армии и каждой колонки x хранится:
+ * - список юнитов колонки в порядке следования в армии (как у {@code Program.getUnitsByRow}),
+ *   включая погибших;
+ * - битовая маска int, в которой бит y установлен, если в клетке (x, y) есть живой юнит армии.
+ * Размеры поля задаёт {@link BoardGeometry} (по умолчанию — {@link BoardGeometry#STANDARD});
+ * высота поля не больше 32 клеток, поэтому маска колонки помещается в одно int, и соседство
+ * по вертикали проверяется сдвигом маски вместо множества координат.
+ * <p>
+ * Индекс заполняется в начале боя и обновляется инкрементально при перемещении
+ * ({@link #onUnitMoved}) и гибели ({@link #onUnitDied}) юнита; каждое изменение
+ * увеличивает номер версии ({@link #getVersion()}).
+ * Юниты за пределами поля в индекс не попадают.
+ * <p>
+ * Алгоритмическая сложность:
+ * - заполнение: O(n), где n — количество юнитов обеих армий
+ * - гибель юнита: O(1)
+ * - перемещение юнита: O(k), где k — количество юнитов в колонке
+ * - маска колонки: O(1)
+ * <p>
+ * Экземпляр не потокобезопасен и принадлежит одному бою.
+ */
+public class BoardIndex {
+    public static final int PLAYER = 0;
+    public static final int COMPUTER = 1;
+
+    private final BoardGeometry geometry;
+    private final int width;
+    private final int[][] cellCount;
+    private final int[][] columnMask;
+    private final List<List<Unit>> columns;
+    private final Map<Unit, Integer> slots = new IdentityHashMap<>();
+    private int playerSlots;
+    private long version;
+
+    public BoardIndex() {
+        this(BoardGeometry.STANDARD);
+    }
+
+    /**
+     * Создаёт индекс для поля заданной геометрии.
+     *
+     * @throws IllegalArgumentException если высота поля больше 32 клеток и маска колонки не помещается в int
+     */
+    public BoardIndex(BoardGeometry geometry) {
+        if (geometry.getHeight() > Integer.SIZE) {
+            throw new IllegalArgumentException("Board index supports at most " + Integer.SIZE
+                    + " rows: " + geometry.getHeight());
+        }
+        this.geometry = geometry;
+        this.width = geometry.getWidth();
+        this.cellCount = new int[2][geometry.getCellCount()];
+        this.columnMask = new int[2][width];
+        this.columns = new ArrayList<>(2 * width);
+        for (int i = 0; i < 2 * width; i++) {
+            columns.add(new ArrayList<>());
+        }
+    }
+
+    public void reset(Army playerArmy, Army computerArmy) {
+        for (int side = 0; side < 2; side++) {
+            Arrays.fill(cellCount[side], 0);
+            Arrays.fill(columnMask[side], 0);
+        }
+        for (List<Unit> column : columns) {
+            column.clear();
+        }
+        slots.clear();
+        addArmy(playerArmy, PLAYER);
+        playerSlots = slots.size();
+        addArmy(computerArmy, COMPUTER);
+        version++;
+    }
+
+    /**
+     * Переносит юнит из клетки (fromX, fromY) в его текущие координаты.
+     */
+    public void onUnitMoved(Unit unit, int fromX, int fromY) {
+        Integer slot = unit == null ? null : slots.get(unit);
+        if (slot == null) {
+            return;
+        }
+        int toX = unit.getxCoordinate();
+        int toY = unit.getyCoordinate();
+        if (fromX == toX && fromY == toY) {
+            return;
+        }
+        int side = sideOf(slot);
+        if (geometry.isInside(fromX, fromY)) {
+            columns.get(side * width + fromX).remove(unit);
+            if (unit.isAlive()) {
+                release(side, fromX, fromY);
+            }
+        }
+        if (geometry.isInside(toX, toY)) {
+            insertOrdered(columns.get(side * width + toX), unit, slot);
+            if (unit.isAlive()) {
+                occupy(side, toX, toY);
+            }
+        }
+        version++;
+    }
+
+    /**
+     * Снимает живой юнит с маски колонки. Вызывается один раз — в момент,
+     * когда {@link Unit#isAlive()} юнита сменился на {@code false}.
+     */
+    public void onUnitDied(Unit unit) {
+        Integer slot = unit == null ? null : slots.get(unit);
+        if (slot == null) {
+            return;
+        }
+        int x = unit.getxCoordinate();
+        int y = unit.getyCoordinate();
+        if (geometry.isInside(x, y)) {
+            release(sideOf(slot), x, y);
+            version++;
+        }
+    }
+
+    /**
+     * Маска живых юнитов армии в колонке: бит y установлен, если клетка (x, y) занята живым юнитом.
+     */
+    public int getColumnMask(int side, int x) {
+        return columnMask[side][x];
+    }
+
+    /**
+     * Юниты армии в колонке x в порядке следования в армии, включая погибших.
+     * Список принадлежит индексу и не должен изменяться.
+     */
+    public List<Unit> getColumnUnits(int side, int x) {
+        return columns.get(side * width + x);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    private int sideOf(int slot) {
+        return slot < playerSlots ? PLAYER : COMPUTER;
+    }
+
+    private void addArmy(Army army, int side) {
+        if (army == null || army.getUnits() == null) {
+            return;
+        }
+        for (Unit unit : army.getUnits()) {
+            if (unit == null || slots.containsKey(unit)) {
+                continue;
+            }
+            slots.put(unit, slots.size());
+            int x = unit.getxCoordinate();
+            int y = unit.getyCoordinate();
+            if (!geometry.isInside(x, y)) {
+                continue;
+            }
+            columns.get(side * width + x).add(unit);
+            if (unit.isAlive()) {
+                occupy(side, x, y);
+            }
+        }
+    }
+
+    private void insertOrdered(List<Unit> column, Unit unit, int slot) {
+        int i = column.size();
+        while (i > 0 && slots.get(column.get(i - 1)) > slot) {
+            i--;
+        }
+        column.add(i, unit);
+    }
+
+    private void occupy(int side, int x, int y) {
+        if (cellCount[side][geometry.cellIndex(x, y)]++ == 0) {
+            columnMask[side][x] |= 1 << y;
+        }
+    }
+
+    private void release(int side, int x, int y) {
+        int cell = geometry.cellIndex(x, y);
+        if (cellCount[side][cell] == 0) {
+            return;
+        }
+        if (--cellCount[side][cell] == 0) {
+            columnMask[side][x] &= ~(1 << y);
+        }
+    }
+}
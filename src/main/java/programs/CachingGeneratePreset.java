@@ -0,0 +1,229 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.GeneratePreset;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ограниченный LRU-кэш составов армии поверх {@link GeneratePresetImpl}.
+ * <p>
+ * Ключ кэша — хэш long по содержимому шаблонов юнитов (тип, тип атаки, здоровье, атака,
+ * стоимость, бонусы атаки и защиты) в порядке списка и лимиту очков; программа юнита в ключ
+ * не входит. Вместе с составом запись хранит копию полей шаблонов, и при совпадении хэша
+ * содержимое сравнивается поле за полем, поэтому коллизия хэшей даёт промах, а не чужой состав.
+ * Значение — компактный состав: индексы шаблонов в переданном списке и количества юнитов.
+ * <p>
+ * При попадании стратегия не вызывается: состав применяется к шаблонам текущего вызова,
+ * и генератор создаёт новые экземпляры {@link Unit} на заново перемешанных позициях,
+ * поэтому армии разных вызовов не разделяют изменяемое состояние.
+ * <p>
+ * Каждая армия, выданная кэшем, учитывается в метриках генератора ({@link GeneratePresetImpl#setMetrics})
+ * с задержкой всего вызова — и при попадании, и при промахе.
+ * <p>
+ * Алгоритмическая сложность:
+ * - попадание в кэш: O(n + b + m), где n — число шаблонов, b — число записей бонусов,
+ *   m — число юнитов в армии; ключ вычисляется без промежуточных коллекций
+ * - промах: сложность стратегии + O(n + m)
+ * <p>
+ * Экземпляр не потокобезопасен.
+ */
+public class CachingGeneratePreset implements GeneratePreset {
+    private final GeneratePresetImpl delegate;
+    private final Map<Long, CachedComposition> cache;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public CachingGeneratePreset(GeneratePresetImpl delegate, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedComposition> eldest) {
+                if (size() > maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Army generate(List<Unit> unitList, int maxPoints) {
+        BattleMetrics metrics = delegate.getMetrics();
+        if (!metrics.isEnabled()) {
+            return generateCached(unitList, maxPoints);
+        }
+        long start = System.nanoTime();
+        Army army = generateCached(unitList, maxPoints);
+        metrics.recordPreset(System.nanoTime() - start, army.getUnits().size());
+        return army;
+    }
+
+    private Army generateCached(List<Unit> unitList, int maxPoints) {
+        long key = hash(unitList, maxPoints);
+        CachedComposition cached = cache.get(key);
+        if (cached != null && cached.matches(unitList, maxPoints)) {
+            hitCount++;
+            return delegate.materialize(cached.toComposition(unitList));
+        }
+
+        missCount++;
+        PresetComposition composition = delegate.compose(unitList, maxPoints);
+        cache.put(key, CachedComposition.of(composition, unitList, maxPoints));
+        return delegate.materialize(composition);
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Доля запросов, обслуженных из кэша, или 0, если запросов ещё не было.
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Хэш содержимого шаблонов и лимита очков: поля смешиваются умножением на нечётную константу,
+     * строки и карты бонусов дают свои {@code hashCode()}.
+     */
+    static long hash(List<Unit> unitList, int maxPoints) {
+        long hash = maxPoints;
+        for (Unit unit : unitList) {
+            hash = mix(hash, Objects.hashCode(unit.getUnitType()));
+            hash = mix(hash, Objects.hashCode(unit.getAttackType()));
+            hash = mix(hash, unit.getHealth());
+            hash = mix(hash, unit.getBaseAttack());
+            hash = mix(hash, unit.getCost());
+            hash = mix(hash, Objects.hashCode(unit.getAttackBonuses()));
+            hash = mix(hash, Objects.hashCode(unit.getDefenceBonuses()));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * 0x9E3779B97F4A7C15L;
+    }
+
+    private static Map<String, Double> copyOf(Map<String, Double> bonuses) {
+        return bonuses == null ? null : new HashMap<>(bonuses);
+    }
+
+    /**
+     * Копия полей шаблона, входящих в ключ. Карты бонусов копируются, чтобы последующие
+     * изменения шаблонов не портили сохранённую запись.
+     */
+    private static final class TemplateKey {
+        private final String unitType;
+        private final String attackType;
+        private final int health;
+        private final int baseAttack;
+        private final int cost;
+        private final Map<String, Double> attackBonuses;
+        private final Map<String, Double> defenceBonuses;
+
+        TemplateKey(Unit unit) {
+            this.unitType = unit.getUnitType();
+            this.attackType = unit.getAttackType();
+            this.health = unit.getHealth();
+            this.baseAttack = unit.getBaseAttack();
+            this.cost = unit.getCost();
+            this.attackBonuses = copyOf(unit.getAttackBonuses());
+            this.defenceBonuses = copyOf(unit.getDefenceBonuses());
+        }
+
+        boolean matches(Unit unit) {
+            return health == unit.getHealth()
+                    && baseAttack == unit.getBaseAttack()
+                    && cost == unit.getCost()
+                    && Objects.equals(unitType, unit.getUnitType())
+                    && Objects.equals(attackType, unit.getAttackType())
+                    && Objects.equals(attackBonuses, unit.getAttackBonuses())
+                    && Objects.equals(defenceBonuses, unit.getDefenceBonuses());
+        }
+    }
+
+    private static final class CachedComposition {
+        private final int maxPoints;
+        private final TemplateKey[] templateKeys;
+        private final int[] templateIndexes;
+        private final int[] counts;
+
+        private CachedComposition(int maxPoints, TemplateKey[] templateKeys, int[] templateIndexes, int[] counts) {
+            this.maxPoints = maxPoints;
+            this.templateKeys = templateKeys;
+            this.templateIndexes = templateIndexes;
+            this.counts = counts;
+        }
+
+        static CachedComposition of(PresetComposition composition, List<Unit> unitList, int maxPoints) {
+            TemplateKey[] templateKeys = new TemplateKey[unitList.size()];
+            Map<Unit, Integer> indexes = new IdentityHashMap<>();
+            for (int i = 0; i < unitList.size(); i++) {
+                templateKeys[i] = new TemplateKey(unitList.get(i));
+                indexes.putIfAbsent(unitList.get(i), i);
+            }
+            int[] templateIndexes = new int[composition.size()];
+            int[] counts = new int[composition.size()];
+            for (int t = 0; t < composition.size(); t++) {
+                templateIndexes[t] = indexes.get(composition.getTemplate(t));
+                counts[t] = composition.getCount(t);
+            }
+            return new CachedComposition(maxPoints, templateKeys, templateIndexes, counts);
+        }
+
+        /**
+         * Проверяет, что запись построена для тех же шаблонов и лимита, а не совпала с ними по хэшу.
+         */
+        boolean matches(List<Unit> unitList, int maxPoints) {
+            if (this.maxPoints != maxPoints || templateKeys.length != unitList.size()) {
+                return false;
+            }
+            for (int i = 0; i < templateKeys.length; i++) {
+                if (!templateKeys[i].matches(unitList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        PresetComposition toComposition(List<Unit> unitList) {
+            List<Unit> templates = new ArrayList<>(templateIndexes.length);
+            for (int index : templateIndexes) {
+                templates.add(unitList.get(index));
+            }
+            return new PresetComposition(templates, counts);
+        }
+    }
+}
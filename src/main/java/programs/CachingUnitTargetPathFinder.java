@@ -0,0 +1,155 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Edge;
+import com.battle.heroes.army.programs.UnitTargetPathFinder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ограниченный LRU-кэш результатов поиска пути поверх {@link UnitTargetPathFinder}.
+ * <p>
+ * Ключ кэша — стартовая клетка, клетка цели и версия поля {@link OccupancyGrid#getVersion()},
+ * упакованные в long. Номера клеток берутся по геометрии сетки ({@link OccupancyGrid#getGeometry()}),
+ * и ширина поля клетки в ключе определяется числом клеток поля; версия занимает оставшиеся
+ * старшие биты, поэтому поле должно содержать не более 2^20 клеток.
+ * Версия увеличивается при любом перемещении или гибели юнита, поэтому пока поле не менялось,
+ * повторные запросы между одними и теми же клетками обслуживаются без поиска, а после
+ * изменения поля старые записи перестают совпадать и вытесняются по LRU.
+ * <p>
+ * Предполагается, что делегат видит те же препятствия, что и сетка занятости
+ * (например, {@link UnitTargetPathFinderImpl#UnitTargetPathFinderImpl(OccupancyGrid)});
+ * переданный в запрос список препятствий в ключ не входит.
+ * <p>
+ * Возвращаемые пути неизменяемы: список нельзя модифицировать, а у клеток пути
+ * запрещены сеттеры, поэтому вызывающий код может безопасно обходить закэшированный путь.
+ * <p>
+ * Алгоритмическая сложность:
+ * - попадание в кэш: O(1)
+ * - промах: сложность делегата + O(L) на копирование пути длины L
+ * <p>
+ * Экземпляр не потокобезопасен.
+ */
+public class CachingUnitTargetPathFinder implements UnitTargetPathFinder {
+    private static final int MAX_CELL_BITS = 20;
+
+    private final UnitTargetPathFinder delegate;
+    private final OccupancyGrid occupancyGrid;
+    private final BoardGeometry geometry;
+    private final int cellBits;
+    private final Map<Long, List<Edge>> cache;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @throws IllegalArgumentException если maxEntries не положителен или поле сетки содержит
+     *                                  больше 2^20 клеток
+     */
+    public CachingUnitTargetPathFinder(UnitTargetPathFinder delegate, OccupancyGrid occupancyGrid, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.occupancyGrid = occupancyGrid;
+        this.geometry = occupancyGrid.getGeometry();
+        this.cellBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(geometry.getCellCount() - 1));
+        if (cellBits > MAX_CELL_BITS) {
+            throw new IllegalArgumentException("Board is too large for the path cache: "
+                    + geometry.getCellCount() + " cells");
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<Edge>> eldest) {
+                if (size() > maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public List<Edge> getTargetPath(Unit attackUnit, Unit targetUnit, List<Unit> obstacles) {
+        if (attackUnit == null || targetUnit == null || obstacles == null) {
+            return Collections.emptyList();
+        }
+
+        int startX = attackUnit.getxCoordinate();
+        int startY = attackUnit.getyCoordinate();
+        int targetX = targetUnit.getxCoordinate();
+        int targetY = targetUnit.getyCoordinate();
+        if (!geometry.isInside(startX, startY) || !geometry.isInside(targetX, targetY)) {
+            return delegate.getTargetPath(attackUnit, targetUnit, obstacles);
+        }
+
+        Long key = key(geometry.cellIndex(startX, startY), geometry.cellIndex(targetX, targetY));
+        List<Edge> cached = cache.get(key);
+        if (cached != null) {
+            hitCount++;
+            return cached;
+        }
+
+        missCount++;
+        List<Edge> path = freeze(delegate.getTargetPath(attackUnit, targetUnit, obstacles));
+        cache.put(key, path);
+        return path;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private long key(int startCell, int targetCell) {
+        return (occupancyGrid.getVersion() << (2 * cellBits)) | ((long) startCell << cellBits) | targetCell;
+    }
+
+    private static List<Edge> freeze(List<Edge> path) {
+        if (path == null || path.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Edge> copy = new ArrayList<>(path.size());
+        for (Edge edge : path) {
+            copy.add(new ImmutableEdge(edge.getX(), edge.getY()));
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static class ImmutableEdge extends Edge {
+        ImmutableEdge(int x, int y) {
+            super(x, y);
+        }
+
+        @Override
+        public void setX(int x) {
+            throw new UnsupportedOperationException("Cached path is immutable");
+        }
+
+        @Override
+        public void setY(int y) {
+            throw new UnsupportedOperationException("Cached path is immutable");
+        }
+    }
+}
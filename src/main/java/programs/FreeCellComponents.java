@@ -0,0 +1,289 @@
+package programs;
+
+/**
+ * Разметка связных компонент свободных клеток поля с заданной {@link BoardGeometry}
+ * (связность клеток определяется правилом перемещения).
+ * <p>
+ * Компоненты хранятся в системе непересекающихся множеств (union-find) над узлами:
+ * каждая свободная клетка ссылается на свой узел, а две соседние свободные клетки всегда
+ * лежат в одном множестве. Разметка поддерживается инкрементально по событиям
+ * {@link OccupancyGrid}:
+ * - освобождение клетки — новый узел объединяется с узлами свободных соседей, O(α(V));
+ * - занятие клетки — узел клетки отвязывается и остаётся в дереве как внутренний.
+ *   Если свободные соседи клетки связаны между собой через её кольцо из 8 клеток, путь через
+ *   клетку всегда можно обойти и компонента не распадается — проверка по готовой таблице, O(1).
+ *   Иначе разметка помечается устаревшей и пересчитывается одним проходом по полю
+ *   при следующем запросе, O(V).
+ * <p>
+ * Узлы не переиспользуются до пересчёта, поэтому повторно освобождённая клетка не попадает
+ * в дерево своей прежней компоненты. Когда запас узлов исчерпан, разметка тоже пересчитывается.
+ * <p>
+ * Запрос {@link #isReachable(int, int)} повторяет семантику {@link PathSearch}: клетки старта
+ * и цели считаются проходимыми, остальные занятые клетки — нет.
+ * <p>
+ * Алгоритмическая сложность:
+ * - освобождение клетки: O(α(V)), где V = W * H — число клеток поля
+ * - занятие клетки: O(1)
+ * - запрос достижимости: O(1) при актуальной разметке, O(V) сразу после возможного разрыва компоненты
+ * <p>
+ * Экземпляр не потокобезопасен и принадлежит одной сетке занятости.
+ */
+public class FreeCellComponents {
+    /**
+     * Клетки кольца вокруг центра в порядке обхода: N, NE, E, SE, S, SW, W, NW.
+     */
+    private static final int[] RING_DX = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] RING_DY = {-1, -1, 0, 1, 1, 1, 0, -1};
+
+    private final BoardGeometry geometry;
+    private final MovementRule movement;
+    private final int[] directionX;
+    private final int[] directionY;
+    private final int cells;
+    private final int nodeCapacity;
+
+    /**
+     * Для каждой маски свободных клеток кольца — связаны ли соседи центра между собой, не проходя через центр.
+     */
+    private final boolean[] ringConnected;
+
+    private final long[] occupiedBits;
+    private final int[] cellNode;
+    private final int[] parent;
+    private final int[] size;
+    private int nextNode;
+    private boolean stale = true;
+
+    private final int[] startRoots;
+
+    /**
+     * @param occupiedBits битовый набор занятых клеток; разметка читает его, но не изменяет
+     */
+    public FreeCellComponents(BoardGeometry geometry, long[] occupiedBits) {
+        this.geometry = geometry;
+        this.movement = geometry.getMovement();
+        this.directionX = movement.dx();
+        this.directionY = movement.dy();
+        this.cells = geometry.getCellCount();
+        this.nodeCapacity = cells * 4;
+        this.ringConnected = buildRingConnectivity(movement);
+        this.occupiedBits = occupiedBits;
+        this.cellNode = new int[cells];
+        this.parent = new int[nodeCapacity];
+        this.size = new int[nodeCapacity];
+        this.startRoots = new int[directionX.length];
+    }
+
+    /**
+     * Помечает разметку устаревшей, например после полной перезаливки поля.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Вызывается после того, как клетка стала свободной.
+     */
+    public void onCellFreed(int cell) {
+        if (stale) {
+            return;
+        }
+        if (nextNode == nodeCapacity) {
+            stale = true;
+            return;
+        }
+        int node = newNode();
+        cellNode[cell] = node;
+
+        int x = geometry.cellX(cell);
+        int y = geometry.cellY(cell);
+        for (int d = 0; d < directionX.length; d++) {
+            int neighbour = freeCell(x + directionX[d], y + directionY[d]);
+            if (neighbour >= 0) {
+                union(node, cellNode[neighbour]);
+            }
+        }
+    }
+
+    /**
+     * Вызывается после того, как свободная клетка стала занятой.
+     */
+    public void onCellOccupied(int cell) {
+        if (stale) {
+            return;
+        }
+        cellNode[cell] = -1;
+        if (!ringConnected[freeRingMask(cell)]) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Проверяет, существует ли путь из клетки start в клетку target по свободным клеткам.
+     */
+    public boolean isReachable(int start, int target) {
+        if (start == target || isAdjacent(start, target)) {
+            return true;
+        }
+        if (stale) {
+            rebuild();
+        }
+
+        int startRootCount = 0;
+        int sx = geometry.cellX(start);
+        int sy = geometry.cellY(start);
+        for (int d = 0; d < directionX.length; d++) {
+            int neighbour = freeCell(sx + directionX[d], sy + directionY[d]);
+            if (neighbour >= 0) {
+                startRoots[startRootCount++] = find(cellNode[neighbour]);
+            }
+        }
+        if (startRootCount == 0) {
+            return false;
+        }
+
+        int tx = geometry.cellX(target);
+        int ty = geometry.cellY(target);
+        for (int d = 0; d < directionX.length; d++) {
+            int neighbour = freeCell(tx + directionX[d], ty + directionY[d]);
+            if (neighbour < 0) {
+                continue;
+            }
+            int root = find(cellNode[neighbour]);
+            for (int i = 0; i < startRootCount; i++) {
+                if (startRoots[i] == root) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Пересчитывает разметку одним проходом по полю: каждая свободная клетка объединяется
+     * с уже пройденными соседями (слева и в предыдущей строке).
+     */
+    private void rebuild() {
+        nextNode = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (GridPathEngine.isBlocked(occupiedBits, cell)) {
+                cellNode[cell] = -1;
+                continue;
+            }
+            int node = newNode();
+            cellNode[cell] = node;
+
+            int x = geometry.cellX(cell);
+            int y = geometry.cellY(cell);
+            for (int d = 0; d < directionX.length; d++) {
+                if (directionY[d] < 0 || (directionY[d] == 0 && directionX[d] < 0)) {
+                    int neighbour = freeCell(x + directionX[d], y + directionY[d]);
+                    if (neighbour >= 0) {
+                        union(node, cellNode[neighbour]);
+                    }
+                }
+            }
+        }
+        stale = false;
+    }
+
+    private int newNode() {
+        int node = nextNode++;
+        parent[node] = node;
+        size[node] = 1;
+        return node;
+    }
+
+    private int find(int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+    }
+
+    /**
+     * @return индекс клетки (x, y), если она внутри поля и свободна, иначе -1
+     */
+    private int freeCell(int x, int y) {
+        if (!geometry.isInside(x, y)) {
+            return -1;
+        }
+        int cell = geometry.cellIndex(x, y);
+        return GridPathEngine.isBlocked(occupiedBits, cell) ? -1 : cell;
+    }
+
+    private int freeRingMask(int cell) {
+        int x = geometry.cellX(cell);
+        int y = geometry.cellY(cell);
+        int mask = 0;
+        for (int d = 0; d < RING_DX.length; d++) {
+            if (freeCell(x + RING_DX[d], y + RING_DY[d]) >= 0) {
+                mask |= 1 << d;
+            }
+        }
+        return mask;
+    }
+
+    private boolean isAdjacent(int a, int b) {
+        return movement.distance(geometry.cellX(a), geometry.cellY(a), geometry.cellX(b), geometry.cellY(b)) == 1;
+    }
+
+    /**
+     * Строит таблицу для проверки при занятии клетки: соседи центра (клетки кольца, в которые
+     * из центра можно шагнуть) должны быть связаны через свободные клетки кольца.
+     */
+    private static boolean[] buildRingConnectivity(MovementRule movement) {
+        int ringSize = RING_DX.length;
+        int[] adjacency = new int[ringSize];
+        int centreNeighbours = 0;
+        for (int i = 0; i < ringSize; i++) {
+            if (movement.allowsStep(RING_DX[i], RING_DY[i])) {
+                centreNeighbours |= 1 << i;
+            }
+            for (int j = 0; j < ringSize; j++) {
+                int stepX = RING_DX[j] - RING_DX[i];
+                int stepY = RING_DY[j] - RING_DY[i];
+                if (Math.abs(stepX) <= 1 && Math.abs(stepY) <= 1 && movement.allowsStep(stepX, stepY)) {
+                    adjacency[i] |= 1 << j;
+                }
+            }
+        }
+
+        boolean[] connected = new boolean[1 << ringSize];
+        for (int mask = 0; mask < connected.length; mask++) {
+            int required = mask & centreNeighbours;
+            if (required == 0) {
+                connected[mask] = true;
+                continue;
+            }
+            int reached = Integer.lowestOneBit(required);
+            int previous = 0;
+            while (reached != previous) {
+                previous = reached;
+                for (int i = 0; i < ringSize; i++) {
+                    if ((reached & (1 << i)) != 0) {
+                        reached |= adjacency[i] & mask;
+                    }
+                }
+            }
+            connected[mask] = (reached & required) == required;
+        }
+        return connected;
+    }
+}
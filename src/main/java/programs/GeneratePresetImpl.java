@@ -5,79 +5,116 @@ import com.battle.heroes.army.Unit;
 import com.battle.heroes.army.programs.GeneratePreset;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class GeneratePresetImpl implements GeneratePreset {
     /**
      * Формирует пресет армии компьютера с учётом заданных ограничений.
      * <p>
-     * Метод создаёт армию, оптимизированную по соотношению атаки к стоимости,
-     * а при равенстве — по соотношению здоровья к стоимости, не превышая
-     * лимит очков и ограничение в 11 юнитов каждого типа.
+     * Состав армии выбирает стратегия {@link PresetStrategy}: по умолчанию — жадная
+     * {@link GreedyPresetStrategy}, оптимизирующая соотношение атаки к стоимости,
+     * а при равенстве — здоровья к стоимости; точный выбор даёт {@link KnapsackPresetStrategy}.
+     * В обоих случаях лимит очков и ограничение в 11 юнитов каждого типа соблюдаются.
      * <p>
      * Алгоритм:
-     * Жадный алгоритм с предварительной сортировкой типов юнитов по показателям
-     * эффективности и последующим добавлением максимального количества юнитов
-     * каждого типа в порядке убывания эффективности.
+     * 1. Стратегия возвращает компактный состав {@link PresetComposition} — шаблоны и количества.
+     * 2. По составу создаются юниты с именами "Тип N".
+     * 3. Юниты размещаются на перемешанных позициях левой зоны развёртывания поля
+     *    ({@link BoardGeometry}; на стандартном поле — 3x21).
      * <p>
-     * Алгоритмическая сложность: O(n log n + m)
-     * где:
-     * n - общее число типов юнитов
-     * m - максимальное число юнитов в армии
+     * Алгоритмическая сложность: сложность стратегии + O(m),
+     * где m - число юнитов в армии (жадная стратегия: O(n log n + m)).
      * <p>
-     * Подробный анализ сложности:
+     * Подробный анализ сложности жадной стратегии:
      * 1. Расчёт коэффициентов эффективности для каждого типа юнита: O(n)
      * 2. Сортировка типов юнитов по убыванию эффективности: O(n log n)
-     * 3. Проход по отсортированным типам и добавление юнитов: O(n + m)
-     *    - Внешний цикл по n типам: O(n)
-     *    - Внутренний цикл создаёт суммарно m юнитов: O(m)
-     * 4. Генерация позиций на поле: O(1) (константа 63 позиции)
-     * 5. Перемешивание позиций: O(1) (константа)
-     * 6. Размещение юнитов на позициях: O(m)
-     * <p>
-     * Итоговая сложность:
-     * O(n) + O(n log n) + O(n + m) + O(1) + O(1) + O(m) = O(n log n + m)
-     * <p>
-     * Улучшение по сравнению с базовой сложностью O(n·m):
-     * - Базовая сложность O(n*m): m итераций, на каждой поиск среди n типов
-     * - Улучшенная сложность O(n log n + m): один проход по типам, создание всех юнитов
-     * <p>
-     * Реализация соответствует требованиям ТЗ и обеспечивает
-     * эффективное формирование армии компьютера.
+     * 3. Проход по отсортированным типам и создание юнитов: O(n + m)
+     * 4. Генерация и перемешивание позиций зоны развёртывания: O(D * H), где D — ширина зоны,
+     *    H — высота поля (на стандартном поле константа 63 позиции)
+     * 5. Размещение юнитов на позициях: O(m)
+     */
+    static final int MAX_UNITS_PER_TYPE = 11;
+
+    private final BattleContext context;
+    private final PresetStrategy strategy;
+    private final BoardGeometry geometry;
+    private BattleMetrics metrics = BattleMetrics.NOOP;
+
+    public GeneratePresetImpl() {
+        this(BattleContext.unseeded());
+    }
+
+    /**
+     * Создаёт генератор, перемешивающий позиции юнитов генератором случайных чисел
+     * переданного контекста, — при одинаковом зерне пресеты воспроизводимы.
+     */
+    public GeneratePresetImpl(BattleContext context) {
+        this(context, new GreedyPresetStrategy());
+    }
+
+    public GeneratePresetImpl(BattleContext context, PresetStrategy strategy) {
+        this(context, strategy, BoardGeometry.STANDARD);
+    }
+
+    /**
+     * Создаёт генератор, размещающий армию в левой зоне развёртывания поля заданной геометрии.
      */
-    private static final int MAX_UNITS_PER_TYPE = 11;
-    private static final int FIELD_WIDTH = 3;
-    private static final int FIELD_HEIGHT = 21;
+    public GeneratePresetImpl(BattleContext context, PresetStrategy strategy, BoardGeometry geometry) {
+        this.context = context;
+        this.strategy = strategy;
+        this.geometry = geometry;
+    }
+
+    /**
+     * Задаёт метрики: задержку генерации и число юнитов пресета. По умолчанию — {@link BattleMetrics#NOOP}.
+     */
+    public void setMetrics(BattleMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    BattleMetrics getMetrics() {
+        return metrics;
+    }
 
     @Override
     public Army generate(List<Unit> unitList, int maxPoints) {
-        List<Unit> resultArmy = new ArrayList<>();
-
-        List<UnitScore> scores = new ArrayList<>();
-        for (Unit unit : unitList) {
-            double attackRatio = (double) unit.getBaseAttack() / unit.getCost();
-            double healthRatio = (double) unit.getHealth() / unit.getCost();
-            scores.add(new UnitScore(unit, attackRatio, healthRatio));
+        if (!metrics.isEnabled()) {
+            return materialize(compose(unitList, maxPoints));
         }
+        long start = System.nanoTime();
+        Army army = materialize(compose(unitList, maxPoints));
+        metrics.recordPreset(System.nanoTime() - start, army.getUnits().size());
+        return army;
+    }
 
-        scores.sort((a, b) -> {
-            int attackCompare = Double.compare(b.attackEfficiency, a.attackEfficiency);
-            if (attackCompare != 0) {
-                return attackCompare;
-            }
-            return Double.compare(b.healthEfficiency, a.healthEfficiency);
-        });
+    /**
+     * Подбирает составы армии сразу для нескольких лимитов очков (например, для всех уровней
+     * подбора соперников) по одному каталогу юнитов. Стратегия переиспользует общую подготовку
+     * между лимитами: жадная сортирует типы один раз, точная строит одну таблицу динамики
+     * для наибольшего лимита. Армии создаются лениво — через {@link PresetBatch#materialize(int)}.
+     * <p>
+     * Алгоритмическая сложность для жадной стратегии: O(n log n + k * n), где k — число лимитов.
+     */
+    public PresetBatch generateAll(List<Unit> unitList, int... budgets) {
+        return new PresetBatch(this, budgets, strategy.composeAll(unitList, budgets));
+    }
 
-        int pointsLeft = maxPoints;
+    PresetComposition compose(List<Unit> unitList, int maxPoints) {
+        return strategy.compose(unitList, maxPoints);
+    }
 
-        for (UnitScore score : scores) {
-            Unit template = score.unit;
-            int canAdd = Math.min(MAX_UNITS_PER_TYPE, pointsLeft / template.getCost());
-            int unitIndex = 1;
-            for (int k = 0; k < canAdd; k++) {
+    /**
+     * Создаёт армию по готовому составу: новые юниты по шаблонам и случайные позиции.
+     */
+    Army materialize(PresetComposition composition) {
+        List<Unit> resultArmy = new ArrayList<>(composition.getUnitCount());
+
+        for (int t = 0; t < composition.size(); t++) {
+            Unit template = composition.getTemplate(t);
+            int count = composition.getCount(t);
+            for (int unitIndex = 1; unitIndex <= count; unitIndex++) {
                 Unit newUnit = new Unit(
-                        template.getUnitType() + " " + unitIndex++,
+                        template.getUnitType() + " " + unitIndex,
                         template.getUnitType(),
                         template.getHealth(),
                         template.getBaseAttack(),
@@ -92,13 +129,11 @@ public class GeneratePresetImpl implements GeneratePreset {
                 newUnit.setProgram(template.getProgram());
 
                 resultArmy.add(newUnit);
-                pointsLeft -= template.getCost();
             }
         }
 
-
         List<Position> positions = generatePositions();
-        Collections.shuffle(positions);
+        context.shuffle(positions);
 
         for (int i = 0; i < resultArmy.size() && i < positions.size(); i++) {
             Position p = positions.get(i);
@@ -107,32 +142,21 @@ public class GeneratePresetImpl implements GeneratePreset {
         }
 
         Army army = new Army(resultArmy);
-        army.setPoints(maxPoints - pointsLeft);
+        army.setPoints(composition.getPoints());
         return army;
     }
 
     private List<Position> generatePositions() {
-        List<Position> positions = new ArrayList<>();
-        for (int y = 0; y < FIELD_HEIGHT; y++) {
-            for (int x = 0; x < FIELD_WIDTH; x++) {
+        int zoneWidth = geometry.getDeploymentColumns();
+        List<Position> positions = new ArrayList<>(zoneWidth * geometry.getHeight());
+        for (int y = 0; y < geometry.getHeight(); y++) {
+            for (int x = 0; x < zoneWidth; x++) {
                 positions.add(new Position(x, y));
             }
         }
         return positions;
     }
 
-    private static class UnitScore {
-        Unit unit;
-        double attackEfficiency;
-        double healthEfficiency;
-
-        UnitScore(Unit unit, double attackEfficiency, double healthEfficiency) {
-            this.unit = unit;
-            this.attackEfficiency = attackEfficiency;
-            this.healthEfficiency = healthEfficiency;
-        }
-    }
-
     private static class Position {
         int x;
         int y;
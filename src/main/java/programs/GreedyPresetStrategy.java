@@ -0,0 +1,87 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Жадный выбор состава армии — стратегия {@link GeneratePresetImpl} по умолчанию.
+ * <p>
+ * Типы юнитов сортируются по убыванию отношения атаки к стоимости, а при равенстве —
+ * здоровья к стоимости; затем каждого типа по порядку берётся максимально возможное
+ * количество юнитов (не более 11) в пределах оставшихся очков.
+ * <p>
+ * Алгоритмическая сложность: O(n log n), где n — число типов юнитов. Для нескольких лимитов
+ * ({@link #composeAll}) сортировка выполняется один раз: O(n log n + k * n) для k лимитов.
+ */
+public class GreedyPresetStrategy implements PresetStrategy {
+
+    @Override
+    public PresetComposition compose(List<Unit> unitList, int maxPoints) {
+        return take(sortByEfficiency(unitList), maxPoints);
+    }
+
+    @Override
+    public List<PresetComposition> composeAll(List<Unit> unitList, int[] budgets) {
+        List<Unit> sorted = sortByEfficiency(unitList);
+        List<PresetComposition> compositions = new ArrayList<>(budgets.length);
+        for (int budget : budgets) {
+            compositions.add(take(sorted, budget));
+        }
+        return compositions;
+    }
+
+    private static List<Unit> sortByEfficiency(List<Unit> unitList) {
+        List<UnitScore> scores = new ArrayList<>();
+        for (Unit unit : unitList) {
+            double attackRatio = (double) unit.getBaseAttack() / unit.getCost();
+            double healthRatio = (double) unit.getHealth() / unit.getCost();
+            scores.add(new UnitScore(unit, attackRatio, healthRatio));
+        }
+
+        scores.sort((a, b) -> {
+            int attackCompare = Double.compare(b.attackEfficiency, a.attackEfficiency);
+            if (attackCompare != 0) {
+                return attackCompare;
+            }
+            return Double.compare(b.healthEfficiency, a.healthEfficiency);
+        });
+
+        List<Unit> templates = new ArrayList<>(scores.size());
+        for (UnitScore score : scores) {
+            templates.add(score.unit);
+        }
+        return templates;
+    }
+
+    /**
+     * Берёт юнитов отсортированных типов по порядку в пределах лимита очков.
+     * Отрицательный лимит даёт пустой состав, как и нулевой.
+     */
+    private static PresetComposition take(List<Unit> templates, int maxPoints) {
+        int[] counts = new int[templates.size()];
+        int pointsLeft = maxPoints;
+
+        for (int i = 0; i < templates.size(); i++) {
+            Unit template = templates.get(i);
+            int canAdd = Math.max(0, Math.min(GeneratePresetImpl.MAX_UNITS_PER_TYPE, pointsLeft / template.getCost()));
+            counts[i] = canAdd;
+            pointsLeft -= canAdd * template.getCost();
+        }
+
+        return new PresetComposition(templates, counts);
+    }
+
+    private static class UnitScore {
+        Unit unit;
+        double attackEfficiency;
+        double healthEfficiency;
+
+        UnitScore(Unit unit, double attackEfficiency, double healthEfficiency) {
+            this.unit = unit;
+            this.attackEfficiency = attackEfficiency;
+            this.healthEfficiency = healthEfficiency;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package programs;
+
+import java.util.Arrays;
+
+/**
+ * Движок поиска пути A* на сетке без выделения памяти на узел.
+ * <p>
+ * Размеры поля и правило перемещения задаёт {@link BoardGeometry} (по умолчанию —
+ * {@link BoardGeometry#STANDARD}). Клетка (x, y) кодируется индексом y * width + x.
+ * Стоимости g, оценки f и родители хранятся в переиспользуемых массивах int[], заблокированные
+ * клетки — в битовом наборе long[], открытое множество — в примитивной двоичной куче. Чтобы
+ * не очищать массивы перед каждым поиском, используется метка поколения: значения клетки
+ * считаются действительными только если её метка совпадает с номером текущего поиска.
+ * <p>
+ * Куча повторяет порядок просеивания {@link java.util.PriorityQueue} с компаратором по f,
+ * поэтому при равных оценках узлы извлекаются в том же порядке, что и в исходной реализации
+ * на объектах, и найденные пути совпадают клетка в клетку.
+ * <p>
+ * Экземпляр не потокобезопасен: каждому потоку нужен собственный движок.
+ */
+public class GridPathEngine implements PathSearch {
+    private final BoardGeometry geometry;
+    private final int width;
+    private final int[] dx;
+    private final int[] dy;
+    private final long[] blocked;
+
+    private final int[] g;
+    private final int[] f;
+    private final int[] parent;
+    private final int[] visitedStamp;
+    private int stamp;
+
+    private int[] heapCell;
+    private int[] heapF;
+    private int heapSize;
+    private int openSetPeak;
+    private int expandedNodes;
+
+    private final int[] path;
+    private int pathLength;
+
+    public GridPathEngine() {
+        this(BoardGeometry.STANDARD);
+    }
+
+    /**
+     * Создаёт движок для поля произвольной геометрии; массивы выделяются один раз
+     * по числу клеток поля.
+     */
+    public GridPathEngine(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.width = geometry.getWidth();
+        this.dx = geometry.getMovement().dx();
+        this.dy = geometry.getMovement().dy();
+        int cells = geometry.getCellCount();
+        this.blocked = new long[geometry.getBitsetWords()];
+        this.g = new int[cells];
+        this.f = new int[cells];
+        this.parent = new int[cells];
+        this.visitedStamp = new int[cells];
+        this.heapCell = new int[cells * 2];
+        this.heapF = new int[cells * 2];
+        this.path = new int[cells];
+    }
+
+    public void clearBlocked() {
+        Arrays.fill(blocked, 0L);
+    }
+
+    public void block(int x, int y) {
+        if (geometry.isInside(x, y)) {
+            int cell = geometry.cellIndex(x, y);
+            blocked[cell >>> 6] |= 1L << cell;
+        }
+    }
+
+    public void unblock(int x, int y) {
+        if (geometry.isInside(x, y)) {
+            int cell = geometry.cellIndex(x, y);
+            blocked[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+
+    public boolean isBlocked(int cell) {
+        return isBlocked(blocked, cell);
+    }
+
+    static boolean isBlocked(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Ищет кратчайший путь из (startX, startY) в (targetX, targetY) с учётом текущего набора
+     * заблокированных клеток. Клетка цели считается свободной независимо от набора блокировок.
+     * <p>
+     * Алгоритмическая сложность: O(V * log V), где V = W * H — число клеток поля.
+     *
+     * @return количество клеток найденного пути (включая старт и цель) или 0, если пути нет
+     */
+    public int findPath(int startX, int startY, int targetX, int targetY) {
+        return findPath(startX, startY, targetX, targetY, blocked);
+    }
+
+    /**
+     * Ищет кратчайший путь, используя внешний битовый набор заблокированных клеток
+     * (например, {@link OccupancyGrid}) вместо собственного.
+     */
+    @Override
+    public int findPath(int startX, int startY, int targetX, int targetY, long[] blockedBits) {
+        pathLength = 0;
+        expandedNodes = 0;
+        openSetPeak = 0;
+        if (!geometry.isInside(startX, startY) || !geometry.isInside(targetX, targetY)) {
+            return 0;
+        }
+
+        int start = geometry.cellIndex(startX, startY);
+        int target = geometry.cellIndex(targetX, targetY);
+        if (start == target) {
+            path[0] = start;
+            pathLength = 1;
+            return pathLength;
+        }
+
+        nextStamp();
+        heapSize = 0;
+
+        visitedStamp[start] = stamp;
+        g[start] = 0;
+        f[start] = geometry.distance(startX, startY, targetX, targetY);
+        parent[start] = -1;
+        push(start, f[start]);
+
+        while (heapSize > 0) {
+            int entryF = heapF[0];
+            int current = poll();
+
+            if (entryF != f[current]) {
+                continue;
+            }
+            if (current == target) {
+                return buildPath(target);
+            }
+            expandedNodes++;
+
+            int cx = current % width;
+            int cy = current / width;
+            int nextG = g[current] + 1;
+
+            for (int d = 0; d < dx.length; d++) {
+                int nx = cx + dx[d];
+                int ny = cy + dy[d];
+
+                if (!geometry.isInside(nx, ny)) continue;
+                int next = ny * width + nx;
+                if (next != target && isBlocked(blockedBits, next)) continue;
+
+                if (visitedStamp[next] != stamp || nextG < g[next]) {
+                    visitedStamp[next] = stamp;
+                    g[next] = nextG;
+                    f[next] = nextG + geometry.distance(nx, ny, targetX, targetY);
+                    parent[next] = current;
+                    push(next, f[next]);
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public int getPathLength() {
+        return pathLength;
+    }
+
+    /**
+     * Возвращает индекс i-й клетки последнего найденного пути (0 — стартовая клетка).
+     */
+    @Override
+    public int getPathCell(int i) {
+        return path[i];
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    @Override
+    public int getOpenSetPeak() {
+        return openSetPeak;
+    }
+
+    private int buildPath(int target) {
+        int length = 0;
+        for (int cell = target; cell != -1; cell = parent[cell]) {
+            length++;
+        }
+        int i = length;
+        for (int cell = target; cell != -1; cell = parent[cell]) {
+            path[--i] = cell;
+        }
+        pathLength = length;
+        return length;
+    }
+
+    private void nextStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitedStamp, 0);
+            stamp = 1;
+        }
+    }
+
+    private void push(int cell, int key) {
+        if (heapSize == heapCell.length) {
+            heapCell = Arrays.copyOf(heapCell, heapSize * 2);
+            heapF = Arrays.copyOf(heapF, heapSize * 2);
+        }
+        int k = heapSize++;
+        if (heapSize > openSetPeak) {
+            openSetPeak = heapSize;
+        }
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (key >= heapF[p]) break;
+            heapCell[k] = heapCell[p];
+            heapF[k] = heapF[p];
+            k = p;
+        }
+        heapCell[k] = cell;
+        heapF[k] = key;
+    }
+
+    private int poll() {
+        int result = heapCell[0];
+        int n = --heapSize;
+        if (n > 0) {
+            int cell = heapCell[n];
+            int key = heapF[n];
+            int k = 0;
+            int half = n >>> 1;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                int right = child + 1;
+                if (right < n && heapF[child] > heapF[right]) {
+                    child = right;
+                }
+                if (key <= heapF[child]) break;
+                heapCell[k] = heapCell[child];
+                heapF[k] = heapF[child];
+                k = child;
+            }
+            heapCell[k] = cell;
+            heapF[k] = key;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,290 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Edge;
+import com.battle.heroes.army.programs.Program;
+import com.battle.heroes.army.programs.UnitTargetPathFinder;
+import com.battle.heroes.army.programs.computer.ComputerArcherProgram;
+import com.battle.heroes.army.programs.computer.ComputerKnightProgram;
+import com.battle.heroes.army.programs.computer.ComputerPikemanProgram;
+import com.battle.heroes.army.programs.computer.ComputerSwordsmanProgram;
+import com.battle.heroes.army.programs.user.UserArcherProgram;
+import com.battle.heroes.army.programs.user.UserKnightProgram;
+import com.battle.heroes.army.programs.user.UserPikemanProgram;
+import com.battle.heroes.army.programs.user.UserSwordsmanProgram;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Воспроизводит логику атаки программ библиотеки без {@code Thread.sleep} и вывода в консоль.
+ * <p>
+ * Лучник атакует случайного живого юнита противника. Рыцарь, копейщик и мечник ищут доступные цели
+ * в зоне развёртывания противника по {@link BoardGeometry}: армия игрока — в левой зоне (колонки 0–2
+ * стандартного поля), армия компьютера — в правой (24–26). Затем они выбирают случайную цель, ищут к ней
+ * путь через {@link UnitTargetPathFinder} среди всех юнитов обеих армий и наносят удар, если путь
+ * существует. Программы библиотеки после удара возвращают атакующего на исходную клетку, поэтому
+ * промежуточные перемещения не выполняются: итоговое состояние поля совпадает.
+ * <p>
+ * Если пути к выбранной цели нет, результат хода повторяет программу библиотеки: рыцарь компьютера
+ * ({@code ComputerKnightProgram}) возвращает {@code null}, остальные программы ближнего боя — самого
+ * атакующего, и {@link SimulateBattleImpl} засчитывает такой ход как атаку. Поэтому ход без пути
+ * возвращает -1 только для рыцаря компьютера, а для остальных — номер атакующего.
+ * <p>
+ * Ход читает и меняет {@link BattleState}: юниты задаются номерами состояния, признак жизни,
+ * координаты и здоровье берутся из его массивов, а удар — {@link BattleState#applyDamage}.
+ * Доступные цели ищет {@link BitsetSuitableForAttackUnitsFinder} по маскам колонок {@link StateBoardIndex},
+ * который обновляется при каждой гибели и перемещении юнита; пока версия состояния не меняется,
+ * атакующие одной стороны разделяют один результат ({@link SuitableTargetCache}).
+ * Объекты {@link Unit} нужны только поиску пути, которому важны координаты атакующего и цели:
+ * во время хода они не меняются, потому что атакующий возвращается на исходную клетку.
+ * <p>
+ * Урон равен базовой атаке атакующего; юнит погибает, когда здоровье становится ≤ 0.
+ * Случайный выбор цели выполняется тем же алгоритмом перемешивания, что и в библиотеке,
+ * но с генератором {@link BattleContext}, поэтому бой воспроизводим по зерну.
+ * <p>
+ * Тип атаки определяется один раз на бой по классу программы юнита; для юнита без программы —
+ * по типу юнита ("Archer" — дальний бой, остальные — ближний). Юниты с собственными программами,
+ * неизвестными этому классу, выполняют ход через {@link Program#attack()} над объектами армий:
+ * состояние перед ходом записывается в юнитов, а после хода из них перечитываются только атакующий
+ * и его цель; их перемещение и гибель переносятся в {@link StateBoardIndex} и {@link OccupancyGrid} по отдельности.
+ * Такая программа выполняется как есть: если она ждёт {@code GameSpeedUtil} (как программы,
+ * построенные по образцу библиотечных), ждёт и быстрая симуляция. Программы самой библиотеки
+ * сюда не попадают — их ход воспроизводится без задержек.
+ * <p>
+ * Алгоритмическая сложность хода:
+ * - дальний бой: O(k), где k — число юнитов противника
+ * - ближний бой: O(c + m) на поиск целей при изменившемся поле, где c — число колонок зоны развёртывания,
+ *   m — число юнитов в них, + сложность поиска пути
+ * - собственная программа: O(n) на запись состояния в армии + сложность программы
+ */
+public class HeadlessAttackResolver {
+    private static final byte RANGED = 0;
+    private static final byte MELEE = 1;
+    private static final byte PROGRAM = 2;
+
+    private final BoardGeometry geometry;
+    private final BitsetSuitableForAttackUnitsFinder suitableFinder;
+    private final UnitTargetPathFinder pathFinder;
+    private final StateBoardIndex boardIndex;
+    private BattleContext context;
+    private OccupancyGrid occupancyGrid;
+
+    private BattleState state;
+    private Army playerArmy;
+    private Army computerArmy;
+    private Unit[] units = new Unit[0];
+    private List<Unit> obstacles = List.of();
+    private byte[] kinds = new byte[0];
+    private boolean[] selfWhenBlocked = new boolean[0];
+    private int[] candidates = new int[0];
+    private SuitableTargetCache<int[]> targetCache;
+
+    public HeadlessAttackResolver(BitsetSuitableForAttackUnitsFinder suitableFinder,
+                                  UnitTargetPathFinder pathFinder,
+                                  BattleContext context) {
+        this(BoardGeometry.STANDARD, suitableFinder, pathFinder, context);
+    }
+
+    /**
+     * Создаёт исполнителя ходов для поля заданной геометрии: колонки целей ближнего боя
+     * берутся из её зон развёртывания.
+     */
+    public HeadlessAttackResolver(BoardGeometry geometry,
+                                  BitsetSuitableForAttackUnitsFinder suitableFinder,
+                                  UnitTargetPathFinder pathFinder,
+                                  BattleContext context) {
+        this.geometry = geometry;
+        this.boardIndex = new StateBoardIndex(geometry);
+        this.suitableFinder = suitableFinder;
+        this.pathFinder = pathFinder;
+        this.context = context;
+    }
+
+    public void setBattleContext(BattleContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Задаёт сетку занятости, из которой поиск пути берёт препятствия: гибель юнита отмечается в ней сразу.
+     *
+     * @throws IllegalArgumentException если сетка построена для другой геометрии поля
+     */
+    public void setOccupancyGrid(OccupancyGrid occupancyGrid) {
+        if (occupancyGrid != null && occupancyGrid.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Occupancy grid geometry does not match the resolver geometry");
+        }
+        this.occupancyGrid = occupancyGrid;
+    }
+
+    /**
+     * Готовит ходы боя на состоянии, построенном по этим армиям: запоминает юнитов в нумерации
+     * состояния и определяет тип атаки каждого. Вызывается один раз в начале боя.
+     */
+    public void reset(BattleState state, Army playerArmy, Army computerArmy) {
+        this.state = state;
+        this.playerArmy = playerArmy;
+        this.computerArmy = computerArmy;
+        units = new Unit[state.size()];
+        kinds = new byte[state.size()];
+        selfWhenBlocked = new boolean[state.size()];
+        for (int i = 0; i < units.length; i++) {
+            boolean isPlayerUnit = i < state.getPlayerCount();
+            units[i] = isPlayerUnit
+                    ? playerArmy.getUnits().get(i)
+                    : computerArmy.getUnits().get(i - state.getPlayerCount());
+            kinds[i] = kindOf(units[i]);
+            selfWhenBlocked[i] = kinds[i] == MELEE && !isComputerKnight(units[i], isPlayerUnit);
+        }
+        obstacles = Collections.unmodifiableList(Arrays.asList(units));
+        candidates = new int[units.length];
+        targetCache = new SuitableTargetCache<>(state::getVersion);
+        boardIndex.reset(state);
+    }
+
+    public SuitableTargetCache<int[]> getTargetCache() {
+        return targetCache;
+    }
+
+    /**
+     * Выполняет ход юнита с номером attacker.
+     *
+     * @return номер юнита, которого вернула бы программа библиотеки (цель атаки или сам атакующий,
+     *         если пути к цели нет), или -1, если программа вернула бы {@code null}
+     */
+    public int attack(int attacker) throws InterruptedException {
+        switch (kinds[attacker]) {
+            case RANGED:
+                return rangedAttack(attacker);
+            case MELEE:
+                return meleeAttack(attacker);
+            default:
+                return programAttack(attacker);
+        }
+    }
+
+    private int rangedAttack(int attacker) {
+        boolean isPlayerUnit = state.sideOf(attacker) == BattleState.PLAYER;
+        int from = isPlayerUnit ? state.getPlayerCount() : 0;
+        int to = isPlayerUnit ? state.size() : state.getPlayerCount();
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (state.isAlive(i)) {
+                candidates[count++] = i;
+            }
+        }
+        context.shuffle(candidates, count);
+        if (count == 0) {
+            return -1;
+        }
+        return strike(attacker, candidates[0]);
+    }
+
+    private int meleeAttack(int attacker) {
+        boolean isPlayerUnit = state.sideOf(attacker) == BattleState.PLAYER;
+        int[] suitable = findSuitableTargets(isPlayerUnit);
+        System.arraycopy(suitable, 0, candidates, 0, suitable.length);
+        context.shuffle(candidates, suitable.length);
+        if (suitable.length == 0) {
+            return -1;
+        }
+        int target = candidates[0];
+
+        List<Edge> path = pathFinder.getTargetPath(units[attacker], units[target], obstacles);
+        if (path.isEmpty()) {
+            return selfWhenBlocked[attacker] ? attacker : -1;
+        }
+        return strike(attacker, target);
+    }
+
+    private int[] findSuitableTargets(boolean isPlayerUnit) {
+        int[] cached = targetCache.get(isPlayerUnit);
+        if (cached != null) {
+            return cached;
+        }
+        int firstColumn = isPlayerUnit ? 0 : geometry.getRightZoneFirstColumn();
+        int enemySide = isPlayerUnit ? BattleState.COMPUTER : BattleState.PLAYER;
+        int count = suitableFinder.getSuitableUnits(boardIndex, enemySide, firstColumn, geometry.getDeploymentColumns(),
+                isPlayerUnit, candidates);
+        int[] suitable = Arrays.copyOf(candidates, count);
+        targetCache.put(isPlayerUnit, suitable);
+        return suitable;
+    }
+
+    private int programAttack(int attacker) throws InterruptedException {
+        state.applyTo(playerArmy, computerArmy);
+        Unit unit = units[attacker];
+        int fromX = state.getX(attacker);
+        int fromY = state.getY(attacker);
+        Unit target = unit.getProgram().attack();
+        int targetIndex = indexOf(target);
+        boolean targetWasAlive = targetIndex >= 0 && state.isAlive(targetIndex);
+
+        state.readFrom(attacker, unit);
+        boardIndex.onUnitChanged(attacker, fromX, fromY, true);
+        if (occupancyGrid != null) {
+            occupancyGrid.onUnitMoved(unit, fromX, fromY);
+        }
+        if (targetIndex >= 0 && targetIndex != attacker) {
+            int targetX = state.getX(targetIndex);
+            int targetY = state.getY(targetIndex);
+            state.readFrom(targetIndex, target);
+            boardIndex.onUnitChanged(targetIndex, targetX, targetY, targetWasAlive);
+            if (targetWasAlive && !state.isAlive(targetIndex) && occupancyGrid != null) {
+                occupancyGrid.onUnitDied(target);
+            }
+        }
+        return targetIndex;
+    }
+
+    private int indexOf(Unit unit) {
+        for (int i = 0; unit != null && i < units.length; i++) {
+            if (units[i] == unit) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int strike(int attacker, int target) {
+        if (state.applyDamage(target, state.getAttack(attacker))) {
+            boardIndex.onUnitDied(target);
+            if (occupancyGrid != null) {
+                occupancyGrid.onUnitDied(units[target]);
+            }
+        }
+        return target;
+    }
+
+    private static byte kindOf(Unit unit) {
+        Program program = unit.getProgram();
+        if (isRanged(unit, program)) {
+            return RANGED;
+        }
+        return isMelee(program) ? MELEE : PROGRAM;
+    }
+
+    private static boolean isComputerKnight(Unit unit, boolean isPlayerUnit) {
+        Program program = unit.getProgram();
+        if (program == null) {
+            return !isPlayerUnit && "Knight".equalsIgnoreCase(unit.getUnitType());
+        }
+        return program instanceof ComputerKnightProgram;
+    }
+
+    private static boolean isRanged(Unit attacker, Program program) {
+        if (program == null) {
+            return "Archer".equalsIgnoreCase(attacker.getUnitType());
+        }
+        return program instanceof ComputerArcherProgram || program instanceof UserArcherProgram;
+    }
+
+    private static boolean isMelee(Program program) {
+        return program == null
+                || program instanceof ComputerKnightProgram || program instanceof UserKnightProgram
+                || program instanceof ComputerPikemanProgram || program instanceof UserPikemanProgram
+                || program instanceof ComputerSwordsmanProgram || program instanceof UserSwordsmanProgram;
+    }
+}
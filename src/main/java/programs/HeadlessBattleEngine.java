@@ -0,0 +1,128 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.programs.SimulateBattle;
+
+/**
+ * Быстрая симуляция боя без задержек и вывода — для пакетных прогонов баланса.
+ * <p>
+ * Использует тот же порядок ходов и то же условие окончания боя, что и {@link SimulateBattleImpl},
+ * но весь бой идёт на компактном состоянии {@link BattleState}: очередь ходов ({@link TurnScheduler})
+ * проверяет гибель юнитов по его битовому набору, окончание боя определяется по его счётчикам живых,
+ * а ходы выполняет {@link HeadlessAttackResolver} по номерам юнитов вместо программ библиотеки,
+ * которые ждут {@code GameSpeedUtil.getGameSpeed()} миллисекунд на каждом шаге. Препятствия для поиска пути
+ * берутся из общей {@link OccupancyGrid}, которая обновляется при гибели юнитов. Здоровье, координаты
+ * и признак жизни записываются в юнитов армий один раз — по окончании боя.
+ * <p>
+ * При одинаковом начальном состоянии и одинаковой последовательности случайных чисел
+ * исход совпадает с боем на программах библиотеки; при одинаковом зерне {@link BattleContext}
+ * бой полностью воспроизводим. Бой прерывается с ничьей, если
+ * превышен лимит раундов (например, когда юнитам ближнего боя недоступна ни одна цель).
+ * <p>
+ * Алгоритмическая сложность: O(n log n) на подготовку и O(n) на запись результата в армии,
+ * где n — число юнитов обеих армий, плюс сложность ходов {@link HeadlessAttackResolver}.
+ * <p>
+ * Экземпляр не потокобезопасен: для параллельных прогонов нужен отдельный движок на поток.
+ */
+public class HeadlessBattleEngine implements SimulateBattle {
+    public static final int DEFAULT_MAX_ROUNDS = 10_000;
+
+    private final OccupancyGrid occupancyGrid;
+    private final TurnScheduler turnScheduler = new TurnScheduler();
+    private final HeadlessAttackResolver attackResolver;
+    private final BitsetSuitableForAttackUnitsFinder suitableFinder = new BitsetSuitableForAttackUnitsFinder();
+    private final UnitTargetPathFinderImpl pathFinder;
+    private int maxRounds = DEFAULT_MAX_ROUNDS;
+    private BattleMetrics metrics = BattleMetrics.NOOP;
+
+    public HeadlessBattleEngine(BattleContext context) {
+        this(context, PathSearchMode.A_STAR);
+    }
+
+    /**
+     * Создаёт движок с выбранным алгоритмом поиска пути. Ходы ближнего боя зависят только
+     * от существования пути, поэтому исход боя от выбора алгоритма не зависит.
+     */
+    public HeadlessBattleEngine(BattleContext context, PathSearchMode pathSearchMode) {
+        this(context, BoardGeometry.STANDARD, pathSearchMode);
+    }
+
+    /**
+     * Создаёт движок для поля заданной геометрии: по ней строятся сетка занятости и поиск пути,
+     * а из её зон развёртывания берутся колонки целей ближнего боя.
+     */
+    public HeadlessBattleEngine(BattleContext context, BoardGeometry geometry, PathSearchMode pathSearchMode) {
+        occupancyGrid = new OccupancyGrid(geometry);
+        pathFinder = new UnitTargetPathFinderImpl(occupancyGrid, pathSearchMode);
+        attackResolver = new HeadlessAttackResolver(geometry, suitableFinder, pathFinder, context);
+        attackResolver.setOccupancyGrid(occupancyGrid);
+    }
+
+    /**
+     * Задаёт контекст (источник случайных чисел) для следующих боёв.
+     */
+    public void setBattleContext(BattleContext context) {
+        attackResolver.setBattleContext(context);
+    }
+
+    public void setMaxRounds(int maxRounds) {
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Задаёт метрики боя, поиска пути и поиска доступных целей этого движка.
+     */
+    public void setMetrics(BattleMetrics metrics) {
+        this.metrics = metrics;
+        pathFinder.setMetrics(metrics);
+        suitableFinder.setMetrics(metrics);
+    }
+
+    @Override
+    public void simulate(Army playerArmy, Army computerArmy) {
+        run(playerArmy, computerArmy);
+    }
+
+    /**
+     * Проводит бой и возвращает его итог.
+     */
+    public BattleOutcome run(Army playerArmy, Army computerArmy) {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        BattleState state = BattleState.of(playerArmy, computerArmy);
+        turnScheduler.reset(playerArmy, computerArmy, state);
+        occupancyGrid.reset(playerArmy, computerArmy);
+        attackResolver.reset(state, playerArmy, computerArmy);
+
+        int roundCount = 0;
+        int turnCount = 0;
+        int attackCount = 0;
+        try {
+            while (bothArmiesAlive(state) && roundCount < maxRounds) {
+                roundCount++;
+                turnScheduler.startRound();
+                while (bothArmiesAlive(state) && turnScheduler.nextTurn()) {
+                    turnCount++;
+                    if (attackResolver.attack(turnScheduler.getAttackerIndex()) >= 0) {
+                        attackCount++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            state.applyTo(playerArmy, computerArmy);
+        }
+        if (metrics.isEnabled()) {
+            metrics.recordBattle(System.nanoTime() - start, roundCount, turnCount, attackCount);
+        }
+        return new BattleOutcome(
+                roundCount,
+                attackCount,
+                state.getAliveCount(BattleState.PLAYER),
+                state.getAliveCount(BattleState.COMPUTER));
+    }
+
+    private static boolean bothArmiesAlive(BattleState state) {
+        return state.getAliveCount(BattleState.PLAYER) > 0 && state.getAliveCount(BattleState.COMPUTER) > 0;
+    }
+}
@@ -0,0 +1,143 @@
+package programs;
+
+import java.util.Arrays;
+
+/**
+ * Гистограмма неотрицательных значений (задержек в наносекундах, размеров, счётчиков)
+ * с логарифмически-линейными корзинами в духе HdrHistogram.
+ * <p>
+ * Значения до 127 хранятся точно; диапазон каждой следующей степени двойки делится
+ * на 64 равные корзины, поэтому относительная погрешность любого значения не превышает 1/64
+ * (около 1,6 %). Корзины покрывают весь диапазон long и выделяются один раз в конструкторе:
+ * {@link #record(long)} — несколько битовых операций и инкремент без выделения памяти.
+ * Квантили ({@link #getValueAtPercentile}) возвращают верхнюю границу корзины,
+ * но не больше наибольшего записанного значения.
+ * <p>
+ * Алгоритмическая сложность:
+ * - запись значения: O(1)
+ * - квантиль, слияние, сброс: O(B), где B = 3712 — число корзин
+ * <p>
+ * Экземпляр не потокобезопасен; гистограммы разных потоков объединяются через {@link #add(Histogram)}.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_LIMIT = SUB_BUCKET_COUNT << 1;
+    private static final int BUCKETS = EXACT_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Записывает значение; отрицательные значения учитываются как 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Наименьшее записанное значение или 0, если гистограмма пуста.
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Возвращает значение, не меньше которого percentile процентов записанных значений.
+     *
+     * @param percentile процент в диапазоне [0, 100]
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]: " + percentile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(getMin(), Math.min(highestValueAt(i), max));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Добавляет к гистограмме все значения другой гистограммы.
+     */
+    public void add(Histogram other) {
+        if (other.totalCount == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Значения [0, 127] — точные корзины; значение со старшим битом msb >= 7 попадает
+     * в одну из 64 корзин своей степени двойки по следующим 6 битам.
+     */
+    static int indexOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return EXACT_LIMIT + (shift - 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int shift = (index - EXACT_LIMIT) / SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - EXACT_LIMIT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,338 @@
+package programs;
+
+import java.util.Arrays;
+
+/**
+ * Поиск пути Jump Point Search на поле с 8-связным движением и единичной стоимостью шага
+ * (размеры поля задаёт {@link BoardGeometry}, по умолчанию — 27x21).
+ * <p>
+ * Вместо раскрытия всех соседей клетки поиск «прыгает» по прямой или диагонали,
+ * пока не встретит клетку с вынужденным соседом (сосед, кратчайший путь к которому
+ * проходит только через эту клетку), цель или препятствие. В открытое множество попадают
+ * только такие точки прыжка, поэтому на открытом поле симметричные диагональные пути
+ * не раскрываются по отдельности, как в A*.
+ * <p>
+ * Правила отсечения соседей соответствуют движению со «срезанием углов», как в
+ * {@link GridPathEngine}: диагональный шаг разрешён независимо от ортогональных клеток.
+ * Стоимость перехода между точками прыжка — расстояние Чебышёва, эвристика — тоже,
+ * поэтому длина найденного пути совпадает с длиной пути A*, хотя сами клетки могут отличаться.
+ * Клетка цели считается свободной независимо от набора блокировок.
+ * <p>
+ * Алгоритмическая сложность: O(V * log V) в худшем случае, где V = W * H — число клеток поля;
+ * на открытом поле число точек прыжка и операций с кучей много меньше V.
+ * <p>
+ * Экземпляр не потокобезопасен: каждому потоку нужен собственный движок.
+ */
+public class JumpPointSearchEngine implements PathSearch {
+    private final BoardGeometry geometry;
+    private final int[] directionX;
+    private final int[] directionY;
+
+    private final int[] g;
+    private final int[] f;
+    private final int[] parent;
+    private final int[] visitedStamp;
+    private int stamp;
+
+    private int[] heapCell;
+    private int[] heapF;
+    private int heapSize;
+    private int openSetPeak;
+    private int expandedNodes;
+
+    private final int[] path;
+    private int pathLength;
+
+    private long[] blocked;
+    private int target;
+
+    public JumpPointSearchEngine() {
+        this(BoardGeometry.STANDARD);
+    }
+
+    /**
+     * @throws IllegalArgumentException если поле допускает только движение в 4 направлениях —
+     *                                  правила отсечения соседей рассчитаны на диагональные шаги
+     */
+    public JumpPointSearchEngine(BoardGeometry geometry) {
+        if (geometry.getMovement() != MovementRule.EIGHT_NEIGHBOURS) {
+            throw new IllegalArgumentException("Jump Point Search requires eight-neighbour movement");
+        }
+        this.geometry = geometry;
+        this.directionX = geometry.getMovement().dx();
+        this.directionY = geometry.getMovement().dy();
+        int cells = geometry.getCellCount();
+        this.g = new int[cells];
+        this.f = new int[cells];
+        this.parent = new int[cells];
+        this.visitedStamp = new int[cells];
+        this.heapCell = new int[cells * 2];
+        this.heapF = new int[cells * 2];
+        this.path = new int[cells];
+    }
+
+    @Override
+    public int findPath(int startX, int startY, int targetX, int targetY, long[] blockedBits) {
+        pathLength = 0;
+        expandedNodes = 0;
+        openSetPeak = 0;
+        if (!geometry.isInside(startX, startY) || !geometry.isInside(targetX, targetY)) {
+            return 0;
+        }
+
+        int start = geometry.cellIndex(startX, startY);
+        target = geometry.cellIndex(targetX, targetY);
+        if (start == target) {
+            path[0] = start;
+            pathLength = 1;
+            return pathLength;
+        }
+
+        blocked = blockedBits;
+        nextStamp();
+        heapSize = 0;
+
+        visitedStamp[start] = stamp;
+        g[start] = 0;
+        f[start] = distance(startX, startY, targetX, targetY);
+        parent[start] = -1;
+        push(start, f[start]);
+
+        while (heapSize > 0) {
+            int entryF = heapF[0];
+            int current = poll();
+
+            if (entryF != f[current]) {
+                continue;
+            }
+            if (current == target) {
+                return buildPath(target);
+            }
+            expandedNodes++;
+            expand(current, targetX, targetY);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public int getPathLength() {
+        return pathLength;
+    }
+
+    @Override
+    public int getPathCell(int i) {
+        return path[i];
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    @Override
+    public int getOpenSetPeak() {
+        return openSetPeak;
+    }
+
+    private void expand(int current, int targetX, int targetY) {
+        int cx = geometry.cellX(current);
+        int cy = geometry.cellY(current);
+
+        if (parent[current] == -1) {
+            for (int d = 0; d < directionX.length; d++) {
+                addSuccessor(current, cx, cy, directionX[d], directionY[d], targetX, targetY);
+            }
+            return;
+        }
+
+        int dx = Integer.signum(cx - geometry.cellX(parent[current]));
+        int dy = Integer.signum(cy - geometry.cellY(parent[current]));
+
+        if (dx != 0 && dy != 0) {
+            addSuccessor(current, cx, cy, dx, 0, targetX, targetY);
+            addSuccessor(current, cx, cy, 0, dy, targetX, targetY);
+            addSuccessor(current, cx, cy, dx, dy, targetX, targetY);
+            if (isBlocked(cx - dx, cy)) {
+                addSuccessor(current, cx, cy, -dx, dy, targetX, targetY);
+            }
+            if (isBlocked(cx, cy - dy)) {
+                addSuccessor(current, cx, cy, dx, -dy, targetX, targetY);
+            }
+        } else if (dx != 0) {
+            addSuccessor(current, cx, cy, dx, 0, targetX, targetY);
+            if (isBlocked(cx, cy + 1)) {
+                addSuccessor(current, cx, cy, dx, 1, targetX, targetY);
+            }
+            if (isBlocked(cx, cy - 1)) {
+                addSuccessor(current, cx, cy, dx, -1, targetX, targetY);
+            }
+        } else {
+            addSuccessor(current, cx, cy, 0, dy, targetX, targetY);
+            if (isBlocked(cx + 1, cy)) {
+                addSuccessor(current, cx, cy, 1, dy, targetX, targetY);
+            }
+            if (isBlocked(cx - 1, cy)) {
+                addSuccessor(current, cx, cy, -1, dy, targetX, targetY);
+            }
+        }
+    }
+
+    private void addSuccessor(int current, int cx, int cy, int dx, int dy, int targetX, int targetY) {
+        int jumpPoint = jump(cx, cy, dx, dy);
+        if (jumpPoint < 0) {
+            return;
+        }
+        int jx = geometry.cellX(jumpPoint);
+        int jy = geometry.cellY(jumpPoint);
+        int nextG = g[current] + distance(cx, cy, jx, jy);
+        if (visitedStamp[jumpPoint] != stamp || nextG < g[jumpPoint]) {
+            visitedStamp[jumpPoint] = stamp;
+            g[jumpPoint] = nextG;
+            f[jumpPoint] = nextG + distance(jx, jy, targetX, targetY);
+            parent[jumpPoint] = current;
+            push(jumpPoint, f[jumpPoint]);
+        }
+    }
+
+    /**
+     * Двигается из (x, y) в направлении (dx, dy) до ближайшей точки прыжка.
+     *
+     * @return индекс точки прыжка или -1, если направление упирается в препятствие или край поля
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        while (true) {
+            x += dx;
+            y += dy;
+            if (!isFree(x, y)) {
+                return -1;
+            }
+            int cell = geometry.cellIndex(x, y);
+            if (cell == target) {
+                return cell;
+            }
+
+            if (dx != 0 && dy != 0) {
+                if ((isBlocked(x - dx, y) && isFree(x - dx, y + dy))
+                        || (isBlocked(x, y - dy) && isFree(x + dx, y - dy))) {
+                    return cell;
+                }
+                if (jump(x, y, dx, 0) >= 0 || jump(x, y, 0, dy) >= 0) {
+                    return cell;
+                }
+            } else if (dx != 0) {
+                if ((isBlocked(x, y + 1) && isFree(x + dx, y + 1))
+                        || (isBlocked(x, y - 1) && isFree(x + dx, y - 1))) {
+                    return cell;
+                }
+            } else {
+                if ((isBlocked(x + 1, y) && isFree(x + 1, y + dy))
+                        || (isBlocked(x - 1, y) && isFree(x - 1, y + dy))) {
+                    return cell;
+                }
+            }
+        }
+    }
+
+    /**
+     * Клетка за пределами поля считается заблокированной; клетка цели — всегда свободной.
+     */
+    private boolean isBlocked(int x, int y) {
+        if (!geometry.isInside(x, y)) {
+            return true;
+        }
+        int cell = geometry.cellIndex(x, y);
+        return cell != target && GridPathEngine.isBlocked(blocked, cell);
+    }
+
+    private boolean isFree(int x, int y) {
+        return !isBlocked(x, y);
+    }
+
+    private int buildPath(int target) {
+        int length = 1;
+        for (int cell = target; parent[cell] != -1; cell = parent[cell]) {
+            length += distance(cell, parent[cell]);
+        }
+
+        int i = length;
+        int cell = target;
+        path[--i] = cell;
+        while (parent[cell] != -1) {
+            int from = parent[cell];
+            int x = geometry.cellX(cell);
+            int y = geometry.cellY(cell);
+            int stepX = Integer.signum(geometry.cellX(from) - x);
+            int stepY = Integer.signum(geometry.cellY(from) - y);
+            int steps = distance(cell, from);
+            for (int s = 1; s <= steps; s++) {
+                path[--i] = geometry.cellIndex(x + stepX * s, y + stepY * s);
+            }
+            cell = from;
+        }
+        pathLength = length;
+        return length;
+    }
+
+    private int distance(int fromCell, int toCell) {
+        return distance(geometry.cellX(fromCell), geometry.cellY(fromCell),
+                geometry.cellX(toCell), geometry.cellY(toCell));
+    }
+
+    private static int distance(int x, int y, int tx, int ty) {
+        return Math.max(Math.abs(x - tx), Math.abs(y - ty));
+    }
+
+    private void nextStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitedStamp, 0);
+            stamp = 1;
+        }
+    }
+
+    private void push(int cell, int key) {
+        if (heapSize == heapCell.length) {
+            heapCell = Arrays.copyOf(heapCell, heapSize * 2);
+            heapF = Arrays.copyOf(heapF, heapSize * 2);
+        }
+        int k = heapSize++;
+        if (heapSize > openSetPeak) {
+            openSetPeak = heapSize;
+        }
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (key >= heapF[p]) break;
+            heapCell[k] = heapCell[p];
+            heapF[k] = heapF[p];
+            k = p;
+        }
+        heapCell[k] = cell;
+        heapF[k] = key;
+    }
+
+    private int poll() {
+        int result = heapCell[0];
+        int n = --heapSize;
+        if (n > 0) {
+            int cell = heapCell[n];
+            int key = heapF[n];
+            int k = 0;
+            int half = n >>> 1;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                int right = child + 1;
+                if (right < n && heapF[child] > heapF[right]) {
+                    child = right;
+                }
+                if (key <= heapF[child]) break;
+                heapCell[k] = heapCell[child];
+                heapF[k] = heapF[child];
+                k = child;
+            }
+            heapCell[k] = cell;
+            heapF[k] = key;
+        }
+        return result;
+    }
+}
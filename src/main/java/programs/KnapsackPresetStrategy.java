@@ -0,0 +1,142 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Точный выбор состава армии как ограниченной задачи о рюкзаке.
+ * <p>
+ * Максимизируется суммарная оценка армии {@code attackWeight * атака + healthWeight * здоровье}
+ * при ограничениях: суммарная стоимость не больше лимита очков, не более 11 юнитов одного типа.
+ * <p>
+ * Алгоритм:
+ * 1. Допустимое количество юнитов каждого типа (min(11, maxPoints / cost)) раскладывается
+ *    на части 1, 2, 4, ..., остаток (двоичное разбиение) — получается задача 0/1 о рюкзаке,
+ *    в которой любое количество от 0 до предела набирается подмножеством частей.
+ * 2. Динамика по примитивному массиву int[] dp, где dp[w] — лучшая оценка при бюджете w;
+ *    выбор каждой части запоминается в битовом наборе для восстановления ответа.
+ * 3. Обратный проход по частям восстанавливает количество юнитов каждого типа.
+ * <p>
+ * Алгоритмическая сложность: O(n * log(11) * P) по времени и O(n * log(11) * P / 64) по памяти
+ * для таблицы выбора, где n — число типов юнитов, P — лимит очков.
+ * <p>
+ * Для нескольких лимитов ({@link #composeAll}) таблица строится один раз для наибольшего лимита:
+ * dp[w] — лучшая оценка при бюджете не больше w для любого w, поэтому состав для каждого лимита
+ * восстанавливается обратным проходом из своей клетки таблицы за O(n * log(11)). Оценка армии
+ * совпадает с отдельным вызовом {@link #compose}; при равных оценках состав может отличаться.
+ * <p>
+ * Типы с неположительной стоимостью не используются.
+ */
+public class KnapsackPresetStrategy implements PresetStrategy {
+    private final int attackWeight;
+    private final int healthWeight;
+
+    public KnapsackPresetStrategy(int attackWeight, int healthWeight) {
+        if (attackWeight < 0 || healthWeight < 0) {
+            throw new IllegalArgumentException("weights must be non-negative");
+        }
+        this.attackWeight = attackWeight;
+        this.healthWeight = healthWeight;
+    }
+
+    /**
+     * Стратегия, максимизирующая суммарную атаку армии.
+     */
+    public static KnapsackPresetStrategy totalAttack() {
+        return new KnapsackPresetStrategy(1, 0);
+    }
+
+    @Override
+    public PresetComposition compose(List<Unit> unitList, int maxPoints) {
+        int budget = Math.max(0, maxPoints);
+        return new Table(unitList, budget).extract(budget);
+    }
+
+    @Override
+    public List<PresetComposition> composeAll(List<Unit> unitList, int[] budgets) {
+        int maxBudget = 0;
+        for (int budget : budgets) {
+            maxBudget = Math.max(maxBudget, budget);
+        }
+        Table table = new Table(unitList, maxBudget);
+        List<PresetComposition> compositions = new ArrayList<>(budgets.length);
+        for (int budget : budgets) {
+            compositions.add(table.extract(Math.max(0, budget)));
+        }
+        return compositions;
+    }
+
+    /**
+     * Заполненная таблица динамики для бюджетов от 0 до budget.
+     */
+    private class Table {
+        private final List<Unit> unitList;
+        private final int[] partType;
+        private final int[] partCount;
+        private final int parts;
+        private final long[][] taken;
+
+        Table(List<Unit> unitList, int budget) {
+            this.unitList = unitList;
+            int types = unitList.size();
+
+            partType = new int[types * 4];
+            partCount = new int[types * 4];
+            int partTotal = 0;
+            for (int t = 0; t < types; t++) {
+                Unit unit = unitList.get(t);
+                if (unit.getCost() <= 0) {
+                    continue;
+                }
+                int limit = Math.min(GeneratePresetImpl.MAX_UNITS_PER_TYPE, budget / unit.getCost());
+                for (int piece = 1; limit > 0; piece <<= 1) {
+                    int count = Math.min(piece, limit);
+                    partType[partTotal] = t;
+                    partCount[partTotal] = count;
+                    partTotal++;
+                    limit -= count;
+                }
+            }
+            parts = partTotal;
+
+            int words = (budget >>> 6) + 1;
+            taken = new long[parts][words];
+            int[] dp = new int[budget + 1];
+
+            for (int p = 0; p < parts; p++) {
+                Unit unit = unitList.get(partType[p]);
+                int weight = partCount[p] * unit.getCost();
+                int value = partCount[p] * score(unit);
+                long[] takenRow = taken[p];
+                for (int w = budget; w >= weight; w--) {
+                    int candidate = dp[w - weight] + value;
+                    if (candidate > dp[w]) {
+                        dp[w] = candidate;
+                        takenRow[w >>> 6] |= 1L << w;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Восстанавливает состав для бюджета не больше того, для которого построена таблица.
+         */
+        PresetComposition extract(int budget) {
+            int[] counts = new int[unitList.size()];
+            int w = budget;
+            for (int p = parts - 1; p >= 0; p--) {
+                if ((taken[p][w >>> 6] & (1L << w)) != 0) {
+                    counts[partType[p]] += partCount[p];
+                    w -= partCount[p] * unitList.get(partType[p]).getCost();
+                }
+            }
+            return new PresetComposition(new ArrayList<>(unitList), counts);
+        }
+    }
+
+    private int score(Unit unit) {
+        return attackWeight * unit.getBaseAttack() + healthWeight * unit.getHealth();
+    }
+}
@@ -0,0 +1,159 @@
+package programs;
+
+import java.util.Locale;
+
+/**
+ * Сборщик метрик в памяти процесса: гистограммы {@link Histogram} по каждой точке измерения
+ * {@link BattleMetrics} и сводка, выгружаемая в текст ({@link #toText()}) или JSON ({@link #toJson()})
+ * по окончании пакета боёв.
+ * <p>
+ * Собираются:
+ * - simulate.latency_ns, simulate.rounds, simulate.turns, simulate.attacks — на бой;
+ * - path.latency_ns, path.expanded_nodes, path.open_set_peak, path.length — на запрос пути;
+ * - suitable.latency_ns, suitable.targets — на поиск доступных целей;
+ * - preset.latency_ns, preset.units — на генерацию пресета;
+ * - attacks_per_second — отношение всех атак ко всему времени симуляции.
+ * <p>
+ * Запись значений не выделяет памяти: O(1) на точку измерения.
+ * <p>
+ * Экземпляр не потокобезопасен: в параллельных прогонах у каждого потока свой реестр,
+ * а итог собирается через {@link #add(MetricsRegistry)}.
+ */
+public class MetricsRegistry implements BattleMetrics {
+    private final Histogram simulateLatency = new Histogram();
+    private final Histogram simulateRounds = new Histogram();
+    private final Histogram simulateTurns = new Histogram();
+    private final Histogram simulateAttacks = new Histogram();
+    private final Histogram pathLatency = new Histogram();
+    private final Histogram pathExpandedNodes = new Histogram();
+    private final Histogram pathOpenSetPeak = new Histogram();
+    private final Histogram pathLength = new Histogram();
+    private final Histogram suitableLatency = new Histogram();
+    private final Histogram suitableTargets = new Histogram();
+    private final Histogram presetLatency = new Histogram();
+    private final Histogram presetUnits = new Histogram();
+
+    private final String[] names = {
+            "simulate.latency_ns", "simulate.rounds", "simulate.turns", "simulate.attacks",
+            "path.latency_ns", "path.expanded_nodes", "path.open_set_peak", "path.length",
+            "suitable.latency_ns", "suitable.targets",
+            "preset.latency_ns", "preset.units"
+    };
+    private final Histogram[] histograms = {
+            simulateLatency, simulateRounds, simulateTurns, simulateAttacks,
+            pathLatency, pathExpandedNodes, pathOpenSetPeak, pathLength,
+            suitableLatency, suitableTargets,
+            presetLatency, presetUnits
+    };
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordBattle(long nanos, int rounds, int turns, int attacks) {
+        simulateLatency.record(nanos);
+        simulateRounds.record(rounds);
+        simulateTurns.record(turns);
+        simulateAttacks.record(attacks);
+    }
+
+    @Override
+    public void recordPathSearch(long nanos, int expandedNodes, int openSetPeak, int length) {
+        pathLatency.record(nanos);
+        pathExpandedNodes.record(expandedNodes);
+        pathOpenSetPeak.record(openSetPeak);
+        pathLength.record(length);
+    }
+
+    @Override
+    public void recordSuitableTargets(long nanos, int suitableCount) {
+        suitableLatency.record(nanos);
+        suitableTargets.record(suitableCount);
+    }
+
+    @Override
+    public void recordPreset(long nanos, int unitCount) {
+        presetLatency.record(nanos);
+        presetUnits.record(unitCount);
+    }
+
+    /**
+     * Возвращает гистограмму по имени из списка в описании класса.
+     *
+     * @throws IllegalArgumentException если метрики с таким именем нет
+     */
+    public Histogram getHistogram(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return histograms[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown metric: " + name);
+    }
+
+    /**
+     * Число атак в секунду по всем записанным боям или 0, если боёв не было.
+     */
+    public double getAttacksPerSecond() {
+        long nanos = simulateLatency.getSum();
+        return nanos == 0 ? 0.0 : simulateAttacks.getSum() * 1e9 / nanos;
+    }
+
+    /**
+     * Добавляет значения другого реестра, например собранного в другом потоке.
+     */
+    public void add(MetricsRegistry other) {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i].add(other.histograms[i]);
+        }
+    }
+
+    public void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Сводка в виде таблицы: по строке на метрику — число значений, среднее, минимум,
+     * медиана, 90-й, 99-й перцентили и максимум.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-22s %10s %12s %10s %10s %10s %10s %12s%n",
+                "metric", "count", "mean", "min", "p50", "p90", "p99", "max"));
+        for (int i = 0; i < names.length; i++) {
+            Histogram h = histograms[i];
+            text.append(String.format(Locale.ROOT, "%-22s %10d %12.1f %10d %10d %10d %10d %12d%n",
+                    names[i], h.getTotalCount(), h.getMean(), h.getMin(),
+                    h.getValueAtPercentile(50), h.getValueAtPercentile(90), h.getValueAtPercentile(99),
+                    h.getMax()));
+        }
+        text.append(String.format(Locale.ROOT, "attacks_per_second %.1f%n", getAttacksPerSecond()));
+        return text.toString();
+    }
+
+    /**
+     * Сводка в виде JSON-объекта: для каждой метрики — count, mean, min, p50, p90, p99 и max.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < names.length; i++) {
+            Histogram h = histograms[i];
+            json.append('"').append(names[i]).append("\":{")
+                    .append("\"count\":").append(h.getTotalCount())
+                    .append(",\"mean\":").append(String.format(Locale.ROOT, "%.3f", h.getMean()))
+                    .append(",\"min\":").append(h.getMin())
+                    .append(",\"p50\":").append(h.getValueAtPercentile(50))
+                    .append(",\"p90\":").append(h.getValueAtPercentile(90))
+                    .append(",\"p99\":").append(h.getValueAtPercentile(99))
+                    .append(",\"max\":").append(h.getMax())
+                    .append("},");
+        }
+        json.append("\"attacks_per_second\":").append(String.format(Locale.ROOT, "%.3f", getAttacksPerSecond()))
+                .append('}');
+        return json.toString();
+    }
+}
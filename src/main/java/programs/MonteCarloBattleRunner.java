@@ -0,0 +1,133 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Параллельный прогон множества боёв пресета компьютера против случайных армий игрока.
+ * <p>
+ * Диапазон испытаний рекурсивно делится задачами {@link ForkJoinPool} до порций
+ * размером не более {@code battlesPerTask}. Каждая порция создаёт собственный
+ * {@link HeadlessBattleEngine} (со своими поиском пути, поиском целей и сеткой занятости)
+ * и для каждого боя глубоко копирует пресет, поэтому задачи не разделяют изменяемого состояния.
+ * Итоги собираются в полосатые счётчики {@link LongAdder}, которые не создают
+ * конкуренции между потоками.
+ * <p>
+ * Бой i получает собственный поток случайных чисел {@link BattleContext#forStream(long, long)},
+ * зависящий только от исходного зерна и номера боя, поэтому результат не зависит
+ * от числа потоков и порядка выполнения задач. Армия игрока строится из отдельного
+ * потока, полученного через {@link BattleContext#split()}.
+ * <p>
+ * Алгоритмическая сложность: O(T * B / P),
+ * где T — число боёв, B — стоимость одного боя, P — число потоков пула.
+ */
+public class MonteCarloBattleRunner {
+    private final ForkJoinPool pool;
+    private final int battlesPerTask;
+
+    public MonteCarloBattleRunner(ForkJoinPool pool, int battlesPerTask) {
+        if (battlesPerTask <= 0) {
+            throw new IllegalArgumentException("battlesPerTask must be positive: " + battlesPerTask);
+        }
+        this.pool = pool;
+        this.battlesPerTask = battlesPerTask;
+    }
+
+    /**
+     * Проводит {@code battles} боёв пресета против армий, созданных фабрикой.
+     *
+     * @param computerPreset     армия компьютера; копируется для каждого боя
+     * @param playerArmyFactory  создаёт армию игрока по контексту боя
+     */
+    public MonteCarloReport run(Army computerPreset, Function<BattleContext, Army> playerArmyFactory,
+                                int battles, long seed) {
+        Statistics statistics = new Statistics();
+        pool.invoke(new BattleTask(computerPreset, playerArmyFactory, seed, 0, battles, statistics));
+        return statistics.toReport();
+    }
+
+    private class BattleTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Army computerPreset;
+        private final Function<BattleContext, Army> playerArmyFactory;
+        private final long seed;
+        private final int from;
+        private final int to;
+        private final Statistics statistics;
+
+        BattleTask(Army computerPreset, Function<BattleContext, Army> playerArmyFactory, long seed,
+                   int from, int to, Statistics statistics) {
+            this.computerPreset = computerPreset;
+            this.playerArmyFactory = playerArmyFactory;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > battlesPerTask) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new BattleTask(computerPreset, playerArmyFactory, seed, from, middle, statistics),
+                        new BattleTask(computerPreset, playerArmyFactory, seed, middle, to, statistics));
+                return;
+            }
+
+            HeadlessBattleEngine engine = new HeadlessBattleEngine(BattleContext.forStream(seed, from));
+            for (int battle = from; battle < to; battle++) {
+                BattleContext context = BattleContext.forStream(seed, battle);
+                Army playerArmy = playerArmyFactory.apply(context.split());
+                engine.setBattleContext(context);
+                Army computerArmy = ArmyCopier.copy(computerPreset);
+                statistics.record(engine.run(playerArmy, computerArmy));
+            }
+        }
+    }
+
+    private static class Statistics {
+        final LongAdder battles = new LongAdder();
+        final LongAdder playerWins = new LongAdder();
+        final LongAdder computerWins = new LongAdder();
+        final LongAdder draws = new LongAdder();
+        final LongAdder totalRounds = new LongAdder();
+        final LongAccumulator maxRounds = new LongAccumulator(Math::max, 0);
+        final LongAdder totalAttacks = new LongAdder();
+        final LongAdder playerSurvivors = new LongAdder();
+        final LongAdder computerSurvivors = new LongAdder();
+
+        void record(BattleOutcome outcome) {
+            battles.increment();
+            switch (outcome.getWinner()) {
+                case PLAYER -> playerWins.increment();
+                case COMPUTER -> computerWins.increment();
+                default -> draws.increment();
+            }
+            totalRounds.add(outcome.getRounds());
+            maxRounds.accumulate(outcome.getRounds());
+            totalAttacks.add(outcome.getAttacks());
+            playerSurvivors.add(outcome.getPlayerSurvivors());
+            computerSurvivors.add(outcome.getComputerSurvivors());
+        }
+
+        MonteCarloReport toReport() {
+            return new MonteCarloReport(
+                    battles.sum(),
+                    playerWins.sum(),
+                    computerWins.sum(),
+                    draws.sum(),
+                    totalRounds.sum(),
+                    maxRounds.get(),
+                    totalAttacks.sum(),
+                    playerSurvivors.sum(),
+                    computerSurvivors.sum());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package programs;
+
+/**
+ * Сводная статистика пакетного прогона боёв {@link MonteCarloBattleRunner}.
+ */
+public class MonteCarloReport {
+    private final long battles;
+    private final long playerWins;
+    private final long computerWins;
+    private final long draws;
+    private final long totalRounds;
+    private final long maxRounds;
+    private final long totalAttacks;
+    private final long playerSurvivors;
+    private final long computerSurvivors;
+
+    public MonteCarloReport(long battles, long playerWins, long computerWins, long draws,
+                            long totalRounds, long maxRounds, long totalAttacks,
+                            long playerSurvivors, long computerSurvivors) {
+        this.battles = battles;
+        this.playerWins = playerWins;
+        this.computerWins = computerWins;
+        this.draws = draws;
+        this.totalRounds = totalRounds;
+        this.maxRounds = maxRounds;
+        this.totalAttacks = totalAttacks;
+        this.playerSurvivors = playerSurvivors;
+        this.computerSurvivors = computerSurvivors;
+    }
+
+    public long getBattles() {
+        return battles;
+    }
+
+    public long getPlayerWins() {
+        return playerWins;
+    }
+
+    public long getComputerWins() {
+        return computerWins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getTotalRounds() {
+        return totalRounds;
+    }
+
+    public long getMaxRounds() {
+        return maxRounds;
+    }
+
+    public long getTotalAttacks() {
+        return totalAttacks;
+    }
+
+    public long getPlayerSurvivors() {
+        return playerSurvivors;
+    }
+
+    public long getComputerSurvivors() {
+        return computerSurvivors;
+    }
+
+    public double getComputerWinRate() {
+        return battles == 0 ? 0.0 : (double) computerWins / battles;
+    }
+
+    public double getAverageRounds() {
+        return battles == 0 ? 0.0 : (double) totalRounds / battles;
+    }
+
+    public double getAverageComputerSurvivors() {
+        return battles == 0 ? 0.0 : (double) computerSurvivors / battles;
+    }
+
+    @Override
+    public String toString() {
+        return "MonteCarloReport{battles=" + battles
+                + ", playerWins=" + playerWins
+                + ", computerWins=" + computerWins
+                + ", draws=" + draws
+                + ", averageRounds=" + getAverageRounds()
+                + ", maxRounds=" + maxRounds
+                + ", totalAttacks=" + totalAttacks
+                + ", playerSurvivors=" + playerSurvivors
+                + ", computerSurvivors=" + computerSurvivors
+                + '}';
+    }
+}
@@ -0,0 +1,48 @@
+package programs;
+
+/**
+ * Правило перемещения юнита на одну клетку за шаг.
+ */
+public enum MovementRule {
+    /**
+     * Только по горизонтали и вертикали; расстояние между клетками — манхэттенское.
+     */
+    FOUR_NEIGHBOURS(new int[]{-1, 0, 0, 1}, new int[]{0, -1, 1, 0}),
+    /**
+     * Также по диагоналям (как в исходной игре); расстояние — Чебышёва.
+     * Порядок направлений совпадает с исходным поиском пути.
+     */
+    EIGHT_NEIGHBOURS(new int[]{-1, -1, -1, 0, 0, 1, 1, 1}, new int[]{-1, 0, 1, -1, 1, -1, 0, 1});
+
+    private final int[] dx;
+    private final int[] dy;
+
+    MovementRule(int[] dx, int[] dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+     * Длина кратчайшего пути между клетками на пустом поле.
+     */
+    public int distance(int x, int y, int tx, int ty) {
+        int ax = Math.abs(x - tx);
+        int ay = Math.abs(y - ty);
+        return this == EIGHT_NEIGHBOURS ? Math.max(ax, ay) : ax + ay;
+    }
+
+    /**
+     * Проверяет, что шаг (dx, dy) с единичными по модулю компонентами разрешён правилом.
+     */
+    public boolean allowsStep(int dx, int dy) {
+        return (dx != 0 || dy != 0) && (this == EIGHT_NEIGHBOURS || dx == 0 || dy == 0);
+    }
+
+    int[] dx() {
+        return dx;
+    }
+
+    int[] dy() {
+        return dy;
+    }
+}
@@ -0,0 +1,214 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Изменяемая часть состояния боя: здоровье, координаты и признак жизни юнитов в примитивных массивах.
+ * <p>
+ * Юниты нумеруются так же, как в {@link BattleState}: сначала юниты игрока в порядке армии,
+ * затем юниты компьютера. Здоровье и координаты хранятся в массивах int[], признак жизни —
+ * в битовом наборе long[] вместе со счётчиками живых юнитов каждой стороны. Любое перемещение
+ * или гибель увеличивает номер версии ({@link #getVersion()}).
+ * <p>
+ * Этот класс — единственное место, где изменяемые поля копируются из юнитов и обратно:
+ * его содержит {@link BattleState} (вместе с неизменяемыми полями юнитов) и снимок боя
+ * {@link BattleSnapshot} (без них).
+ * <p>
+ * Алгоритмическая сложность:
+ * - построение, запись в армии ({@link #applyTo}) и перечитывание из них ({@link #readFrom(Army, Army)}): O(n)
+ * - чтение и изменение полей юнита, проверка и пометка гибели: O(1)
+ * - число живых юнитов стороны: O(1)
+ * <p>
+ * Экземпляр не потокобезопасен.
+ */
+public class MutableBattleState {
+    private final int size;
+    private final int playerCount;
+
+    private final int[] health;
+    private final int[] x;
+    private final int[] y;
+    private final long[] aliveBits;
+    private final int[] aliveCount = new int[2];
+    private long version;
+
+    private MutableBattleState(List<Unit> units, int playerCount) {
+        this.size = units.size();
+        this.playerCount = playerCount;
+        health = new int[size];
+        x = new int[size];
+        y = new int[size];
+        aliveBits = new long[(size + 63) >>> 6];
+        for (int i = 0; i < size; i++) {
+            readUnit(i, units.get(i));
+        }
+    }
+
+    public static MutableBattleState of(Army playerArmy, Army computerArmy) {
+        List<Unit> units = new ArrayList<>(playerArmy.getUnits());
+        units.addAll(computerArmy.getUnits());
+        return of(units, playerArmy.getUnits().size());
+    }
+
+    /**
+     * @param units юниты игрока, за ними юниты компьютера
+     */
+    static MutableBattleState of(List<Unit> units, int playerCount) {
+        return new MutableBattleState(units, playerCount);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Возвращает сторону юнита: {@link BattleState#PLAYER} или {@link BattleState#COMPUTER}.
+     */
+    public int sideOf(int unit) {
+        return unit < playerCount ? BattleState.PLAYER : BattleState.COMPUTER;
+    }
+
+    public int getHealth(int unit) {
+        return health[unit];
+    }
+
+    public void setHealth(int unit, int value) {
+        health[unit] = value;
+    }
+
+    public int getX(int unit) {
+        return x[unit];
+    }
+
+    public int getY(int unit) {
+        return y[unit];
+    }
+
+    public void moveTo(int unit, int newX, int newY) {
+        x[unit] = newX;
+        y[unit] = newY;
+        version++;
+    }
+
+    public boolean isAlive(int unit) {
+        return (aliveBits[unit >>> 6] & (1L << unit)) != 0;
+    }
+
+    /**
+     * Помечает юнит погибшим. Повторный вызов для уже погибшего юнита ничего не меняет.
+     */
+    public void markDead(int unit) {
+        if (isAlive(unit)) {
+            aliveBits[unit >>> 6] &= ~(1L << unit);
+            aliveCount[sideOf(unit)]--;
+            version++;
+        }
+    }
+
+    /**
+     * Наносит урон юниту и помечает его погибшим, если здоровье стало не больше нуля.
+     *
+     * @return {@code true}, если юнит погиб от этого удара
+     */
+    public boolean applyDamage(int unit, int damage) {
+        health[unit] -= damage;
+        if (health[unit] <= 0 && isAlive(unit)) {
+            markDead(unit);
+            return true;
+        }
+        return false;
+    }
+
+    public int getAliveCount(int side) {
+        return aliveCount[side];
+    }
+
+    /**
+     * Номер версии; увеличивается при каждом перемещении, гибели и перечитывании юнитов.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Записывает здоровье, координаты и признак жизни в юниты армий.
+     * Армии должны содержать те же юниты в том же порядке, что и при построении состояния.
+     *
+     * @throws IllegalArgumentException если размеры армий не совпадают с состоянием
+     */
+    public void applyTo(Army playerArmy, Army computerArmy) {
+        checkArmies(playerArmy, computerArmy);
+        for (int i = 0; i < size; i++) {
+            Unit unit = unitAt(playerArmy, computerArmy, i);
+            unit.setHealth(health[i]);
+            unit.setxCoordinate(x[i]);
+            unit.setyCoordinate(y[i]);
+            unit.setAlive(isAlive(i));
+        }
+    }
+
+    /**
+     * Перечитывает здоровье, координаты и признак жизни из юнитов армий того же состава.
+     *
+     * @throws IllegalArgumentException если размеры армий не совпадают с состоянием
+     */
+    public void readFrom(Army playerArmy, Army computerArmy) {
+        checkArmies(playerArmy, computerArmy);
+        Arrays.fill(aliveBits, 0L);
+        Arrays.fill(aliveCount, 0);
+        for (int i = 0; i < size; i++) {
+            readUnit(i, unitAt(playerArmy, computerArmy, i));
+        }
+        version++;
+    }
+
+    /**
+     * Перечитывает здоровье, координаты и признак жизни одного юнита из объекта {@link Unit}.
+     * Версия увеличивается, только если юнит переместился, погиб или ожил.
+     */
+    public void readFrom(int unit, Unit source) {
+        health[unit] = source.getHealth();
+        if (x[unit] != source.getxCoordinate() || y[unit] != source.getyCoordinate()) {
+            moveTo(unit, source.getxCoordinate(), source.getyCoordinate());
+        }
+        if (!source.isAlive()) {
+            markDead(unit);
+        } else if (!isAlive(unit)) {
+            aliveBits[unit >>> 6] |= 1L << unit;
+            aliveCount[sideOf(unit)]++;
+            version++;
+        }
+    }
+
+    private void readUnit(int i, Unit unit) {
+        health[i] = unit.getHealth();
+        x[i] = unit.getxCoordinate();
+        y[i] = unit.getyCoordinate();
+        if (unit.isAlive()) {
+            aliveBits[i >>> 6] |= 1L << i;
+            aliveCount[sideOf(i)]++;
+        }
+    }
+
+    private void checkArmies(Army playerArmy, Army computerArmy) {
+        int playerUnits = playerArmy.getUnits().size();
+        int computerUnits = computerArmy.getUnits().size();
+        if (playerUnits != playerCount || computerUnits != size - playerCount) {
+            throw new IllegalArgumentException("Battle state of " + playerCount + " + " + (size - playerCount)
+                    + " units does not match armies of " + playerUnits + " + " + computerUnits);
+        }
+    }
+
+    private Unit unitAt(Army playerArmy, Army computerArmy, int i) {
+        return i < playerCount ? playerArmy.getUnits().get(i) : computerArmy.getUnits().get(i - playerCount);
+    }
+}
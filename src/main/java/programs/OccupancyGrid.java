@@ -0,0 +1,158 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+
+import java.util.Arrays;
+
+/**
+ * Сетка занятости игрового поля (по умолчанию — {@link BoardGeometry#STANDARD}), общая
+ * для всех запросов поиска пути в рамках одного боя.
+ * <p>
+ * Для каждой клетки хранится количество живых юнитов, а также битовый набор занятых клеток,
+ * который движок {@link GridPathEngine} использует напрямую как набор препятствий.
+ * Сетка заполняется один раз в начале боя и далее обновляется инкрементально —
+ * при перемещении юнита ({@link #onUnitMoved}) и его гибели ({@link #onUnitDied}).
+ * Каждое изменение увеличивает монотонный номер версии поля ({@link #getVersion()}),
+ * по которому кэши результатов определяют, что поле не менялось.
+ * <p>
+ * Вместе с занятостью поддерживается разметка связных компонент свободных клеток
+ * ({@link FreeCellComponents}), поэтому недостижимость цели ({@link #isReachable})
+ * определяется без запуска поиска пути.
+ * <p>
+ * Алгоритмическая сложность:
+ * - заполнение: O(n), где n — количество юнитов обеих армий
+ * - перемещение и гибель юнита: O(1)
+ * - проверка занятости клетки: O(1)
+ * <p>
+ * Экземпляр не потокобезопасен и принадлежит одному бою.
+ */
+public class OccupancyGrid {
+    private final BoardGeometry geometry;
+    private final int[] occupants;
+    private final long[] occupiedBits;
+    private final FreeCellComponents components;
+    private long version;
+
+    public OccupancyGrid() {
+        this(BoardGeometry.STANDARD);
+    }
+
+    public OccupancyGrid(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.occupants = new int[geometry.getCellCount()];
+        this.occupiedBits = new long[geometry.getBitsetWords()];
+        this.components = new FreeCellComponents(geometry, occupiedBits);
+    }
+
+    public void reset(Army playerArmy, Army computerArmy) {
+        clear();
+        addArmy(playerArmy);
+        addArmy(computerArmy);
+    }
+
+    public void clear() {
+        Arrays.fill(occupants, 0);
+        Arrays.fill(occupiedBits, 0L);
+        components.invalidate();
+        version++;
+    }
+
+    public void addUnit(Unit unit) {
+        if (unit != null && unit.isAlive()) {
+            occupy(unit.getxCoordinate(), unit.getyCoordinate());
+        }
+    }
+
+    /**
+     * Переносит живой юнит из клетки (fromX, fromY) в его текущие координаты.
+     */
+    public void onUnitMoved(Unit unit, int fromX, int fromY) {
+        if (unit == null || !unit.isAlive()) {
+            return;
+        }
+        int toX = unit.getxCoordinate();
+        int toY = unit.getyCoordinate();
+        if (fromX == toX && fromY == toY) {
+            return;
+        }
+        release(fromX, fromY);
+        occupy(toX, toY);
+    }
+
+    /**
+     * Освобождает клетку погибшего юнита. Вызывается один раз — в момент,
+     * когда {@link Unit#isAlive()} юнита сменился на {@code false}.
+     */
+    public void onUnitDied(Unit unit) {
+        if (unit != null) {
+            release(unit.getxCoordinate(), unit.getyCoordinate());
+        }
+    }
+
+    public boolean isOccupied(int x, int y) {
+        return geometry.isInside(x, y) && occupants[geometry.cellIndex(x, y)] > 0;
+    }
+
+    /**
+     * Проверяет, может ли юнит из клетки (startX, startY) дойти до клетки (targetX, targetY)
+     * по свободным клеткам. Клетки старта и цели считаются проходимыми, как и в поиске пути.
+     * <p>
+     * Алгоритмическая сложность: O(1), если с прошлого запроса ни одна компонента не могла распасться,
+     * иначе O(W * H) на пересчёт разметки.
+     */
+    public boolean isReachable(int startX, int startY, int targetX, int targetY) {
+        if (!geometry.isInside(startX, startY) || !geometry.isInside(targetX, targetY)) {
+            return false;
+        }
+        return components.isReachable(geometry.cellIndex(startX, startY), geometry.cellIndex(targetX, targetY));
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    long[] getOccupiedBits() {
+        return occupiedBits;
+    }
+
+    private void addArmy(Army army) {
+        if (army == null || army.getUnits() == null) {
+            return;
+        }
+        for (Unit unit : army.getUnits()) {
+            addUnit(unit);
+        }
+    }
+
+    private void occupy(int x, int y) {
+        if (!geometry.isInside(x, y)) {
+            return;
+        }
+        int cell = geometry.cellIndex(x, y);
+        if (occupants[cell]++ == 0) {
+            occupiedBits[cell >>> 6] |= 1L << cell;
+            components.onCellOccupied(cell);
+        }
+        version++;
+    }
+
+    private void release(int x, int y) {
+        if (!geometry.isInside(x, y)) {
+            return;
+        }
+        int cell = geometry.cellIndex(x, y);
+        if (occupants[cell] == 0) {
+            return;
+        }
+        if (--occupants[cell] == 0) {
+            occupiedBits[cell >>> 6] &= ~(1L << cell);
+            components.onCellFreed(cell);
+        }
+        version++;
+    }
+}
@@ -0,0 +1,35 @@
+package programs;
+
+/**
+ * Алгоритм поиска кратчайшего пути на поле с единичной стоимостью шага. Размеры поля и правило
+ * перемещения (по умолчанию — 27x21, 8 направлений) задаёт {@link BoardGeometry} движка.
+ * <p>
+ * Реализации переиспользуют внутренние массивы между запросами и не потокобезопасны.
+ * Клетка цели всегда считается свободной, даже если она отмечена в наборе блокировок.
+ */
+public interface PathSearch {
+    /**
+     * Ищет кратчайший путь из (startX, startY) в (targetX, targetY).
+     *
+     * @param blockedBits битовый набор заблокированных клеток с индексами {@link BoardGeometry#cellIndex}
+     * @return количество клеток найденного пути (включая старт и цель) или 0, если пути нет
+     */
+    int findPath(int startX, int startY, int targetX, int targetY, long[] blockedBits);
+
+    int getPathLength();
+
+    /**
+     * Возвращает индекс i-й клетки последнего найденного пути (0 — стартовая клетка).
+     */
+    int getPathCell(int i);
+
+    /**
+     * Количество узлов, раскрытых последним поиском (для метрик {@link BattleMetrics}).
+     */
+    int getExpandedNodes();
+
+    /**
+     * Наибольший размер открытого множества (кучи или фронта волн) за последний поиск.
+     */
+    int getOpenSetPeak();
+}
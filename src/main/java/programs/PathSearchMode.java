@@ -0,0 +1,47 @@
+package programs;
+
+/**
+ * Выбор алгоритма поиска пути для {@link UnitTargetPathFinderImpl}.
+ */
+public enum PathSearchMode {
+    /**
+     * A* по всем клеткам ({@link GridPathEngine}); пути совпадают с исходной реализацией клетка в клетку.
+     */
+    A_STAR {
+        @Override
+        public PathSearch create(BoardGeometry geometry) {
+            return new GridPathEngine(geometry);
+        }
+    },
+    /**
+     * Jump Point Search ({@link JumpPointSearchEngine}): пути той же длины, что у A*,
+     * но через другие клетки; быстрее на открытом поле. Требует движения в 8 направлениях.
+     */
+    JUMP_POINT {
+        @Override
+        public PathSearch create(BoardGeometry geometry) {
+            return new JumpPointSearchEngine(geometry);
+        }
+    },
+    /**
+     * Двунаправленный поиск в ширину ({@link BidirectionalSearchEngine}): пути той же длины,
+     * что у A*; выгоден для длинных путей через всё поле.
+     */
+    BIDIRECTIONAL {
+        @Override
+        public PathSearch create(BoardGeometry geometry) {
+            return new BidirectionalSearchEngine(geometry);
+        }
+    };
+
+    public PathSearch create() {
+        return create(BoardGeometry.STANDARD);
+    }
+
+    /**
+     * Создаёт движок для поля заданной геометрии.
+     *
+     * @throws IllegalArgumentException если алгоритм не поддерживает правило перемещения поля
+     */
+    public abstract PathSearch create(BoardGeometry geometry);
+}
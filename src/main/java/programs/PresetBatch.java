@@ -0,0 +1,46 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+
+import java.util.List;
+
+/**
+ * Пресеты армии компьютера для набора лимитов очков, полученные одним вызовом
+ * {@link GeneratePresetImpl#generateAll}.
+ * <p>
+ * Хранятся только компактные составы {@link PresetComposition}; армия создаётся
+ * при обращении к {@link #materialize(int)} — каждый раз новая, с новыми юнитами
+ * на заново перемешанных позициях, как при вызове {@link GeneratePresetImpl#generate}.
+ * <p>
+ * Алгоритмическая сложность: O(m) на создание армии из m юнитов.
+ */
+public final class PresetBatch {
+    private final GeneratePresetImpl generator;
+    private final int[] budgets;
+    private final List<PresetComposition> compositions;
+
+    PresetBatch(GeneratePresetImpl generator, int[] budgets, List<PresetComposition> compositions) {
+        this.generator = generator;
+        this.budgets = budgets.clone();
+        this.compositions = List.copyOf(compositions);
+    }
+
+    public int size() {
+        return budgets.length;
+    }
+
+    public int getBudget(int i) {
+        return budgets[i];
+    }
+
+    public PresetComposition getComposition(int i) {
+        return compositions.get(i);
+    }
+
+    /**
+     * Создаёт армию по составу для i-го лимита.
+     */
+    public Army materialize(int i) {
+        return generator.materialize(compositions.get(i));
+    }
+}
@@ -0,0 +1,53 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+
+import java.util.List;
+
+/**
+ * Компактный состав армии: упорядоченные шаблоны юнитов и количество юнитов каждого шаблона.
+ * <p>
+ * Порядок шаблонов задаёт порядок юнитов в создаваемой армии.
+ */
+public class PresetComposition {
+    private final Unit[] templates;
+    private final int[] counts;
+    private final int points;
+
+    public PresetComposition(List<Unit> templates, int[] counts) {
+        if (templates.size() != counts.length) {
+            throw new IllegalArgumentException("templates and counts must have the same length");
+        }
+        this.templates = templates.toArray(new Unit[0]);
+        this.counts = counts.clone();
+        int total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i] * this.templates[i].getCost();
+        }
+        this.points = total;
+    }
+
+    public int size() {
+        return templates.length;
+    }
+
+    public Unit getTemplate(int i) {
+        return templates[i];
+    }
+
+    public int getCount(int i) {
+        return counts[i];
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getUnitCount() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
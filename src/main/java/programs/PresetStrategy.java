@@ -0,0 +1,32 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Стратегия выбора состава армии компьютера для {@link GeneratePresetImpl}.
+ */
+public interface PresetStrategy {
+    /**
+     * Выбирает количество юнитов каждого типа, не превышая лимит очков
+     * и {@link GeneratePresetImpl#MAX_UNITS_PER_TYPE} юнитов одного типа.
+     */
+    PresetComposition compose(List<Unit> unitList, int maxPoints);
+
+    /**
+     * Выбирает составы для нескольких лимитов очков по одному каталогу юнитов.
+     * Реализация по умолчанию вызывает {@link #compose} для каждого лимита; стратегии
+     * переопределяют метод, чтобы переиспользовать общую подготовку между лимитами.
+     *
+     * @return составы в порядке лимитов
+     */
+    default List<PresetComposition> composeAll(List<Unit> unitList, int[] budgets) {
+        List<PresetComposition> compositions = new ArrayList<>(budgets.length);
+        for (int budget : budgets) {
+            compositions.add(compose(unitList, budget));
+        }
+        return compositions;
+    }
+}
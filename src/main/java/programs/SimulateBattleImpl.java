@@ -5,44 +5,139 @@ import com.battle.heroes.army.Unit;
 import com.battle.heroes.army.programs.PrintBattleLog;
 import com.battle.heroes.army.programs.SimulateBattle;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
 
 public class SimulateBattleImpl implements SimulateBattle {
     private PrintBattleLog printBattleLog;
+    private OccupancyGrid occupancyGrid;
+    private BoardIndex boardIndex;
+    private BattleReplayWriter replayWriter;
+    private final AliveUnitTracker aliveTracker = new AliveUnitTracker();
+    private TurnScheduler turnScheduler = new TurnScheduler();
+    private AttackResolver attackResolver = AttackResolver.PROGRAM;
+    private int maxRounds = Integer.MAX_VALUE;
+    private int roundCount;
+    private int attackCount;
+    private int turnCount;
+    private BattleMetrics metrics = BattleMetrics.NOOP;
+    private Army battlePlayerArmy;
+    private Army battleComputerArmy;
+    private boolean turnPending;
 
 
+    /**
+     * Задаёт журнал боя. Если журнал реализует {@link BattleLifecycleListener}
+     * (например, {@link AsyncBattleLog}), он получает уведомления о начале и окончании боя.
+     */
     public void setPrintBattleLog(PrintBattleLog printBattleLog) {
         this.printBattleLog = printBattleLog;
     }
+
+    /**
+     * Задаёт сетку занятости, которую симуляция заполняет в начале боя и обновляет
+     * после каждой атаки (перемещение атакующего, гибель цели). Эту же сетку следует
+     * передать в {@link UnitTargetPathFinderImpl#UnitTargetPathFinderImpl(OccupancyGrid)}.
+     */
+    public void setOccupancyGrid(OccupancyGrid occupancyGrid) {
+        this.occupancyGrid = occupancyGrid;
+    }
+
+    /**
+     * Задаёт индекс поля по колонкам, который симуляция заполняет в начале боя и обновляет
+     * после каждой атаки так же, как {@link OccupancyGrid}.
+     */
+    public void setBoardIndex(BoardIndex boardIndex) {
+        this.boardIndex = boardIndex;
+    }
+
+    /**
+     * Задаёт запись повтора боя: исходное состояние армий, затем перемещение и атака каждого хода.
+     * Запись завершается по окончании боя, но файл не закрывается.
+     */
+    public void setReplayWriter(BattleReplayWriter replayWriter) {
+        this.replayWriter = replayWriter;
+    }
+
+    /**
+     * Задаёт способ выполнения хода юнита. По умолчанию ход выполняет программа юнита.
+     */
+    public void setAttackResolver(AttackResolver attackResolver) {
+        this.attackResolver = attackResolver;
+    }
+
+    /**
+     * Задаёт порядок ходов внутри армии. По умолчанию — {@link TurnScheduler#BY_ATTACK_DESC}:
+     * по убыванию базовой атаки, при равенстве — в порядке следования юнитов в армии.
+     */
+    public void setTurnOrder(Comparator<Unit> turnOrder) {
+        this.turnScheduler = new TurnScheduler(turnOrder);
+    }
+
+    /**
+     * Ограничивает количество раундов боя. Нужен для пакетных прогонов, где юниты ближнего боя
+     * могут оказаться без достижимых целей; по умолчанию ограничения нет.
+     */
+    public void setMaxRounds(int maxRounds) {
+        this.maxRounds = maxRounds;
+    }
+
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    public int getAttackCount() {
+        return attackCount;
+    }
+
+    /**
+     * Количество ходов последнего боя, включая ходы без атаки.
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Задаёт метрики: длительность боя, число раундов, ходов и атак.
+     * По умолчанию — {@link BattleMetrics#NOOP}.
+     */
+    public void setMetrics(BattleMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Выполняет пошаговую симуляцию боя между армией игрока и армией компьютера.
      * <p>
      * Бой происходит раундами. В каждом раунде обе армии формируют очереди ходов
-     * из живых юнитов, отсортированных по убыванию базовой атаки.
-     * Ходы выполняются поочерёдно: сначала ходит юнит игрока, затем юнит компьютера.
+     * из живых юнитов, отсортированных по убыванию базовой атаки (порядок при равной атаке
+     * задаётся {@link #setTurnOrder}). Ходы выполняются поочерёдно: сначала ходит юнит игрока,
+     * затем юнит компьютера.
      * <p>
      * Алгоритм:
      * Итеративная пошаговая симуляция боя с ленивым обновлением очередей ходов.
-     * Очереди формируются один раз при инициализации и пересортировываются только
-     * при гибели юнитов, что минимизирует количество операций сортировки.
+     * Очереди сортируются один раз при инициализации ({@link TurnScheduler}); базовая атака
+     * в бою не меняется, поэтому погибшие юниты лишь снимаются с битового набора очереди
+     * в начале следующего раунда, без пересортировки и изменения списков. Живые юниты армий
+     * учитываются счётчиками {@link AliveUnitTracker}, которые уменьшаются при гибели цели,
+     * поэтому проверка окончания боя выполняется за O(1).
      * <p>
-     * Алгоритмическая сложность: O(n^2 log n),
+     * Алгоритмическая сложность: O(n^2),
      * где n — Общее количество юнитов в армии.
      * <p>
      * Подробный анализ сложности:
-     * 1. Инициализация отсортированных списков: O(n log n)
-     * 2. Проверка наличия живых юнитов в армиях: O(n)
+     * 1. Инициализация отсортированных списков и счётчиков: O(n log n)
+     * 2. Проверка наличия живых юнитов в армиях: O(1)
      * 3. Внутренний цикл раунда (поочерёдные ходы): O(n)
-     * 4. Ленивое обновление списков при гибели юнитов: O(k log k), где k ≤ n - текущее количество живых юнитов
+     * 4. Ленивое снятие погибших юнитов с очередей в начале раунда: O(n)
+     * <p>
+     * Если задана {@link OccupancyGrid}, она обновляется за O(1) после каждой атаки,
+     * поэтому поиск пути не перестраивает множество препятствий.
      * <p>
      * Количество раундов в худшем случае: O(n)
      * <p>
      * Сложность одного раунда:
-     * O(n) + O(n) + O(k log k) = O(n log n) (в худшем случае k = n)
+     * O(n) + O(n) = O(n)
      * <p>
-     * Итоговая сложность: O(n log n) + O(n) * O(n log n) = O(n^2 * log n)
+     * Итоговая сложность: O(n log n) + O(n) * O(n) = O(n^2)
      * <p>
      * Реализация соответствует требованиям технического задания,
      * обеспечивает корректную очерёдность ходов команд и устойчиво работает
@@ -50,92 +145,175 @@ public class SimulateBattleImpl implements SimulateBattle {
      */
     @Override
     public void simulate(Army playerArmy, Army computerArmy) throws InterruptedException {
-        List<Unit> playerUnits = getAliveUnitsSorted(playerArmy);
-        List<Unit> computerUnits = getAliveUnitsSorted(computerArmy);
-        boolean isNeedUpdatePlayerUnits = false;
-        boolean isNeedUpdateComputeUnits = false;
-        while (hasAliveUnits(playerArmy) && hasAliveUnits(computerArmy)) {
-            if (playerUnits.isEmpty() || computerUnits.isEmpty()) {
-                break;
-            }
-            if (isNeedUpdatePlayerUnits) {
-                updateAliveUnits(playerUnits);
-                isNeedUpdatePlayerUnits = false;
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        roundCount = 0;
+        attackCount = 0;
+        turnCount = 0;
+        turnScheduler.reset(playerArmy, computerArmy);
+        resetIndexes(playerArmy, computerArmy);
+        BattleLifecycleListener lifecycle =
+                printBattleLog instanceof BattleLifecycleListener listener ? listener : null;
+        if (lifecycle != null) {
+            lifecycle.onBattleStart(playerArmy, computerArmy);
+        }
+        if (replayWriter != null) {
+            replayWriter.onBattleStart(playerArmy, computerArmy);
+        }
+        battlePlayerArmy = playerArmy;
+        battleComputerArmy = computerArmy;
+        try {
+            playRounds(playerArmy, computerArmy, false);
+            if (metrics.isEnabled()) {
+                metrics.recordBattle(System.nanoTime() - start, roundCount, turnCount, attackCount);
             }
-            if (isNeedUpdateComputeUnits) {
-                updateAliveUnits(computerUnits);
-                isNeedUpdateComputeUnits = false;
+        } finally {
+            battlePlayerArmy = null;
+            battleComputerArmy = null;
+            if (replayWriter != null) {
+                replayWriter.onBattleEnd();
             }
-            int playerIdx = 0;
-            int computerIdx = 0;
-            while (playerIdx < playerUnits.size() || computerIdx < computerUnits.size()) {
-                if (!hasAliveUnits(playerArmy) || !hasAliveUnits(computerArmy)) {
-                    break;
-                }
-                if (playerIdx < playerUnits.size()) {
-                    Unit attacker = playerUnits.get(playerIdx);
-                    playerIdx++;
-                    if (attacker.isAlive()) {
-                        Unit target = attacker.getProgram().attack();
-                        if (target != null && printBattleLog != null) {
-                            printBattleLog.printBattleLog(attacker, target);
-                        }
-                        if (target != null && !target.isAlive()) {
-                            isNeedUpdateComputeUnits = true;
-                        }
-                    }
-                }
-                if (!hasAliveUnits(playerArmy) || !hasAliveUnits(computerArmy)) {
-                    break;
-                }
-                if (computerIdx < computerUnits.size()) {
-                    Unit attacker = computerUnits.get(computerIdx);
-                    computerIdx++;
-                    if (attacker.isAlive()) {
-                        Unit target = attacker.getProgram().attack();
-                        if (target != null && printBattleLog != null) {
-                            printBattleLog.printBattleLog(attacker, target);
-                        }
-                        if (target != null && !target.isAlive()) {
-                            isNeedUpdatePlayerUnits = true;
-                        }
-                    }
-                }
+            if (lifecycle != null) {
+                lifecycle.onBattleEnd();
             }
         }
     }
 
-    private List<Unit> getAliveUnitsSorted(Army army) {
-        List<Unit> list = new ArrayList<>();
+    /**
+     * Снимает состояние текущего боя. Вызывается во время {@link #simulate} или {@link #resume} —
+     * из {@link AttackResolver} (снимок до хода текущего юнита, продолжение повторит его ход
+     * с тем способом выполнения, который будет задан к моменту продолжения) либо из журнала боя
+     * (снимок после хода).
+     *
+     * @throws IllegalStateException если бой не идёт
+     */
+    public BattleSnapshot snapshot() {
+        if (battlePlayerArmy == null) {
+            throw new IllegalStateException("No battle in progress");
+        }
+        return BattleSnapshot.capture(battlePlayerArmy, battleComputerArmy, turnScheduler.saveCursor(),
+                roundCount, turnPending ? turnCount - 1 : turnCount, attackCount, turnPending);
+    }
 
-        for (Unit u : army.getUnits()) {
-            if (u != null && u.isAlive()) {
-                list.add(u);
+    /**
+     * Продолжает бой с момента снимка: накладывает снимок на юнитов армий (исходных или копий
+     * того же состава), перестраивает счётчики и индексы поля и доигрывает бой до конца.
+     * Счётчики раундов и атак продолжаются со значений снимка. Журнал боя получает
+     * уведомления о начале и окончании, запись повтора не ведётся.
+     * <p>
+     * Алгоритмическая сложность: O(n) на восстановление плюс стоимость оставшейся части боя.
+     *
+     * @throws IllegalArgumentException если состав армий не совпадает со снимком
+     */
+    public void resume(BattleSnapshot snapshot, Army playerArmy, Army computerArmy) throws InterruptedException {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        snapshot.applyTo(playerArmy, computerArmy);
+        roundCount = snapshot.getRoundCount();
+        attackCount = snapshot.getAttackCount();
+        turnCount = snapshot.getTurnCount();
+        turnScheduler.restoreCursor(snapshot.getCursor(), playerArmy, computerArmy);
+        resetIndexes(playerArmy, computerArmy);
+        BattleLifecycleListener lifecycle =
+                printBattleLog instanceof BattleLifecycleListener listener ? listener : null;
+        if (lifecycle != null) {
+            lifecycle.onBattleStart(playerArmy, computerArmy);
+        }
+        BattleReplayWriter writer = replayWriter;
+        replayWriter = null;
+        battlePlayerArmy = playerArmy;
+        battleComputerArmy = computerArmy;
+        try {
+            if (snapshot.isTurnPending()) {
+                performTurn(playerArmy, computerArmy);
+            }
+            playRounds(playerArmy, computerArmy, true);
+            if (metrics.isEnabled()) {
+                metrics.recordBattle(System.nanoTime() - start, roundCount - snapshot.getRoundCount(),
+                        turnCount - snapshot.getTurnCount(), attackCount - snapshot.getAttackCount());
+            }
+        } finally {
+            battlePlayerArmy = null;
+            battleComputerArmy = null;
+            replayWriter = writer;
+            if (lifecycle != null) {
+                lifecycle.onBattleEnd();
             }
         }
-
-        list.sort(Comparator.comparingInt(Unit::getBaseAttack).reversed());
-
-        return list;
     }
 
-
-    private boolean hasAliveUnits(Army army) {
-        if (army == null || army.getUnits() == null) {
-            return false;
+    private void resetIndexes(Army playerArmy, Army computerArmy) {
+        aliveTracker.reset(playerArmy, computerArmy);
+        if (occupancyGrid != null) {
+            occupancyGrid.reset(playerArmy, computerArmy);
         }
+        if (boardIndex != null) {
+            boardIndex.reset(playerArmy, computerArmy);
+        }
+    }
 
-        for (Unit unit : army.getUnits()) {
-            if (unit != null && unit.isAlive()) {
-                return true;
+    /**
+     * Играет раунды до окончания боя; если roundStarted, сначала доигрывает текущий раунд.
+     */
+    private void playRounds(Army playerArmy, Army computerArmy, boolean roundStarted) throws InterruptedException {
+        if (roundStarted) {
+            playTurns(playerArmy, computerArmy);
+        }
+        while (aliveTracker.bothArmiesAlive()) {
+            if (roundCount == maxRounds) {
+                break;
             }
+            roundCount++;
+            turnScheduler.startRound();
+            playTurns(playerArmy, computerArmy);
         }
+    }
 
-        return false;
+    private void playTurns(Army playerArmy, Army computerArmy) throws InterruptedException {
+        while (aliveTracker.bothArmiesAlive() && turnScheduler.nextTurn()) {
+            performTurn(playerArmy, computerArmy);
+        }
     }
 
-    private void updateAliveUnits(List<Unit> units) {
-        units.removeIf(u -> !u.isAlive());
-        units.sort(Comparator.comparingInt(Unit::getBaseAttack).reversed());
+    private void performTurn(Army playerArmy, Army computerArmy) throws InterruptedException {
+        if (turnScheduler.isPlayerTurn()) {
+            performAttack(turnScheduler.getAttacker(), playerArmy, computerArmy, true);
+        } else {
+            performAttack(turnScheduler.getAttacker(), computerArmy, playerArmy, false);
+        }
+    }
+
+    private void performAttack(Unit attacker, Army allyArmy, Army enemyArmy, boolean isPlayerUnit)
+            throws InterruptedException {
+        int fromX = attacker.getxCoordinate();
+        int fromY = attacker.getyCoordinate();
+        turnCount++;
+        turnPending = true;
+        Unit target;
+        try {
+            target = attackResolver.attack(attacker, allyArmy, enemyArmy, isPlayerUnit);
+        } finally {
+            turnPending = false;
+        }
+        if (target != null) {
+            attackCount++;
+        }
+        boolean targetDied = target != null && !target.isAlive() && aliveTracker.onUnitDied(target);
+        if (occupancyGrid != null) {
+            occupancyGrid.onUnitMoved(attacker, fromX, fromY);
+            if (targetDied) {
+                occupancyGrid.onUnitDied(target);
+            }
+        }
+        if (boardIndex != null) {
+            boardIndex.onUnitMoved(attacker, fromX, fromY);
+            if (targetDied) {
+                boardIndex.onUnitDied(target);
+            }
+        }
+        if (replayWriter != null) {
+            replayWriter.onTurn(attacker, fromX, fromY, target);
+        }
+        if (target != null && printBattleLog != null) {
+            printBattleLog.printBattleLog(attacker, target);
+        }
     }
-}
\ No newline at end of file
+}
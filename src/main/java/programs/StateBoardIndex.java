@@ -0,0 +1,195 @@
+package programs;
+
+import java.util.Arrays;
+
+/**
+ * Индекс поля по колонкам для {@link BattleState} — аналог {@link BoardIndex} в номерах юнитов состояния.
+ * <p>
+ * Для каждой стороны и каждой колонки x хранится:
+ * - номера юнитов колонки по возрастанию, то есть в порядке армии, включая погибших;
+ * - битовая маска int, в которой бит y установлен, если в клетке (x, y) есть живой юнит стороны;
+ * - число живых юнитов колонки с координатой y вне диапазона [0, 31], которые в маску не помещаются.
+ * <p>
+ * Индекс строится по состоянию в начале боя ({@link #reset}) и обновляется инкрементально
+ * при гибели ({@link #onUnitDied}) и перемещении ({@link #onUnitChanged}) юнита, поэтому поиск целей
+ * просматривает только юнитов нужных колонок, а не всех юнитов стороны.
+ * Юниты с координатой x за пределами поля в индекс не попадают.
+ * <p>
+ * Алгоритмическая сложность:
+ * - заполнение: O(n + W), где n — количество юнитов состояния, W — ширина поля
+ * - гибель юнита: O(1)
+ * - перемещение юнита: O(k), где k — количество юнитов в колонке
+ * - маска колонки: O(1)
+ * <p>
+ * Экземпляр не потокобезопасен и принадлежит одному бою.
+ */
+public class StateBoardIndex {
+    private static final int MAX_MASK_Y = Integer.SIZE - 1;
+
+    private final int width;
+    private final int[][] cellCount;
+    private final int[][] columnMask;
+    private final int[][] outsideCount;
+    private final int[][] columnUnits;
+    private final int[] columnSize;
+    private BattleState state;
+
+    public StateBoardIndex() {
+        this(BoardGeometry.STANDARD);
+    }
+
+    public StateBoardIndex(BoardGeometry geometry) {
+        this.width = geometry.getWidth();
+        this.cellCount = new int[2][width * Integer.SIZE];
+        this.columnMask = new int[2][width];
+        this.outsideCount = new int[2][width];
+        this.columnUnits = new int[2 * width][];
+        this.columnSize = new int[2 * width];
+        Arrays.fill(columnUnits, new int[0]);
+    }
+
+    /**
+     * Заполняет индекс по состоянию боя; дальше признак жизни и координаты берутся из него.
+     */
+    public void reset(BattleState state) {
+        this.state = state;
+        for (int side = 0; side < 2; side++) {
+            Arrays.fill(cellCount[side], 0);
+            Arrays.fill(columnMask[side], 0);
+            Arrays.fill(outsideCount[side], 0);
+        }
+        Arrays.fill(columnSize, 0);
+        for (int i = 0; i < state.size(); i++) {
+            int x = state.getX(i);
+            if (isInside(x)) {
+                add(column(state.sideOf(i), x), i);
+                if (state.isAlive(i)) {
+                    occupy(state.sideOf(i), x, state.getY(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Снимает юнит с маски колонки. Вызывается один раз — в момент, когда состояние пометило юнит погибшим.
+     */
+    public void onUnitDied(int unit) {
+        int x = state.getX(unit);
+        if (isInside(x)) {
+            release(state.sideOf(unit), x, state.getY(unit));
+        }
+    }
+
+    /**
+     * Переносит юнит из клетки (fromX, fromY) в его текущие координаты состояния и обновляет маски
+     * по признаку жизни до изменения (wasAlive) и после него — например, после хода собственной программы.
+     */
+    public void onUnitChanged(int unit, int fromX, int fromY, boolean wasAlive) {
+        int side = state.sideOf(unit);
+        int toX = state.getX(unit);
+        if (wasAlive && isInside(fromX)) {
+            release(side, fromX, fromY);
+        }
+        if (fromX != toX) {
+            if (isInside(fromX)) {
+                remove(column(side, fromX), unit);
+            }
+            if (isInside(toX)) {
+                add(column(side, toX), unit);
+            }
+        }
+        if (state.isAlive(unit) && isInside(toX)) {
+            occupy(side, toX, state.getY(unit));
+        }
+    }
+
+    public BattleState getState() {
+        return state;
+    }
+
+    /**
+     * Маска живых юнитов стороны в колонке: бит y установлен, если клетка (x, y) занята живым юнитом.
+     */
+    public int getColumnMask(int side, int x) {
+        return columnMask[side][x];
+    }
+
+    /**
+     * Число живых юнитов стороны в колонке x с координатой y вне диапазона [0, 31].
+     */
+    public int getOutsideCount(int side, int x) {
+        return outsideCount[side][x];
+    }
+
+    /**
+     * Номера юнитов стороны в колонке x по возрастанию, включая погибших; действительны
+     * первые {@link #getColumnSize} элементов. Массив принадлежит индексу и не должен изменяться.
+     */
+    public int[] getColumnUnits(int side, int x) {
+        return columnUnits[column(side, x)];
+    }
+
+    public int getColumnSize(int side, int x) {
+        return columnSize[column(side, x)];
+    }
+
+    private boolean isInside(int x) {
+        return x >= 0 && x < width;
+    }
+
+    private int column(int side, int x) {
+        return side * width + x;
+    }
+
+    private void add(int column, int unit) {
+        int size = columnSize[column];
+        int[] units = columnUnits[column];
+        if (size == units.length) {
+            units = Arrays.copyOf(units, Math.max(4, size * 2));
+            columnUnits[column] = units;
+        }
+        int i = size;
+        while (i > 0 && units[i - 1] > unit) {
+            units[i] = units[i - 1];
+            i--;
+        }
+        units[i] = unit;
+        columnSize[column] = size + 1;
+    }
+
+    private void remove(int column, int unit) {
+        int size = columnSize[column];
+        int[] units = columnUnits[column];
+        for (int i = 0; i < size; i++) {
+            if (units[i] == unit) {
+                System.arraycopy(units, i + 1, units, i, size - i - 1);
+                columnSize[column] = size - 1;
+                return;
+            }
+        }
+    }
+
+    private void occupy(int side, int x, int y) {
+        if (y < 0 || y > MAX_MASK_Y) {
+            outsideCount[side][x]++;
+        } else if (cellCount[side][x * Integer.SIZE + y]++ == 0) {
+            columnMask[side][x] |= 1 << y;
+        }
+    }
+
+    private void release(int side, int x, int y) {
+        if (y < 0 || y > MAX_MASK_Y) {
+            if (outsideCount[side][x] > 0) {
+                outsideCount[side][x]--;
+            }
+            return;
+        }
+        int cell = x * Integer.SIZE + y;
+        if (cellCount[side][cell] == 0) {
+            return;
+        }
+        if (--cellCount[side][cell] == 0) {
+            columnMask[side][x] &= ~(1 << y);
+        }
+    }
+}
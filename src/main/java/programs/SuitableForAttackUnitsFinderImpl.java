@@ -9,6 +9,15 @@ import java.util.List;
 import java.util.Set;
 
 public class SuitableForAttackUnitsFinderImpl implements SuitableForAttackUnitsFinder {
+    private BattleMetrics metrics = BattleMetrics.NOOP;
+
+    /**
+     * Задаёт метрики: задержку каждого запроса и число найденных целей.
+     * По умолчанию — {@link BattleMetrics#NOOP}.
+     */
+    public void setMetrics(BattleMetrics metrics) {
+        this.metrics = metrics;
+    }
 
     /**
      * Определяет список юнитов противника, доступных для атаки в текущий момент.
@@ -45,6 +54,16 @@ public class SuitableForAttackUnitsFinderImpl implements SuitableForAttackUnitsF
      */
     @Override
     public List<Unit> getSuitableUnits(List<List<Unit>> unitsByRow, boolean isLeftArmyTarget) {
+        if (!metrics.isEnabled()) {
+            return findSuitableUnits(unitsByRow, isLeftArmyTarget);
+        }
+        long start = System.nanoTime();
+        List<Unit> suitableUnits = findSuitableUnits(unitsByRow, isLeftArmyTarget);
+        metrics.recordSuitableTargets(System.nanoTime() - start, suitableUnits.size());
+        return suitableUnits;
+    }
+
+    private List<Unit> findSuitableUnits(List<List<Unit>> unitsByRow, boolean isLeftArmyTarget) {
         List<Unit> suitableUnits = new ArrayList<>();
 
         if (unitsByRow == null || unitsByRow.isEmpty()) {
@@ -81,4 +100,39 @@ public class SuitableForAttackUnitsFinderImpl implements SuitableForAttackUnitsF
 
         return suitableUnits;
     }
+
+    /**
+     * Определяет доступные для атаки юниты армии side в колонках
+     * [firstColumn, firstColumn + columnCount) по индексу поля {@link BoardIndex}.
+     * <p>
+     * Результат и его порядок совпадают с {@link #getSuitableUnits(List, boolean)} для рядов,
+     * построенных из тех же колонок: колонки по возрастанию x, внутри колонки — порядок армии.
+     * <p>
+     * Алгоритм:
+     * 1. Маска живых юнитов колонки сдвигается на одну клетку в сторону прикрытия:
+     *    mask << 1 для цели слева (сосед y-1), mask >>> 1 для цели справа (сосед y+1).
+     * 2. Маска доступных клеток: mask & ~сдвинутая маска — одна операция на колонку.
+     * 3. В результат попадают живые юниты колонки, чья клетка есть в маске доступных.
+     * <p>
+     * Алгоритмическая сложность: O(c + k), где c — число колонок, k — число юнитов в них;
+     * без множеств координат и промежуточных списков.
+     */
+    public List<Unit> getSuitableUnits(BoardIndex board, int side, int firstColumn, int columnCount,
+                                       boolean isLeftArmyTarget) {
+        if (!metrics.isEnabled()) {
+            return findSuitableUnits(board, side, firstColumn, columnCount, isLeftArmyTarget);
+        }
+        long start = System.nanoTime();
+        List<Unit> suitableUnits = findSuitableUnits(board, side, firstColumn, columnCount, isLeftArmyTarget);
+        metrics.recordSuitableTargets(System.nanoTime() - start, suitableUnits.size());
+        return suitableUnits;
+    }
+
+    private List<Unit> findSuitableUnits(BoardIndex board, int side, int firstColumn, int columnCount,
+                                         boolean isLeftArmyTarget) {
+        List<Unit> suitableUnits = new ArrayList<>();
+        BitsetSuitableForAttackUnitsFinder.addSuitable(board, side, firstColumn, columnCount, isLeftArmyTarget,
+                suitableUnits);
+        return suitableUnits;
+    }
 }
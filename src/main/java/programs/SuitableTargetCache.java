@@ -0,0 +1,73 @@
+package programs;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш доступных для атаки целей на время, пока поле не менялось.
+ * <p>
+ * В одном бою направление атаки однозначно определяет армию-цель: цель слева
+ * ({@code isLeftArmyTarget = true}) — армия компьютера, цель справа — армия игрока.
+ * Поэтому кэш хранит по одному результату на направление вместе с версией поля,
+ * при которой он вычислен. Версию даёт источник, переданный в конструктор, например
+ * {@link BattleState#getVersion()} или {@link BoardIndex#getVersion()}. Любое перемещение или гибель
+ * юнита увеличивает версию, и запись становится недействительной; пока версия прежняя, все атакующие
+ * одной стороны в раунде используют один и тот же результат вместо повторного поиска.
+ * <p>
+ * Кэш используется только быстрой симуляцией: его заполняет {@link HeadlessAttackResolver}.
+ * В {@link SimulateBattleImpl} он не подключён, потому что цели там ищут сами программы библиотеки —
+ * своим экземпляром {@code SuitableForAttackUnitsFinder} по рядам, собранным из армий, без версии поля.
+ * <p>
+ * Сохранённые результаты не копируются: вызывающий код не должен их изменять
+ * (например, перемешивать) — для этого нужна собственная копия, как делает {@link HeadlessAttackResolver}.
+ * <p>
+ * Алгоритмическая сложность: проверка и запись — O(1).
+ * <p>
+ * Экземпляр не потокобезопасен и принадлежит одному бою.
+ *
+ * @param <T> тип результата поиска, например {@code List<Unit>} или {@code int[]}
+ */
+public class SuitableTargetCache<T> {
+    private final LongSupplier version;
+    private long leftVersion = -1L;
+    private long rightVersion = -1L;
+    private T leftTargets;
+    private T rightTargets;
+
+    private long hitCount;
+    private long missCount;
+
+    public SuitableTargetCache(LongSupplier version) {
+        this.version = version;
+    }
+
+    /**
+     * Возвращает сохранённые цели для направления или {@code null}, если поле изменилось.
+     */
+    public T get(boolean isLeftArmyTarget) {
+        long saved = isLeftArmyTarget ? leftVersion : rightVersion;
+        if (saved == version.getAsLong()) {
+            hitCount++;
+            return isLeftArmyTarget ? leftTargets : rightTargets;
+        }
+        missCount++;
+        return null;
+    }
+
+    public void put(boolean isLeftArmyTarget, T suitableUnits) {
+        if (isLeftArmyTarget) {
+            leftVersion = version.getAsLong();
+            leftTargets = suitableUnits;
+        } else {
+            rightVersion = version.getAsLong();
+            rightTargets = suitableUnits;
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+}
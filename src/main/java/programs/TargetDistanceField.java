@@ -0,0 +1,242 @@
+package programs;
+
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Edge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Поле расстояний от атакующего юнита до всех подходящих целей за один проход.
+ * <p>
+ * Вместо отдельного поиска A* для каждой цели из {@link SuitableForAttackUnitsFinderImpl}
+ * выполняется одна волна поиска в ширину (равномерная стоимость шага) от клетки атакующего
+ * по полю, размеры и правило перемещения которого задаёт {@link BoardGeometry}
+ * (по умолчанию — {@link BoardGeometry#STANDARD}). Живые юниты являются препятствиями; клетки целей
+ * достижимы как конечные точки, но волна через них не проходит — так же, как
+ * в {@link UnitTargetPathFinderImpl}, где свободной считается только клетка цели.
+ * Волна останавливается, как только достигнуты все цели.
+ * <p>
+ * Расстояние до цели равно числу шагов кратчайшего пути, то есть совпадает с длиной
+ * пути A* минус один. Сами пути кратчайшие, но при равной длине могут проходить
+ * через другие клетки, чем путь A*.
+ * <p>
+ * Алгоритмическая сложность: O(W * H + k),
+ * где W, H — размеры поля, k — количество целей.
+ * <p>
+ * Экземпляр не потокобезопасен; результаты действительны до следующего вызова
+ * {@link #computeDistances}.
+ */
+public class TargetDistanceField {
+    public static final int UNREACHABLE = -1;
+
+    private final BoardGeometry geometry;
+    private final int[] dx;
+    private final int[] dy;
+    private final OccupancyGrid occupancyGrid;
+    private final long[] blocked;
+    private final long[] targetBits;
+
+    private final int[] distance;
+    private final int[] parent;
+    private final int[] visitedStamp;
+    private final int[] queue;
+    private int stamp;
+
+    public TargetDistanceField() {
+        this(null);
+    }
+
+    /**
+     * Создаёт поле расстояний, которое берёт препятствия из общей сетки занятости боя
+     * и её геометрию поля.
+     */
+    public TargetDistanceField(OccupancyGrid occupancyGrid) {
+        this(occupancyGrid != null ? occupancyGrid.getGeometry() : BoardGeometry.STANDARD, occupancyGrid);
+    }
+
+    /**
+     * Создаёт поле расстояний для поля заданной геометрии; массивы выделяются один раз
+     * по числу клеток поля. Сетка занятости, если задана, должна быть построена для той же геометрии.
+     */
+    public TargetDistanceField(BoardGeometry geometry, OccupancyGrid occupancyGrid) {
+        if (occupancyGrid != null && occupancyGrid.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Occupancy grid geometry does not match the distance field geometry");
+        }
+        this.geometry = geometry;
+        this.dx = geometry.getMovement().dx();
+        this.dy = geometry.getMovement().dy();
+        this.occupancyGrid = occupancyGrid;
+        int cells = geometry.getCellCount();
+        this.blocked = new long[geometry.getBitsetWords()];
+        this.targetBits = new long[geometry.getBitsetWords()];
+        this.distance = new int[cells];
+        this.parent = new int[cells];
+        this.visitedStamp = new int[cells];
+        this.queue = new int[cells];
+    }
+
+    /**
+     * Вычисляет расстояния от атакующего юнита до каждой цели.
+     *
+     * @return массив расстояний, выровненный по списку целей; {@link #UNREACHABLE} для недостижимых
+     */
+    public int[] computeDistances(Unit attackUnit, List<Unit> targets, List<Unit> obstacles) {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitedStamp, 0);
+            stamp = 1;
+        }
+
+        int[] result = new int[targets == null ? 0 : targets.size()];
+        Arrays.fill(result, UNREACHABLE);
+        if (attackUnit == null || targets == null || targets.isEmpty()
+                || (obstacles == null && occupancyGrid == null)) {
+            return result;
+        }
+
+        int startX = attackUnit.getxCoordinate();
+        int startY = attackUnit.getyCoordinate();
+        if (!geometry.isInside(startX, startY)) {
+            return result;
+        }
+
+        long[] blockedBits = prepareBlocked(obstacles);
+        int remaining = markTargets(targets);
+        flood(geometry.cellIndex(startX, startY), blockedBits, remaining);
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getDistance(targets.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает ближайшую достижимую цель (при равенстве — первую по порядку списка)
+     * или {@code null}, если ни одна цель не достижима.
+     */
+    public Unit findNearest(Unit attackUnit, List<Unit> targets, List<Unit> obstacles) {
+        int[] distances = computeDistances(attackUnit, targets, obstacles);
+        Unit nearest = null;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] != UNREACHABLE && distances[i] < best) {
+                best = distances[i];
+                nearest = targets.get(i);
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Возвращает расстояние до юнита по результатам последнего вызова {@link #computeDistances}.
+     */
+    public int getDistance(Unit targetUnit) {
+        if (targetUnit == null) {
+            return UNREACHABLE;
+        }
+        int x = targetUnit.getxCoordinate();
+        int y = targetUnit.getyCoordinate();
+        if (!geometry.isInside(x, y)) {
+            return UNREACHABLE;
+        }
+        int cell = geometry.cellIndex(x, y);
+        return visitedStamp[cell] == stamp ? distance[cell] : UNREACHABLE;
+    }
+
+    /**
+     * Восстанавливает кратчайший путь до юнита по результатам последнего вызова
+     * {@link #computeDistances}. Путь начинается в клетке атакующего и заканчивается в клетке цели.
+     */
+    public List<Edge> getPath(Unit targetUnit) {
+        int length = getDistance(targetUnit);
+        if (length == UNREACHABLE) {
+            return Collections.emptyList();
+        }
+        Edge[] path = new Edge[length + 1];
+        int cell = geometry.cellIndex(targetUnit.getxCoordinate(), targetUnit.getyCoordinate());
+        for (int i = length; i >= 0; i--) {
+            path[i] = new Edge(geometry.cellX(cell), geometry.cellY(cell));
+            cell = parent[cell];
+        }
+        List<Edge> result = new ArrayList<>(path.length);
+        Collections.addAll(result, path);
+        return result;
+    }
+
+    private long[] prepareBlocked(List<Unit> obstacles) {
+        if (occupancyGrid != null) {
+            return occupancyGrid.getOccupiedBits();
+        }
+        Arrays.fill(blocked, 0L);
+        for (Unit u : obstacles) {
+            if (u != null && u.isAlive() && geometry.isInside(u.getxCoordinate(), u.getyCoordinate())) {
+                int cell = geometry.cellIndex(u.getxCoordinate(), u.getyCoordinate());
+                blocked[cell >>> 6] |= 1L << cell;
+            }
+        }
+        return blocked;
+    }
+
+    private int markTargets(List<Unit> targets) {
+        Arrays.fill(targetBits, 0L);
+        int count = 0;
+        for (Unit target : targets) {
+            if (target == null || !geometry.isInside(target.getxCoordinate(), target.getyCoordinate())) {
+                continue;
+            }
+            int cell = geometry.cellIndex(target.getxCoordinate(), target.getyCoordinate());
+            if (!GridPathEngine.isBlocked(targetBits, cell)) {
+                targetBits[cell >>> 6] |= 1L << cell;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void flood(int start, long[] blockedBits, int remaining) {
+        visitedStamp[start] = stamp;
+        distance[start] = 0;
+        parent[start] = -1;
+        if (GridPathEngine.isBlocked(targetBits, start) && --remaining == 0) {
+            return;
+        }
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = geometry.cellX(current);
+            int cy = geometry.cellY(current);
+            int nextDistance = distance[current] + 1;
+
+            for (int d = 0; d < dx.length; d++) {
+                int nx = cx + dx[d];
+                int ny = cy + dy[d];
+                if (!geometry.isInside(nx, ny)) continue;
+
+                int next = geometry.cellIndex(nx, ny);
+                if (visitedStamp[next] == stamp) continue;
+
+                boolean isTarget = GridPathEngine.isBlocked(targetBits, next);
+                boolean isBlocked = GridPathEngine.isBlocked(blockedBits, next);
+                if (isBlocked && !isTarget) continue;
+
+                visitedStamp[next] = stamp;
+                distance[next] = nextDistance;
+                parent[next] = current;
+
+                if (isTarget && --remaining == 0) {
+                    return;
+                }
+                if (!isBlocked) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Очередь ходов боя: армии сортируются один раз, погибшие юниты отбрасываются лениво.
+ * <p>
+ * Порядок ходов внутри армии задаёт компаратор. По умолчанию ({@link #BY_ATTACK_DESC}) юниты
+ * ходят по убыванию базовой атаки, а при равной атаке — в порядке следования в армии:
+ * сортировка устойчивая, поэтому любой компаратор дополняется порядком списка армии.
+ * Так порядок ходов полностью определяется входными армиями, и повтор боя воспроизводим.
+ * <p>
+ * Раунд строится так:
+ * 1. {@link #startRound()} снимает из битового набора очереди юнитов, погибших в прошлых раундах.
+ * 2. {@link #nextTurn()} поочерёдно выдаёт юнита игрока и юнита компьютера с одинаковым номером
+ *    в очереди; если очередь одной стороны закончилась, ходит только другая сторона.
+ * 3. Юнит, погибший в текущем раунде до своего хода, пропускает ход, но занимает свою позицию
+ *    в очереди, поэтому чередование сторон совпадает с чередованием по спискам, уплотнённым
+ *    в начале раунда.
+ * <p>
+ * Алгоритмическая сложность:
+ * - подготовка к бою: O(n log n), где n — количество юнитов обеих армий
+ * - начало раунда: O(n)
+ * - выдача хода: амортизированно O(1), без сортировок и изменения списков
+ * - сохранение позиции ({@link #saveCursor()}): O(n / 64), восстановление: O(n)
+ * <p>
+ * Позиция в очереди ({@link Cursor}) хранит порядок ходов как номера юнитов в списках армий,
+ * поэтому её можно восстановить и на копии армий с тем же составом.
+ * <p>
+ * После {@link #reset(Army, Army, BattleState)} очередь узнаёт о гибели юнитов из битового
+ * набора {@link BattleState}, а не из объектов {@link Unit}: так работает цикл
+ * {@link HeadlessBattleEngine}, который меняет только состояние. Номер атакующего в нумерации
+ * состояния возвращает {@link #getAttackerIndex()}.
+ * <p>
+ * Экземпляр не потокобезопасен и принадлежит одному бою.
+ */
+public class TurnScheduler {
+    /**
+     * По убыванию базовой атаки; при равенстве — в порядке следования в армии.
+     */
+    public static final Comparator<Unit> BY_ATTACK_DESC = Comparator.comparingInt(Unit::getBaseAttack).reversed();
+
+    private final Comparator<Unit> order;
+
+    private BattleState state;
+    private int playerCount;
+
+    private Unit[] playerOrder = new Unit[0];
+    private Unit[] computerOrder = new Unit[0];
+    private int[] playerIndexes = new int[0];
+    private int[] computerIndexes = new int[0];
+    private long[] playerBits = new long[0];
+    private long[] computerBits = new long[0];
+
+    private int playerCursor;
+    private int computerCursor;
+    private boolean playerNext;
+
+    private Unit attacker;
+    private int attackerSlot = -1;
+    private boolean playerTurn;
+
+    public TurnScheduler() {
+        this(BY_ATTACK_DESC);
+    }
+
+    public TurnScheduler(Comparator<Unit> order) {
+        this.order = order;
+    }
+
+    /**
+     * Сортирует живых юнитов обеих армий. Вызывается один раз в начале боя.
+     */
+    public void reset(Army playerArmy, Army computerArmy) {
+        reset(playerArmy, computerArmy, null);
+    }
+
+    /**
+     * Сортирует живых юнитов обеих армий; дальше признак жизни берётся из состояния боя,
+     * построенного по тем же армиям. При {@code state == null} — из юнитов армий.
+     */
+    public void reset(Army playerArmy, Army computerArmy, BattleState state) {
+        this.state = state;
+        playerCount = sizeOf(playerArmy);
+        playerIndexes = sortedAlive(playerArmy);
+        computerIndexes = sortedAlive(computerArmy);
+        playerOrder = unitsAt(playerArmy, playerIndexes);
+        computerOrder = unitsAt(computerArmy, computerIndexes);
+        playerBits = allSet(playerOrder.length);
+        computerBits = allSet(computerOrder.length);
+        attacker = null;
+        attackerSlot = -1;
+    }
+
+    public void startRound() {
+        dropDead(true);
+        dropDead(false);
+        playerCursor = 0;
+        computerCursor = 0;
+        playerNext = true;
+        attacker = null;
+        attackerSlot = -1;
+    }
+
+    /**
+     * Переходит к следующему ходу раунда.
+     *
+     * @return {@code false}, если ходы раунда закончились
+     */
+    public boolean nextTurn() {
+        while (true) {
+            int playerSlot = nextSetBit(playerBits, playerCursor, playerOrder.length);
+            int computerSlot = nextSetBit(computerBits, computerCursor, computerOrder.length);
+            if (playerSlot < 0 && computerSlot < 0) {
+                attacker = null;
+                attackerSlot = -1;
+                return false;
+            }
+
+            boolean player = playerNext ? playerSlot >= 0 : computerSlot < 0;
+            playerNext = !player;
+            int slot = player ? playerSlot : computerSlot;
+            if (player) {
+                playerCursor = slot + 1;
+            } else {
+                computerCursor = slot + 1;
+            }
+
+            if (isAlive(player, slot)) {
+                attacker = player ? playerOrder[slot] : computerOrder[slot];
+                attackerSlot = slot;
+                playerTurn = player;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Юнит, выполняющий текущий ход.
+     */
+    public Unit getAttacker() {
+        return attacker;
+    }
+
+    public boolean isPlayerTurn() {
+        return playerTurn;
+    }
+
+    /**
+     * Номер атакующего в нумерации {@link BattleState}: сначала юниты игрока, затем компьютера;
+     * -1, если хода нет.
+     */
+    public int getAttackerIndex() {
+        if (attackerSlot < 0) {
+            return -1;
+        }
+        return playerTurn ? playerIndexes[attackerSlot] : playerCount + computerIndexes[attackerSlot];
+    }
+
+    /**
+     * Сохраняет позицию в очереди: порядок ходов, выбывших юнитов и текущий ход раунда.
+     */
+    public Cursor saveCursor() {
+        return new Cursor(playerIndexes, computerIndexes, playerBits.clone(), computerBits.clone(),
+                playerCursor, computerCursor, playerNext, attackerSlot, playerTurn);
+    }
+
+    /**
+     * Восстанавливает позицию в очереди, сохранённую {@link #saveCursor()}, для армий
+     * с тем же составом — исходных или их копий.
+     *
+     * @throws IllegalArgumentException если порядок ходов ссылается на юнита вне армии
+     */
+    public void restoreCursor(Cursor cursor, Army playerArmy, Army computerArmy) {
+        state = null;
+        playerCount = sizeOf(playerArmy);
+        playerIndexes = cursor.playerIndexes;
+        computerIndexes = cursor.computerIndexes;
+        playerOrder = unitsAt(playerArmy, playerIndexes);
+        computerOrder = unitsAt(computerArmy, computerIndexes);
+        playerBits = cursor.playerBits.clone();
+        computerBits = cursor.computerBits.clone();
+        playerCursor = cursor.playerCursor;
+        computerCursor = cursor.computerCursor;
+        playerNext = cursor.playerNext;
+        playerTurn = cursor.playerTurn;
+        attackerSlot = cursor.attackerSlot;
+        if (attackerSlot < 0) {
+            attacker = null;
+        } else {
+            attacker = playerTurn ? playerOrder[attackerSlot] : computerOrder[attackerSlot];
+        }
+    }
+
+    /**
+     * @return номера живых юнитов армии в порядке ходов
+     */
+    private int[] sortedAlive(Army army) {
+        List<Integer> indexes = new ArrayList<>();
+        if (army != null && army.getUnits() != null) {
+            List<Unit> units = army.getUnits();
+            for (int i = 0; i < units.size(); i++) {
+                Unit unit = units.get(i);
+                if (unit != null && unit.isAlive()) {
+                    indexes.add(i);
+                }
+            }
+            indexes.sort((a, b) -> order.compare(units.get(a), units.get(b)));
+        }
+        int[] result = new int[indexes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = indexes.get(i);
+        }
+        return result;
+    }
+
+    private static int sizeOf(Army army) {
+        return army == null || army.getUnits() == null ? 0 : army.getUnits().size();
+    }
+
+    private static Unit[] unitsAt(Army army, int[] indexes) {
+        Unit[] units = new Unit[indexes.length];
+        if (indexes.length == 0) {
+            return units;
+        }
+        List<Unit> armyUnits = army.getUnits();
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] >= armyUnits.size()) {
+                throw new IllegalArgumentException("Turn order refers to unit " + indexes[i]
+                        + " of an army with " + armyUnits.size() + " units");
+            }
+            units[i] = armyUnits.get(indexes[i]);
+        }
+        return units;
+    }
+
+    private static long[] allSet(int size) {
+        long[] bits = new long[(size + 63) >>> 6];
+        for (int i = 0; i < size; i++) {
+            bits[i >>> 6] |= 1L << i;
+        }
+        return bits;
+    }
+
+    private void dropDead(boolean player) {
+        long[] bits = player ? playerBits : computerBits;
+        int size = player ? playerOrder.length : computerOrder.length;
+        for (int i = nextSetBit(bits, 0, size); i >= 0; i = nextSetBit(bits, i + 1, size)) {
+            if (!isAlive(player, i)) {
+                bits[i >>> 6] &= ~(1L << i);
+            }
+        }
+    }
+
+    private boolean isAlive(boolean player, int slot) {
+        if (state == null) {
+            return player ? playerOrder[slot].isAlive() : computerOrder[slot].isAlive();
+        }
+        return state.isAlive(player ? playerIndexes[slot] : playerCount + computerIndexes[slot]);
+    }
+
+    private static int nextSetBit(long[] bits, int from, int size) {
+        if (from >= size) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (current != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(current);
+                return index < size ? index : -1;
+            }
+            if (++word == bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+    }
+
+    /**
+     * Неизменяемая позиция в очереди ходов. Порядок ходов разделяется между позициями одного боя,
+     * копируются только битовые наборы выбывших юнитов.
+     */
+    public static final class Cursor {
+        private final int[] playerIndexes;
+        private final int[] computerIndexes;
+        private final long[] playerBits;
+        private final long[] computerBits;
+        private final int playerCursor;
+        private final int computerCursor;
+        private final boolean playerNext;
+        private final int attackerSlot;
+        private final boolean playerTurn;
+
+        private Cursor(int[] playerIndexes, int[] computerIndexes, long[] playerBits, long[] computerBits,
+                       int playerCursor, int computerCursor, boolean playerNext,
+                       int attackerSlot, boolean playerTurn) {
+            this.playerIndexes = playerIndexes;
+            this.computerIndexes = computerIndexes;
+            this.playerBits = playerBits;
+            this.computerBits = computerBits;
+            this.playerCursor = playerCursor;
+            this.computerCursor = computerCursor;
+            this.playerNext = playerNext;
+            this.attackerSlot = attackerSlot;
+            this.playerTurn = playerTurn;
+        }
+    }
+}
@@ -4,41 +4,92 @@ import com.battle.heroes.army.Unit;
 import com.battle.heroes.army.programs.Edge;
 import com.battle.heroes.army.programs.UnitTargetPathFinder;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class UnitTargetPathFinderImpl implements UnitTargetPathFinder {
-    private static final int WIDTH = 27;
-    private static final int HEIGHT = 21;
+    private final BoardGeometry geometry;
+    private final PathSearch engine;
+    private final OccupancyGrid occupancyGrid;
+    private final long[] obstacleBits;
+    private BattleMetrics metrics = BattleMetrics.NOOP;
+    private boolean searchRan;
+
+    public UnitTargetPathFinderImpl() {
+        this(null);
+    }
 
-    private static final int[][] DIRECTIONS = {
-            {-1, -1}, {-1, 0}, {-1, 1},
-            {0, -1}, {0, 1},
-            {1, -1}, {1, 0}, {1, 1}
-    };
+    /**
+     * Создаёт поиск пути, который берёт препятствия из общей сетки занятости боя
+     * вместо перебора переданного списка препятствий.
+     */
+    public UnitTargetPathFinderImpl(OccupancyGrid occupancyGrid) {
+        this(occupancyGrid, PathSearchMode.A_STAR);
+    }
+
+    /**
+     * Создаёт поиск пути с выбранным алгоритмом. Сетка занятости может быть {@code null} —
+     * тогда препятствия берутся из переданного в запрос списка.
+     */
+    public UnitTargetPathFinderImpl(OccupancyGrid occupancyGrid, PathSearchMode mode) {
+        this(occupancyGrid != null ? occupancyGrid.getGeometry() : BoardGeometry.STANDARD, occupancyGrid, mode);
+    }
+
+    /**
+     * Создаёт поиск пути для поля заданной геометрии (размеры и правило перемещения).
+     * Сетка занятости, если задана, должна быть построена для той же геометрии.
+     */
+    public UnitTargetPathFinderImpl(BoardGeometry geometry, OccupancyGrid occupancyGrid, PathSearchMode mode) {
+        if (occupancyGrid != null && occupancyGrid.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Occupancy grid geometry does not match the path finder geometry");
+        }
+        this.geometry = geometry;
+        this.occupancyGrid = occupancyGrid;
+        this.engine = mode.create(geometry);
+        this.obstacleBits = new long[geometry.getBitsetWords()];
+    }
+
+    /**
+     * Задаёт метрики: задержку каждого запроса, число раскрытых узлов, пиковый размер
+     * открытого множества и длину пути. По умолчанию — {@link BattleMetrics#NOOP}.
+     */
+    public void setMetrics(BattleMetrics metrics) {
+        this.metrics = metrics;
+    }
 
     /**
      * Определяет кратчайший маршрут между атакующим и атакуемым юнитом.
      * <p>
      * Метод находит кратчайший путь на игровом поле с учётом препятствий
-     * в виде других живых юнитов. Движение разрешено в 8 направлениях
-     * (горизонтально, вертикально и по диагоналям).
+     * в виде других живых юнитов. На стандартном поле 27x21 движение разрешено в 8 направлениях
+     * (горизонтально, вертикально и по диагоналям); размеры поля и правило перемещения
+     * (4 или 8 направлений) можно задать через {@link BoardGeometry}.
      * <p>
      * Алгоритм:
-     * Реализация алгоритма A* (A-star) для поиска пути на сетке.
+     * Реализация алгоритма A* (A-star) для поиска пути на сетке, выполняемая
+     * движком {@link GridPathEngine} без выделения памяти на каждый узел.
+     * В режиме {@link PathSearchMode#JUMP_POINT} вместо него используется
+     * {@link JumpPointSearchEngine}, в режиме {@link PathSearchMode#BIDIRECTIONAL} —
+     * {@link BidirectionalSearchEngine}; оба находят путь той же длины.
      * <p>
      * Основные шаги алгоритма:
      * 1. Инициализация начального узла с координатами атакующего юнита
-     * 2. Построение множества заблокированных клеток из списка препятствий
-     * 3. Итеративная обработка узлов из приоритетной очереди (открытого множества)
+     * 2. Заполнение битового набора заблокированных клеток из списка препятствий
+     *    (если задана {@link OccupancyGrid}, используется её готовый битовый набор, а недостижимая
+     *    цель отсекается за O(1) по разметке связных компонент свободных клеток, без запуска поиска)
+     * 3. Итеративная обработка узлов из примитивной двоичной кучи (открытого множества)
      * 4. Для каждого узла проверка всех 8 соседних клеток
-     * 5. Восстановление пути при достижении цели
+     * 5. Восстановление пути по массиву родителей при достижении цели
      * <p>
      * Алгоритмическая сложность: O(V * log V),
      * где V — максимальное количество посещаемых вершин (клеток поля).
      * <p>
      * Подробный анализ сложности:
-     * 1. Построение множества заблокированных клеток: O(n), где n — количество юнитов-препятствий
-     * 2. Инициализация структур данных: O(1)
+     * 1. Построение битового набора заблокированных клеток: O(n), где n — количество юнитов-препятствий,
+     *    или O(1) при использовании сетки занятости
+     * 2. Инициализация структур данных: O(1) (массивы переиспользуются, сброс — сменой метки поиска)
      * 3. Основной цикл A* в худшем случае посещает все клетки поля: O(W * H),
      * где W - ширина поля, H - высота поля
      * 4. Каждая операция с приоритетной очередью (вставка/извлечение): O(log V)
@@ -58,7 +109,19 @@ public class UnitTargetPathFinderImpl implements UnitTargetPathFinder {
      */
     @Override
     public List<Edge> getTargetPath(Unit attackUnit, Unit targetUnit, List<Unit> obstacles) {
+        if (!metrics.isEnabled()) {
+            return findTargetPath(attackUnit, targetUnit, obstacles);
+        }
+        long start = System.nanoTime();
+        searchRan = false;
+        List<Edge> path = findTargetPath(attackUnit, targetUnit, obstacles);
+        long nanos = System.nanoTime() - start;
+        metrics.recordPathSearch(nanos, searchRan ? engine.getExpandedNodes() : 0,
+                searchRan ? engine.getOpenSetPeak() : 0, path.size());
+        return path;
+    }
 
+    private List<Edge> findTargetPath(Unit attackUnit, Unit targetUnit, List<Unit> obstacles) {
         if (attackUnit == null || targetUnit == null || obstacles == null) {
             return Collections.emptyList();
         }
@@ -76,85 +139,37 @@ public class UnitTargetPathFinderImpl implements UnitTargetPathFinder {
             return List.of(new Edge(startX, startY));
         }
 
-        Set<String> blocked = new HashSet<>();
-        for (Unit u : obstacles) {
-            if (u != null && u.isAlive() && !(u.getxCoordinate() == targetX && u.getyCoordinate() == targetY)) {
-                blocked.add(u.getxCoordinate() + "," + u.getyCoordinate());
+        if (occupancyGrid != null) {
+            if (!occupancyGrid.isReachable(startX, startY, targetX, targetY)) {
+                return Collections.emptyList();
             }
+            searchRan = true;
+            int length = engine.findPath(startX, startY, targetX, targetY, occupancyGrid.getOccupiedBits());
+            return buildPath(length);
         }
 
-        PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingInt(n -> n.f));
-        Map<String, Node> all = new HashMap<>();
-
-        Node start = new Node(startX, startY, null, 0,
-                heuristic(startX, startY, targetX, targetY));
-
-        open.add(start);
-        all.put(start.key(), start);
-
-        while (!open.isEmpty()) {
-            Node current = open.poll();
-
-            if (current.x == targetX && current.y == targetY) {
-                return buildPath(current);
-            }
-
-            for (int[] d : DIRECTIONS) {
-                int nx = current.x + d[0];
-                int ny = current.y + d[1];
-
-                if (!isValid(nx, ny)) continue;
-                if (blocked.contains(nx + "," + ny)) continue;
-
-                int g = current.g + 1;
-                String key = nx + "," + ny;
-
-                Node next = all.get(key);
-                if (next == null || g < next.g) {
-                    int h = heuristic(nx, ny, targetX, targetY);
-                    Node node = new Node(nx, ny, current, g, g + h);
-                    all.put(key, node);
-                    open.add(node);
-                }
+        Arrays.fill(obstacleBits, 0L);
+        for (Unit u : obstacles) {
+            if (u != null && u.isAlive() && geometry.isInside(u.getxCoordinate(), u.getyCoordinate())) {
+                int cell = geometry.cellIndex(u.getxCoordinate(), u.getyCoordinate());
+                obstacleBits[cell >>> 6] |= 1L << cell;
             }
         }
 
-        return Collections.emptyList();
+        searchRan = true;
+        int length = engine.findPath(startX, startY, targetX, targetY, obstacleBits);
+        return buildPath(length);
     }
 
-    private int heuristic(int x, int y, int tx, int ty) {
-        return Math.max(Math.abs(x - tx), Math.abs(y - ty));
-    }
-
-    private List<Edge> buildPath(Node node) {
-        LinkedList<Edge> path = new LinkedList<>();
-        while (node != null) {
-            path.addFirst(new Edge(node.x, node.y));
-            node = node.parent;
-        }
-        return path;
-    }
-
-    private static class Node {
-        int x, y;
-        int g;
-        int f;
-        Node parent;
-
-        Node(int x, int y, Node parent, int g, int f) {
-            this.x = x;
-            this.y = y;
-            this.parent = parent;
-            this.g = g;
-            this.f = f;
+    private List<Edge> buildPath(int length) {
+        if (length == 0) {
+            return Collections.emptyList();
         }
-
-        String key() {
-            return x + "," + y;
+        List<Edge> path = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            int cell = engine.getPathCell(i);
+            path.add(new Edge(geometry.cellX(cell), geometry.cellY(cell)));
         }
-    }
-
-    private boolean isValid(int x, int y) {
-        return x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT;
+        return path;
     }
 }
@@ -0,0 +1,75 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AliveUnitTrackerTest {
+
+    private Unit createUnit(String name, boolean alive) {
+        Unit unit = new Unit(name, name, 10, 5, 0, "MELEE", new HashMap<>(), new HashMap<>(), 0, 0);
+        unit.setAlive(alive);
+        return unit;
+    }
+
+    private Army createArmy(int alive, int dead) {
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < alive; i++) {
+            units.add(createUnit("A" + i, true));
+        }
+        for (int i = 0; i < dead; i++) {
+            units.add(createUnit("D" + i, false));
+        }
+        return new Army(units);
+    }
+
+    @Test
+    void shouldCountOnlyAliveUnits() {
+        AliveUnitTracker tracker = new AliveUnitTracker();
+        tracker.reset(createArmy(3, 2), createArmy(70, 1));
+
+        assertEquals(3, tracker.getPlayerAliveCount());
+        assertEquals(70, tracker.getComputerAliveCount());
+        assertTrue(tracker.bothArmiesAlive());
+    }
+
+    @Test
+    void shouldCountEachDeathOnce() {
+        Army player = createArmy(1, 0);
+        Army computer = createArmy(2, 0);
+        AliveUnitTracker tracker = new AliveUnitTracker();
+        tracker.reset(player, computer);
+
+        Unit target = computer.getUnits().get(0);
+        target.setAlive(false);
+
+        assertTrue(tracker.onUnitDied(target));
+        assertFalse(tracker.onUnitDied(target), "Повторное уведомление не должно учитываться");
+        assertEquals(1, tracker.getComputerAliveCount());
+
+        player.getUnits().get(0).setAlive(false);
+        tracker.onUnitDied(player.getUnits().get(0));
+
+        assertFalse(tracker.bothArmiesAlive(), "Армия игрока должна считаться уничтоженной");
+    }
+
+    @Test
+    void shouldIgnoreUnknownAndInitiallyDeadUnits() {
+        Army player = createArmy(1, 1);
+        AliveUnitTracker tracker = new AliveUnitTracker();
+        tracker.reset(player, createArmy(1, 0));
+
+        assertFalse(tracker.onUnitDied(player.getUnits().get(1)));
+        assertFalse(tracker.onUnitDied(createUnit("X", false)));
+        assertFalse(tracker.onUnitDied(null));
+        assertEquals(1, tracker.getPlayerAliveCount());
+    }
+}
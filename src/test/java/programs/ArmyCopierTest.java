@@ -0,0 +1,49 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArmyCopierTest {
+
+    @Test
+    void shouldCopyAllUnitFieldsIndependently() {
+        Map<String, Double> bonuses = new HashMap<>();
+        bonuses.put("Knight", 1.5);
+        Unit unit = new Unit("Knight 1", "Knight", 100, 20, 30, "MELEE", bonuses, new HashMap<>(), 2, 7);
+        unit.setAlive(true);
+        Army army = new Army(new ArrayList<>(List.of(unit)));
+        army.setPoints(30);
+
+        Army copy = ArmyCopier.copy(army);
+        Unit copied = copy.getUnits().get(0);
+        copied.setHealth(1);
+        copied.getAttackBonuses().put("Archer", 2.0);
+
+        assertNotSame(unit, copied);
+        assertEquals(30, copy.getPoints());
+        assertEquals("Knight 1", copied.getName());
+        assertEquals("Knight", copied.getUnitType());
+        assertEquals(20, copied.getBaseAttack());
+        assertEquals(30, copied.getCost());
+        assertEquals(2, copied.getxCoordinate());
+        assertEquals(7, copied.getyCoordinate());
+        assertEquals(100, unit.getHealth(), "Изменение копии не должно затрагивать оригинал");
+        assertFalse(unit.getAttackBonuses().containsKey("Archer"));
+    }
+
+    @Test
+    void shouldKeepNullUnits() {
+        List<Unit> units = new ArrayList<>();
+        units.add(null);
+
+        assertNull(ArmyCopier.copy(new Army(units)).getUnits().get(0));
+    }
+}
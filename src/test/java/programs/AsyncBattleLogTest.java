@@ -0,0 +1,256 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Program;
+import com.battle.heroes.util.GameSpeedUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncBattleLogTest {
+
+    private Unit createUnit(String name, int hp, int atk) {
+        Unit unit = new Unit(name, name, hp, atk, 0, "MELEE", new HashMap<>(), new HashMap<>(), 0, 0);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    private static Army army(Unit... units) {
+        return new Army(new ArrayList<>(List.of(units)));
+    }
+
+    private static String[] lines(StringWriter out) {
+        String text = out.toString();
+        return text.isEmpty() ? new String[0] : text.split("\n");
+    }
+
+    /**
+     * Writer, который не принимает данные, пока тест не откроет защёлку. Все методы записи
+     * {@link Writer} (в том числе {@code append} и {@code write(String)}) сводятся
+     * к {@link #write(char[], int, int)}, поэтому поток записи останавливается на любом из них.
+     */
+    private static class GatedWriter extends Writer {
+        private final StringBuilder text = new StringBuilder();
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        @Override
+        public void write(char[] buffer, int off, int len) {
+            stalled.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (text) {
+                text.append(buffer, off, len);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Публикует одно событие и ждёт, пока поток записи заберёт его из буфера и остановится
+     * на записи: после этого буфер пуст и заполняется только событиями теста.
+     */
+    private static void stallWriter(AsyncBattleLog log, GatedWriter out, Unit attacker, Unit target)
+            throws InterruptedException {
+        log.printBattleLog(attacker, target);
+        assertTrue(out.stalled.await(10, TimeUnit.SECONDS), "Поток записи должен дойти до записи события");
+    }
+
+    @Test
+    void shouldWriteEventsWithDamageAndHealthInOrder() {
+        StringWriter out = new StringWriter();
+        Unit archer = createUnit("Archer 1", 50, 10);
+        Unit knight = createUnit("Knight 1", 100, 20);
+
+        try (AsyncBattleLog log = new AsyncBattleLog(out)) {
+            log.onBattleStart(army(archer), army(knight));
+            knight.setHealth(90);
+            log.printBattleLog(archer, knight);
+            archer.setHealth(30);
+            log.printBattleLog(knight, archer);
+            knight.setHealth(80);
+            log.printBattleLog(archer, knight);
+            log.onBattleEnd();
+
+            String[] lines = lines(out);
+            assertEquals(3, lines.length, "Все события должны быть выведены к концу боя");
+            assertEquals("[1] Archer 1 -> Knight 1: damage 10, health 90", lines[0]);
+            assertEquals("[2] Knight 1 -> Archer 1: damage 20, health 30", lines[1]);
+            assertEquals("[3] Archer 1 -> Knight 1: damage 10, health 80", lines[2]);
+            assertEquals(3, log.getWrittenCount());
+        }
+    }
+
+    @Test
+    void shouldMarkDamageOfUnregisteredUnitAsUnknown() {
+        StringWriter out = new StringWriter();
+        Unit archer = createUnit("Archer 1", 50, 10);
+        Unit knight = createUnit("Knight 1", 70, 20);
+
+        try (AsyncBattleLog log = new AsyncBattleLog(out)) {
+            log.printBattleLog(archer, knight);
+            log.flush();
+        }
+
+        assertEquals("[1] Archer 1 -> Knight 1: damage ?, health 70", lines(out)[0]);
+    }
+
+    @Test
+    void blockPolicyShouldKeepEveryEventWithSmallBuffer() {
+        StringWriter out = new StringWriter();
+        Unit attacker = createUnit("A", 100, 1);
+        Unit target = createUnit("T", 100_000, 1);
+
+        try (AsyncBattleLog log = new AsyncBattleLog(out, 4, BackPressurePolicy.BLOCK, 1)) {
+            log.onBattleStart(army(attacker), army(target));
+            for (int i = 0; i < 10_000; i++) {
+                target.setHealth(target.getHealth() - 1);
+                log.printBattleLog(attacker, target);
+            }
+            log.onBattleEnd();
+
+            String[] lines = lines(out);
+            assertEquals(10_000, lines.length);
+            assertEquals("[10000] A -> T: damage 1, health 90000", lines[9_999]);
+            assertEquals(0, log.getDroppedCount());
+        }
+    }
+
+    @Test
+    void dropPolicyShouldBoundBufferWhileWriterIsStalled() throws InterruptedException {
+        GatedWriter out = new GatedWriter();
+        Unit attacker = createUnit("A", 100, 1);
+        Unit target = createUnit("T", 100, 1);
+
+        try (AsyncBattleLog log = new AsyncBattleLog(out, 8, BackPressurePolicy.DROP, 1)) {
+            stallWriter(log, out, attacker, target);
+            for (int i = 0; i < 1_000; i++) {
+                log.printBattleLog(attacker, target);
+            }
+
+            assertEquals(1_000 - log.getCapacity(), log.getDroppedCount(),
+                    "При остановленной записи буфер не должен расти сверх ёмкости");
+
+            out.gate.countDown();
+            log.flush();
+
+            assertEquals(1 + log.getCapacity(), log.getWrittenCount());
+            assertEquals(1_001, log.getDroppedCount() + log.getWrittenCount(),
+                    "Каждое событие должно быть либо записано, либо отброшено");
+        }
+    }
+
+    @Test
+    void samplePolicyShouldKeepEveryNthEventUnderPressure() throws InterruptedException {
+        GatedWriter out = new GatedWriter();
+        Unit attacker = createUnit("A", 100, 1);
+        Unit target = createUnit("T", 100, 1);
+
+        try (AsyncBattleLog log = new AsyncBattleLog(out, 64, BackPressurePolicy.SAMPLE, 10)) {
+            stallWriter(log, out, attacker, target);
+            for (int i = 0; i < 200; i++) {
+                log.printBattleLog(attacker, target);
+            }
+            long droppedWhileStalled = log.getDroppedCount();
+
+            out.gate.countDown();
+            log.flush();
+
+            int half = log.getCapacity() / 2;
+            assertTrue(droppedWhileStalled > 0, "Под нагрузкой часть событий должна отбрасываться");
+            assertEquals(1 + half + (200 - half) / 10, log.getWrittenCount(),
+                    "Сверх половины буфера должно попадать каждое десятое событие");
+            assertEquals(201, log.getDroppedCount() + log.getWrittenCount());
+        }
+    }
+
+    @Test
+    void flushShouldReportWriterFailure() {
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] buffer, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Unit unit = createUnit("A", 10, 1);
+
+        AsyncBattleLog log = new AsyncBattleLog(failing);
+        log.printBattleLog(unit, unit);
+
+        assertThrows(UncheckedIOException.class, log::flush);
+    }
+
+    @Test
+    void simulationShouldFlushLogWhenBattleEnds() throws InterruptedException {
+        StringWriter out = new StringWriter();
+        Unit p = createUnit("P", 30, 10);
+        Unit c = createUnit("C", 20, 5);
+        Army playerArmy = army(p);
+        Army computerArmy = army(c);
+        p.setProgram(new FirstAliveProgram(p, playerArmy, computerArmy));
+        c.setProgram(new FirstAliveProgram(c, computerArmy, playerArmy));
+
+        SimulateBattleImpl simulator = new SimulateBattleImpl();
+        try (AsyncBattleLog log = new AsyncBattleLog(out)) {
+            simulator.setPrintBattleLog(log);
+            simulator.simulate(playerArmy, computerArmy);
+
+            String[] lines = lines(out);
+            assertEquals(simulator.getAttackCount(), lines.length,
+                    "К возврату из simulate журнал должен содержать все атаки боя");
+            assertEquals("[1] P -> C: damage 10, health 10", lines[0]);
+        }
+    }
+
+    private static class FirstAliveProgram extends Program {
+
+        FirstAliveProgram(Unit unit, Army allyArmy, Army enemyArmy) {
+            super(unit, allyArmy, enemyArmy, new GameSpeedUtil(5));
+        }
+
+        @Override
+        public Unit attack() {
+            for (Unit enemy : enemyArmy.getUnits()) {
+                if (enemy.isAlive()) {
+                    enemy.setHealth(enemy.getHealth() - unit.getBaseAttack());
+                    if (enemy.getHealth() <= 0) {
+                        enemy.setAlive(false);
+                    }
+                    return enemy;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package programs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BattleContextTest {
+
+    private List<Integer> numbers(int size) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    void sameSeedShouldProduceSameShuffle() {
+        List<Integer> first = numbers(50);
+        List<Integer> second = numbers(50);
+
+        BattleContext.seeded(11).shuffle(first);
+        BattleContext.seeded(11).shuffle(second);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shuffleShouldBePermutation() {
+        List<Integer> list = numbers(63);
+
+        BattleContext.seeded(3).shuffle(list);
+
+        assertEquals(63, new HashSet<>(list).size());
+        assertNotEquals(numbers(63), list);
+    }
+
+    @Test
+    void arrayShuffleShouldMatchListShuffle() {
+        List<Integer> list = numbers(40);
+        int[] array = new int[45];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i;
+        }
+        BattleContext listContext = BattleContext.seeded(17);
+        BattleContext arrayContext = BattleContext.seeded(17);
+
+        listContext.shuffle(list);
+        arrayContext.shuffle(array, 40);
+
+        for (int i = 0; i < 40; i++) {
+            assertEquals(list.get(i), array[i], "Массив должен перемешиваться так же, как список");
+        }
+        assertEquals(40, array[40], "Элементы за пределами n не трогаются");
+        assertEquals(listContext.nextInt(1000), arrayContext.nextInt(1000), "Расход случайных чисел должен совпадать");
+    }
+
+    @Test
+    void splitShouldBeReproducibleAndIndependent() {
+        BattleContext firstRoot = BattleContext.seeded(5);
+        BattleContext secondRoot = BattleContext.seeded(5);
+
+        BattleContext firstChild = firstRoot.split();
+        BattleContext secondChild = secondRoot.split();
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(firstChild.nextInt(1000), secondChild.nextInt(1000));
+        }
+        assertNotEquals(firstRoot.nextInt(Integer.MAX_VALUE), firstRoot.split().nextInt(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void streamsShouldDependOnlyOnSeedAndIndex() {
+        int later = BattleContext.forStream(9, 7).nextInt(Integer.MAX_VALUE);
+        BattleContext.forStream(9, 3).nextInt(Integer.MAX_VALUE);
+
+        assertEquals(later, BattleContext.forStream(9, 7).nextInt(Integer.MAX_VALUE));
+        assertNotEquals(later, BattleContext.forStream(9, 8).nextInt(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,311 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.PrintBattleLog;
+import com.battle.heroes.army.programs.UnitTargetPathFinder;
+import com.battle.heroes.army.programs.computer.ComputerKnightProgram;
+import com.battle.heroes.army.programs.user.UserKnightProgram;
+import com.battle.heroes.util.GameSpeedUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BattleReplayReaderTest {
+
+    /**
+     * Ход: атакующий делает шаг к противнику по оси X и бьёт первого живого врага.
+     */
+    private static final AttackResolver STEP_AND_HIT = (attacker, allyArmy, enemyArmy, isPlayerUnit) -> {
+        attacker.setxCoordinate(attacker.getxCoordinate() + (isPlayerUnit ? 1 : -1));
+        for (Unit enemy : enemyArmy.getUnits()) {
+            if (enemy.isAlive()) {
+                enemy.setHealth(enemy.getHealth() - attacker.getBaseAttack());
+                if (enemy.getHealth() <= 0) {
+                    enemy.setAlive(false);
+                }
+                return enemy;
+            }
+        }
+        return null;
+    };
+
+    private Unit createUnit(String name, String type, int hp, int atk, int x, int y) {
+        Map<String, Double> attackBonuses = new HashMap<>();
+        attackBonuses.put("Knight", 1.5);
+        Unit unit = new Unit(name, type, hp, atk, 10, "MELEE", attackBonuses, new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    private Army playerArmy() {
+        Army army = new Army(new ArrayList<>(List.of(
+                createUnit("Лучник 1", "Archer", 40, 7, 0, 3),
+                createUnit("Knight 1", "Knight", 90, 12, 1, 5),
+                createUnit("Pikeman 1", "Pikeman", 60, 9, 2, 8))));
+        army.setPoints(30);
+        return army;
+    }
+
+    private Army computerArmy() {
+        Army army = new Army(new ArrayList<>(List.of(
+                createUnit("Swordsman 1", "Swordsman", 70, 10, 26, 4),
+                createUnit("Knight 2", "Knight", 80, 11, 25, 9))));
+        army.setPoints(20);
+        return army;
+    }
+
+    private static void assertSameState(BattleState expected, BattleState actual, String message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int unit = 0; unit < expected.size(); unit++) {
+            assertEquals(expected.getHealth(unit), actual.getHealth(unit), message + ": здоровье юнита " + unit);
+            assertEquals(expected.getX(unit), actual.getX(unit), message + ": x юнита " + unit);
+            assertEquals(expected.getY(unit), actual.getY(unit), message + ": y юнита " + unit);
+            assertEquals(expected.isAlive(unit), actual.isAlive(unit), message + ": жизнь юнита " + unit);
+        }
+    }
+
+    @Test
+    void shouldRestoreFinalAndIntermediateStates() throws Exception {
+        Path file = Files.createTempFile("battle", ".replay");
+        try {
+            Army player = playerArmy();
+            Army computer = computerArmy();
+            BattleState initial = BattleState.of(player, computer);
+            Map<Integer, BattleState> snapshots = new HashMap<>();
+
+            try (BattleReplayWriter writer = new BattleReplayWriter(file)) {
+                SimulateBattleImpl simulator = new SimulateBattleImpl();
+                simulator.setAttackResolver(STEP_AND_HIT);
+                simulator.setReplayWriter(writer);
+                PrintBattleLog snapshotLog = (attacker, target) ->
+                        snapshots.put(writer.getTurn(), BattleState.of(player, computer));
+                simulator.setPrintBattleLog(snapshotLog);
+                simulator.simulate(player, computer);
+            }
+
+            try (BattleReplayReader reader = BattleReplayReader.open(file)) {
+                assertEquals(5, reader.getUnitCount());
+                assertFalse(snapshots.isEmpty(), "Бой должен состоять хотя бы из одного хода");
+                assertEquals(snapshots.size(), reader.getLastTurn(), "Каждый ход завершался атакой");
+                assertEquals(2 * reader.getLastTurn(), reader.getEventCount(),
+                        "На каждый ход — перемещение и атака");
+
+                assertSameState(initial, reader.stateAtTurn(0), "Ход 0");
+                assertSameState(BattleState.of(player, computer), reader.stateAtTurn(reader.getLastTurn()),
+                        "Последний ход");
+                for (Map.Entry<Integer, BattleState> snapshot : snapshots.entrySet()) {
+                    assertSameState(snapshot.getValue(), reader.stateAtTurn(snapshot.getKey()),
+                            "Ход " + snapshot.getKey());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private Army knightColumn(int x, int[] healths, int atk) {
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < healths.length; i++) {
+            units.add(createUnit("Knight " + x + "," + i, "Knight", healths[i], atk + i, x, 5 + i));
+        }
+        return new Army(units);
+    }
+
+    @Test
+    void shouldRecordPathsOfLibraryMeleePrograms() throws Exception {
+        Path file = Files.createTempFile("battle", ".replay");
+        try {
+            Army player = knightColumn(24, new int[]{40, 55, 30}, 12);
+            Army computer = knightColumn(2, new int[]{60, 35, 45}, 11);
+            BattleState initial = BattleState.of(player, computer);
+            Map<Integer, BattleState> snapshots = new HashMap<>();
+
+            try (BattleReplayWriter writer = new BattleReplayWriter(file)) {
+                GameSpeedUtil speed = new GameSpeedUtil(0);
+                UnitTargetPathFinder pathFinder = writer.recordPaths(new UnitTargetPathFinderImpl());
+                for (Unit unit : player.getUnits()) {
+                    unit.setProgram(new UserKnightProgram(unit, player, computer, speed,
+                            new SuitableForAttackUnitsFinderImpl(), pathFinder));
+                }
+                for (Unit unit : computer.getUnits()) {
+                    unit.setProgram(new ComputerKnightProgram(unit, computer, player, speed,
+                            new SuitableForAttackUnitsFinderImpl(), pathFinder));
+                }
+                SimulateBattleImpl simulator = new SimulateBattleImpl();
+                simulator.setReplayWriter(writer);
+                simulator.setPrintBattleLog((attacker, target) ->
+                        snapshots.put(writer.getTurn(), BattleState.of(player, computer)));
+                simulator.simulate(player, computer);
+            }
+
+            try (BattleReplayReader reader = BattleReplayReader.open(file)) {
+                int moves = 0;
+                int attacks = 0;
+                for (int event = 0; event < reader.getEventCount(); event++) {
+                    if (reader.getEventKind(event) == BattleReplayFormat.KIND_MOVE) {
+                        moves++;
+                    } else {
+                        attacks++;
+                    }
+                }
+                assertEquals(snapshots.size(), attacks, "Каждая атака должна попасть в повтор");
+                assertEquals(2 * attacks, moves, "Рыцарь идёт к цели по пути и возвращается на исходную клетку");
+
+                assertSameState(initial, reader.stateAtTurn(0), "Ход 0");
+                assertSameState(BattleState.of(player, computer), reader.stateAtTurn(reader.getLastTurn()),
+                        "Последний ход");
+                for (Map.Entry<Integer, BattleState> snapshot : snapshots.entrySet()) {
+                    assertSameState(snapshot.getValue(), reader.stateAtTurn(snapshot.getKey()),
+                            "Ход " + snapshot.getKey());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldContinueReplayFromReachedPosition() throws Exception {
+        Path file = Files.createTempFile("battle", ".replay");
+        try {
+            Army player = playerArmy();
+            Army computer = computerArmy();
+            try (BattleReplayWriter writer = new BattleReplayWriter(file)) {
+                SimulateBattleImpl simulator = new SimulateBattleImpl();
+                simulator.setAttackResolver(STEP_AND_HIT);
+                simulator.setReplayWriter(writer);
+                simulator.simulate(player, computer);
+            }
+
+            try (BattleReplayReader reader = BattleReplayReader.open(file)) {
+                BattleState state = reader.initialState();
+                int position = 0;
+                for (int turn = 1; turn <= reader.getLastTurn(); turn++) {
+                    int next = reader.eventIndexAfterTurn(turn);
+                    reader.apply(state, position, next);
+                    position = next;
+                    assertSameState(reader.stateAtTurn(turn), state, "Пошаговое воспроизведение, ход " + turn);
+                }
+                assertEquals(reader.getEventCount(), position);
+                assertEquals(0, reader.eventIndexAfterTurn(0));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldKeepUnitAttributesAndNames() throws Exception {
+        Path file = Files.createTempFile("battle", ".replay");
+        try {
+            Army player = playerArmy();
+            Army computer = computerArmy();
+            try (BattleReplayWriter writer = new BattleReplayWriter(file)) {
+                writer.onBattleStart(player, computer);
+            }
+
+            try (BattleReplayReader reader = BattleReplayReader.open(file)) {
+                assertEquals(0, reader.getEventCount());
+                assertEquals(0, reader.getLastTurn());
+                Army restored = reader.initialState().toPlayerArmy();
+                assertEquals(30, restored.getPoints());
+                Unit archer = restored.getUnits().get(0);
+                assertEquals("Лучник 1", archer.getName());
+                assertEquals("Archer", archer.getUnitType());
+                assertEquals("MELEE", archer.getAttackType());
+                assertEquals(1.5, archer.getAttackBonuses().get("Knight"));
+                assertEquals(10, archer.getCost());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldKeepMissingBonusMaps() throws Exception {
+        Path file = Files.createTempFile("battle", ".replay");
+        try {
+            Unit plain = new Unit("Swordsman 1", "Swordsman", 70, 10, 10, "MELEE", null, null, 26, 4);
+            plain.setAlive(true);
+            try (BattleReplayWriter writer = new BattleReplayWriter(file)) {
+                writer.onBattleStart(playerArmy(), new Army(new ArrayList<>(List.of(plain))));
+            }
+
+            try (BattleReplayReader reader = BattleReplayReader.open(file)) {
+                Unit restored = reader.initialState().toComputerArmy().getUnits().get(0);
+                assertNull(restored.getAttackBonuses(), "Отсутствующая карта бонусов не должна стать пустой");
+                assertNull(restored.getDefenceBonuses());
+                assertEquals(1.5, reader.initialState().toPlayerArmy().getUnits().get(0).getAttackBonuses().get("Knight"));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldReadUnfinishedReplayUpToWrittenRecords() throws Exception {
+        Path file = Files.createTempFile("battle", ".replay");
+        try {
+            Army player = playerArmy();
+            Army computer = computerArmy();
+            BattleReplayWriter writer = new BattleReplayWriter(file);
+            writer.onBattleStart(player, computer);
+            Unit archer = player.getUnits().get(0);
+            Unit swordsman = computer.getUnits().get(0);
+            archer.setxCoordinate(1);
+            swordsman.setHealth(63);
+            writer.onTurn(archer, 0, 3, swordsman);
+
+            try (BattleReplayReader unfinished = BattleReplayReader.open(file)) {
+                assertEquals(0, unfinished.getEventCount(), "Записи ещё в буфере и в файл не попали");
+            }
+            writer.close();
+
+            try (BattleReplayReader reader = BattleReplayReader.open(file)) {
+                assertEquals(2, reader.getEventCount());
+                assertEquals(1, reader.getLastTurn());
+                BattleState state = reader.stateAtTurn(1);
+                assertEquals(1, state.getX(0));
+                assertEquals(63, state.getHealth(3));
+                assertTrue(state.isAlive(3));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldRejectForeignFiles() throws Exception {
+        Path file = Files.createTempFile("battle", ".replay");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+            assertThrows(IOException.class, () -> BattleReplayReader.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldRejectSecondBattleInOneFile() throws Exception {
+        Path file = Files.createTempFile("battle", ".replay");
+        try (BattleReplayWriter writer = new BattleReplayWriter(file)) {
+            writer.onBattleStart(playerArmy(), computerArmy());
+            assertThrows(IllegalStateException.class, () -> writer.onBattleStart(playerArmy(), computerArmy()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BattleSnapshotTest {
+
+    /**
+     * Ход: атакующий делает шаг к противнику по оси X и бьёт живого врага с номером targetIndex
+     * (или первого живого, если этот уже погиб).
+     */
+    private static AttackResolver stepAndHit(int targetIndex) {
+        return (attacker, allyArmy, enemyArmy, isPlayerUnit) -> {
+            attacker.setxCoordinate(attacker.getxCoordinate() + (isPlayerUnit ? 1 : -1));
+            List<Unit> enemies = enemyArmy.getUnits();
+            Unit target = enemies.get(Math.min(targetIndex, enemies.size() - 1));
+            if (!target.isAlive()) {
+                target = null;
+                for (Unit enemy : enemies) {
+                    if (enemy.isAlive()) {
+                        target = enemy;
+                        break;
+                    }
+                }
+            }
+            if (target == null) {
+                return null;
+            }
+            target.setHealth(target.getHealth() - attacker.getBaseAttack());
+            if (target.getHealth() <= 0) {
+                target.setAlive(false);
+            }
+            return target;
+        };
+    }
+
+    /**
+     * Делегирует ход и снимает снимок боя перед атакой с заданным номером.
+     */
+    private static class SnapshotAt implements AttackResolver {
+        private final SimulateBattleImpl simulator;
+        private final AttackResolver delegate;
+        private final int attackNumber;
+        private int turns;
+        private BattleSnapshot snapshot;
+
+        SnapshotAt(SimulateBattleImpl simulator, AttackResolver delegate, int attackNumber) {
+            this.simulator = simulator;
+            this.delegate = delegate;
+            this.attackNumber = attackNumber;
+        }
+
+        @Override
+        public Unit attack(Unit attacker, Army allyArmy, Army enemyArmy, boolean isPlayerUnit)
+                throws InterruptedException {
+            if (++turns == attackNumber) {
+                snapshot = simulator.snapshot();
+            }
+            return delegate.attack(attacker, allyArmy, enemyArmy, isPlayerUnit);
+        }
+    }
+
+    private Unit createUnit(String name, int hp, int atk, int x, int y) {
+        Unit unit = new Unit(name, name, hp, atk, 10, "MELEE", new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    private Army playerArmy() {
+        return new Army(new ArrayList<>(List.of(
+                createUnit("P1", 40, 7, 0, 3),
+                createUnit("P2", 90, 12, 1, 5),
+                createUnit("P3", 60, 9, 2, 8))));
+    }
+
+    private Army computerArmy() {
+        return new Army(new ArrayList<>(List.of(
+                createUnit("C1", 70, 10, 26, 4),
+                createUnit("C2", 80, 11, 25, 9))));
+    }
+
+    private static String describe(Army playerArmy, Army computerArmy) {
+        StringBuilder result = new StringBuilder();
+        for (Army army : List.of(playerArmy, computerArmy)) {
+            for (Unit unit : army.getUnits()) {
+                result.append(unit.getName()).append(':').append(unit.getHealth()).append(',')
+                        .append(unit.getxCoordinate()).append(',').append(unit.getyCoordinate()).append(',')
+                        .append(unit.isAlive()).append(';');
+            }
+        }
+        return result.toString();
+    }
+
+    @Test
+    void shouldResumeToSameOutcomeAsUninterruptedBattle() throws InterruptedException {
+        Army player = playerArmy();
+        Army computer = computerArmy();
+        SimulateBattleImpl simulator = new SimulateBattleImpl();
+        SnapshotAt resolver = new SnapshotAt(simulator, stepAndHit(0), 7);
+        simulator.setAttackResolver(resolver);
+        simulator.setOccupancyGrid(new OccupancyGrid());
+        simulator.simulate(player, computer);
+        String finalState = describe(player, computer);
+        int rounds = simulator.getRoundCount();
+        int attacks = simulator.getAttackCount();
+
+        BattleSnapshot snapshot = resolver.snapshot;
+        assertNotNull(snapshot);
+        assertTrue(snapshot.isTurnPending(), "Снимок из AttackResolver снят до хода атакующего");
+        assertEquals(6, snapshot.getAttackCount());
+        assertEquals(5, snapshot.size());
+        assertEquals(3, snapshot.getPlayerCount());
+
+        simulator.setAttackResolver(stepAndHit(0));
+        simulator.resume(snapshot, player, computer);
+        assertEquals(finalState, describe(player, computer), "Продолжение со снимка повторяет исходный бой");
+        assertEquals(rounds, simulator.getRoundCount());
+        assertEquals(attacks, simulator.getAttackCount());
+    }
+
+    @Test
+    void shouldForkIndependentContinuationsOnArmyCopies() throws InterruptedException {
+        Army player = playerArmy();
+        Army computer = computerArmy();
+        SimulateBattleImpl simulator = new SimulateBattleImpl();
+        SnapshotAt resolver = new SnapshotAt(simulator, stepAndHit(0), 4);
+        simulator.setAttackResolver(resolver);
+        simulator.simulate(player, computer);
+        String baseline = describe(player, computer);
+        BattleSnapshot snapshot = resolver.snapshot;
+
+        SimulateBattleImpl fork = new SimulateBattleImpl();
+        fork.setAttackResolver(stepAndHit(1));
+        Army alternativePlayer = ArmyCopier.copy(player);
+        Army alternativeComputer = ArmyCopier.copy(computer);
+        fork.resume(snapshot, alternativePlayer, alternativeComputer);
+        String alternative = describe(alternativePlayer, alternativeComputer);
+        assertNotEquals(baseline, alternative, "Другой выбор цели меняет исход боя");
+
+        fork.setAttackResolver(stepAndHit(0));
+        Army samePlayer = ArmyCopier.copy(player);
+        Army sameComputer = ArmyCopier.copy(computer);
+        fork.resume(snapshot, samePlayer, sameComputer);
+        assertEquals(baseline, describe(samePlayer, sameComputer), "Продолжения из одного снимка не зависят друг от друга");
+        assertEquals(baseline, describe(player, computer), "Исходные армии не меняются");
+    }
+
+    @Test
+    void shouldKeepCompactUnitFields() throws InterruptedException {
+        Army player = playerArmy();
+        Army computer = computerArmy();
+        SimulateBattleImpl simulator = new SimulateBattleImpl();
+        SnapshotAt resolver = new SnapshotAt(simulator, stepAndHit(0), 1);
+        simulator.setAttackResolver(resolver);
+        simulator.simulate(player, computer);
+
+        BattleSnapshot snapshot = resolver.snapshot;
+        assertEquals(90, snapshot.getHealth(1));
+        assertEquals(1, snapshot.getX(1));
+        assertEquals(5, snapshot.getY(1));
+        assertTrue(snapshot.isAlive(4));
+        assertEquals(1, snapshot.getRoundCount());
+
+        snapshot.applyTo(player, computer);
+        assertEquals(90, player.getUnits().get(1).getHealth());
+        assertTrue(computer.getUnits().get(0).isAlive());
+        assertFalse(describe(player, computer).contains("false"), "Перед первым ходом все юниты живы");
+    }
+
+    @Test
+    void shouldRejectSnapshotOutsideBattleAndForeignArmies() throws InterruptedException {
+        SimulateBattleImpl simulator = new SimulateBattleImpl();
+        assertThrows(IllegalStateException.class, simulator::snapshot);
+
+        SnapshotAt resolver = new SnapshotAt(simulator, stepAndHit(0), 1);
+        simulator.setAttackResolver(resolver);
+        simulator.simulate(playerArmy(), computerArmy());
+        Army smallArmy = new Army(new ArrayList<>(List.of(createUnit("P1", 40, 7, 0, 3))));
+        assertThrows(IllegalArgumentException.class,
+                () -> simulator.resume(resolver.snapshot, smallArmy, computerArmy()));
+    }
+}
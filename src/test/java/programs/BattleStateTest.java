@@ -0,0 +1,164 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BattleStateTest {
+
+    private Army playerArmy;
+    private Army computerArmy;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Double> knightBonuses = new HashMap<>();
+        knightBonuses.put("Pikeman", 1.5);
+
+        List<Unit> player = new ArrayList<>();
+        player.add(createUnit("Knight 1", "Knight", 100, 40, 50, "MELEE", knightBonuses, 1, 2));
+        player.add(createUnit("Archer 1", "Archer", 50, 25, 20, "RANGED", new HashMap<>(), 0, 5));
+        playerArmy = new Army(player);
+        playerArmy.setPoints(70);
+
+        Map<String, Double> pikemanDefence = new HashMap<>();
+        pikemanDefence.put("Knight", 0.5);
+        List<Unit> computer = new ArrayList<>();
+        Unit dead = createUnit("Pikeman 1", "Pikeman", 0, 20, 40, "MELEE", new HashMap<>(), 25, 3);
+        dead.getDefenceBonuses().putAll(pikemanDefence);
+        dead.setAlive(false);
+        computer.add(dead);
+        computer.add(createUnit("Pikeman 2", "Pikeman", 60, 20, 40, "MELEE", new HashMap<>(), 26, 4));
+        computerArmy = new Army(computer);
+        computerArmy.setPoints(80);
+    }
+
+    private Unit createUnit(String name, String type, int hp, int atk, int cost, String attackType,
+                            Map<String, Double> attackBonuses, int x, int y) {
+        Unit unit = new Unit(name, type, hp, atk, cost, attackType, attackBonuses, new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    @Test
+    void shouldRoundTripArmiesWithoutLoss() {
+        BattleState state = BattleState.of(playerArmy, computerArmy);
+
+        assertSameArmy(playerArmy, state.toPlayerArmy());
+        assertSameArmy(computerArmy, state.toComputerArmy());
+    }
+
+    @Test
+    void shouldInternTypesAndResolveBonuses() {
+        BattleState state = BattleState.of(playerArmy, computerArmy);
+
+        int knight = state.getTypeId(0);
+        int pikeman = state.getTypeId(2);
+        assertEquals(3, state.getTypeCount());
+        assertEquals(pikeman, state.getTypeId(3));
+        assertEquals("Knight", state.getTypeName(knight));
+        assertEquals(1.5, state.getAttackBonus(knight, pikeman), 1e-9);
+        assertEquals(0.5, state.getDefenceBonus(pikeman, knight), 1e-9);
+        assertEquals(0.0, state.getAttackBonus(pikeman, knight), 1e-9);
+        assertEquals(state.getAttackTypeId(0), state.getAttackTypeId(3));
+    }
+
+    @Test
+    void shouldTrackAliveCountsPerSide() {
+        BattleState state = BattleState.of(playerArmy, computerArmy);
+
+        assertEquals(2, state.getAliveCount(BattleState.PLAYER));
+        assertEquals(1, state.getAliveCount(BattleState.COMPUTER));
+        assertFalse(state.isAlive(2));
+
+        assertFalse(state.applyDamage(3, 20));
+        assertTrue(state.applyDamage(3, 40), "Юнит должен погибнуть при здоровье не больше нуля");
+        assertFalse(state.applyDamage(3, 10), "Повторная гибель не должна учитываться");
+        assertEquals(0, state.getAliveCount(BattleState.COMPUTER));
+    }
+
+    @Test
+    void shouldApplyStateBackToOriginalUnits() {
+        BattleState state = BattleState.of(playerArmy, computerArmy);
+        state.moveTo(0, 23, 4);
+        state.applyDamage(3, 60);
+
+        state.applyTo(playerArmy, computerArmy);
+
+        Unit knight = playerArmy.getUnits().get(0);
+        assertEquals(23, knight.getxCoordinate());
+        assertEquals(4, knight.getyCoordinate());
+        assertEquals(0, computerArmy.getUnits().get(1).getHealth());
+        assertFalse(computerArmy.getUnits().get(1).isAlive());
+    }
+
+    @Test
+    void shouldReadUnitsBackAndBumpVersion() {
+        BattleState state = BattleState.of(playerArmy, computerArmy);
+        long version = state.getVersion();
+        Unit pikeman = computerArmy.getUnits().get(1);
+        pikeman.setHealth(0);
+        pikeman.setAlive(false);
+        playerArmy.getUnits().get(1).setxCoordinate(2);
+
+        state.readFrom(playerArmy, computerArmy);
+
+        assertFalse(state.isAlive(3));
+        assertEquals(0, state.getAliveCount(BattleState.COMPUTER));
+        assertEquals(2, state.getAliveCount(BattleState.PLAYER));
+        assertEquals(2, state.getX(1));
+        assertTrue(state.getVersion() > version, "Перечитывание должно менять версию состояния");
+    }
+
+    @Test
+    void shouldRejectArmiesOfAnotherSize() {
+        BattleState state = BattleState.of(playerArmy, computerArmy);
+
+        assertThrows(IllegalArgumentException.class, () -> state.applyTo(computerArmy, new Army(new ArrayList<>())));
+    }
+
+    @Test
+    void shouldShareMutableFieldsWithMutableState() {
+        BattleState state = BattleState.of(playerArmy, computerArmy);
+
+        state.applyDamage(3, 60);
+        state.moveTo(0, 20, 1);
+
+        MutableBattleState mutable = state.getMutableState();
+        assertFalse(mutable.isAlive(3));
+        assertEquals(20, mutable.getX(0));
+        assertEquals(state.getVersion(), mutable.getVersion());
+    }
+
+    private void assertSameArmy(Army expected, Army actual) {
+        assertEquals(expected.getPoints(), actual.getPoints());
+        assertEquals(expected.getUnits().size(), actual.getUnits().size());
+        for (int i = 0; i < expected.getUnits().size(); i++) {
+            Unit e = expected.getUnits().get(i);
+            Unit a = actual.getUnits().get(i);
+            assertNotSame(e, a);
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getUnitType(), a.getUnitType());
+            assertEquals(e.getHealth(), a.getHealth());
+            assertEquals(e.getBaseAttack(), a.getBaseAttack());
+            assertEquals(e.getCost(), a.getCost());
+            assertEquals(e.getAttackType(), a.getAttackType());
+            assertEquals(e.getAttackBonuses(), a.getAttackBonuses());
+            assertEquals(e.getDefenceBonuses(), a.getDefenceBonuses());
+            assertEquals(e.getxCoordinate(), a.getxCoordinate());
+            assertEquals(e.getyCoordinate(), a.getyCoordinate());
+            assertEquals(e.isAlive(), a.isAlive());
+        }
+    }
+}
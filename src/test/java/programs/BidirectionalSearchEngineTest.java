@@ -0,0 +1,91 @@
+package programs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class BidirectionalSearchEngineTest {
+    private static final BoardGeometry BOARD = BoardGeometry.STANDARD;
+
+    private final BidirectionalSearchEngine search = new BidirectionalSearchEngine();
+    private final GridPathEngine astar = new GridPathEngine();
+
+    private static void block(long[] bits, int x, int y) {
+        int cell = BOARD.cellIndex(x, y);
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    @Test
+    void shouldFindPathAcrossBoardFromOccupiedStart() {
+        long[] bits = new long[BOARD.getBitsetWords()];
+        block(bits, 1, 10);
+        block(bits, 25, 10);
+
+        assertEquals(25, search.findPath(1, 10, 25, 10, bits),
+                "Клетки атакующего и цели не должны считаться препятствиями");
+    }
+
+    @Test
+    void shouldReturnSingleCellForSameStartAndTarget() {
+        assertEquals(1, search.findPath(4, 4, 4, 4, new long[BOARD.getBitsetWords()]));
+        assertEquals(BOARD.cellIndex(4, 4), search.getPathCell(0));
+    }
+
+    @Test
+    void shouldReturnZeroForWalledOffTarget() {
+        long[] bits = new long[BOARD.getBitsetWords()];
+        for (int y = 0; y < BOARD.getHeight(); y++) {
+            block(bits, 13, y);
+        }
+
+        assertEquals(0, search.findPath(0, 0, 26, 20, bits));
+        assertEquals(0, search.getPathLength());
+    }
+
+    @Test
+    void shouldMatchAStarLengthOnRandomBoards() {
+        Random random = new Random(2);
+
+        for (int board = 0; board < 1000; board++) {
+            long[] bits = new long[BOARD.getBitsetWords()];
+            int obstacles = random.nextInt(400);
+            for (int i = 0; i < obstacles; i++) {
+                block(bits, random.nextInt(BOARD.getWidth()), random.nextInt(BOARD.getHeight()));
+            }
+
+            for (int query = 0; query < 10; query++) {
+                int sx = random.nextInt(3);
+                int sy = random.nextInt(BOARD.getHeight());
+                int tx = random.nextInt(BOARD.getWidth());
+                int ty = random.nextInt(BOARD.getHeight());
+                if (random.nextBoolean()) {
+                    block(bits, sx, sy);
+                }
+
+                int length = search.findPath(sx, sy, tx, ty, bits);
+                assertEquals(astar.findPath(sx, sy, tx, ty, bits), length, "Длина пути должна совпадать с A*");
+                if (length > 0) {
+                    assertValidPath(bits, length, BOARD.cellIndex(sx, sy), BOARD.cellIndex(tx, ty));
+                }
+            }
+        }
+    }
+
+    private void assertValidPath(long[] bits, int length, int start, int target) {
+        assertEquals(start, search.getPathCell(0));
+        assertEquals(target, search.getPathCell(length - 1));
+        for (int i = 1; i < length; i++) {
+            int prev = search.getPathCell(i - 1);
+            int cell = search.getPathCell(i);
+            int step = Math.max(Math.abs(BOARD.cellX(cell) - BOARD.cellX(prev)),
+                    Math.abs(BOARD.cellY(cell) - BOARD.cellY(prev)));
+            assertEquals(1, step, "Соседние клетки пути должны быть смежными");
+            if (i < length - 1) {
+                assertFalse(GridPathEngine.isBlocked(bits, cell), "Путь не должен проходить через препятствия");
+            }
+        }
+    }
+}
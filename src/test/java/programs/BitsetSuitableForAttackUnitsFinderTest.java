@@ -0,0 +1,139 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitsetSuitableForAttackUnitsFinderTest {
+
+    private final BitsetSuitableForAttackUnitsFinder finder = new BitsetSuitableForAttackUnitsFinder();
+    private final SuitableForAttackUnitsFinderImpl reference = new SuitableForAttackUnitsFinderImpl();
+
+    private Unit createUnit(String name, int x, int y, boolean alive) {
+        Unit unit = new Unit(name, name, 100, 10, 50, "MELEE", new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(alive);
+        return unit;
+    }
+
+    private List<List<Unit>> randomRows(Random random, int minY, int maxY) {
+        List<List<Unit>> rows = new ArrayList<>();
+        for (int x = 0; x < 3; x++) {
+            List<Unit> row = new ArrayList<>();
+            int count = random.nextInt(25);
+            for (int i = 0; i < count; i++) {
+                if (random.nextInt(20) == 0) {
+                    row.add(null);
+                } else {
+                    int y = minY + random.nextInt(maxY - minY + 1);
+                    row.add(createUnit("U" + x + "_" + i, x, y, random.nextInt(4) != 0));
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void shouldMatchReferenceFinderOnRandomRows() {
+        Random random = new Random(3);
+
+        for (int board = 0; board < 500; board++) {
+            List<List<Unit>> rows = randomRows(random, 0, 20);
+
+            for (boolean isLeftArmyTarget : new boolean[]{true, false}) {
+                assertEquals(reference.getSuitableUnits(rows, isLeftArmyTarget),
+                        finder.getSuitableUnits(rows, isLeftArmyTarget),
+                        "Битовый поиск должен возвращать те же юниты в том же порядке");
+            }
+        }
+    }
+
+    @Test
+    void shouldMatchReferenceFinderForCoordinatesOutsideMask() {
+        Random random = new Random(4);
+
+        for (int board = 0; board < 200; board++) {
+            List<List<Unit>> rows = randomRows(random, -3, 40);
+
+            for (boolean isLeftArmyTarget : new boolean[]{true, false}) {
+                assertEquals(reference.getSuitableUnits(rows, isLeftArmyTarget),
+                        finder.getSuitableUnits(rows, isLeftArmyTarget));
+            }
+        }
+    }
+
+    @Test
+    void shouldReuseOutputBuffer() {
+        List<List<Unit>> rows = new ArrayList<>();
+        rows.add(new ArrayList<>(List.of(createUnit("A", 0, 1, true), createUnit("B", 0, 2, true))));
+        List<Unit> out = new ArrayList<>();
+        out.add(createUnit("stale", 0, 0, true));
+
+        finder.getSuitableUnits(rows, true, out);
+
+        assertEquals(1, out.size(), "Буфер должен очищаться перед заполнением");
+        assertEquals("A", out.get(0).getName());
+
+        finder.getSuitableUnits(null, true, out);
+        assertTrue(out.isEmpty());
+    }
+
+    @Test
+    void boardIndexSearchShouldMatchReferenceFinder() {
+        Random random = new Random(5);
+
+        for (int board = 0; board < 200; board++) {
+            List<Unit> units = new ArrayList<>();
+            for (List<Unit> row : randomRows(random, 0, 20)) {
+                for (Unit unit : row) {
+                    if (unit != null) {
+                        units.add(unit);
+                    }
+                }
+            }
+            BoardIndex index = new BoardIndex();
+            index.reset(new Army(new ArrayList<>()), new Army(units));
+
+            for (boolean isLeftArmyTarget : new boolean[]{true, false}) {
+                assertEquals(reference.getSuitableUnits(index, BoardIndex.COMPUTER, 0, 3, isLeftArmyTarget),
+                        finder.getSuitableUnits(index, BoardIndex.COMPUTER, 0, 3, isLeftArmyTarget),
+                        "Поиск по маскам индекса должен совпадать с эталонным");
+            }
+        }
+    }
+
+    @Test
+    void stateSearchShouldMatchReferenceFinder() {
+        Random random = new Random(6);
+
+        for (int board = 0; board < 200; board++) {
+            List<List<Unit>> rows = randomRows(random, -3, 23);
+            List<Unit> units = new ArrayList<>();
+            for (List<Unit> row : rows) {
+                row.removeIf(unit -> unit == null);
+                units.addAll(row);
+            }
+            StateBoardIndex index = new StateBoardIndex();
+            index.reset(BattleState.of(new Army(new ArrayList<>()), new Army(units)));
+            int[] out = new int[units.size()];
+
+            for (boolean isLeftArmyTarget : new boolean[]{true, false}) {
+                int count = finder.getSuitableUnits(index, BattleState.COMPUTER, 0, 3, isLeftArmyTarget, out);
+                List<Unit> found = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    found.add(units.get(out[i]));
+                }
+                assertEquals(reference.getSuitableUnits(rows, isLeftArmyTarget), found,
+                        "Поиск по массивам состояния должен совпадать с эталонным");
+            }
+        }
+    }
+}
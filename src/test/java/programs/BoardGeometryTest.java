@@ -0,0 +1,52 @@
+package programs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardGeometryTest {
+
+    @Test
+    void standardGeometryShouldMatchOriginalBoard() {
+        BoardGeometry geometry = BoardGeometry.STANDARD;
+
+        assertEquals(27, geometry.getWidth());
+        assertEquals(21, geometry.getHeight());
+        assertEquals(3, geometry.getDeploymentColumns());
+        assertEquals(24, geometry.getRightZoneFirstColumn());
+        assertEquals((27 * 21 + 63) / 64, geometry.getBitsetWords());
+        assertEquals(3 * 27 + 5, geometry.cellIndex(5, 3), "Клетки стандартного поля должны нумероваться по строкам");
+    }
+
+    @Test
+    void shouldEncodeCellsOfLargeBoardRowByRow() {
+        BoardGeometry geometry = new BoardGeometry(200, 150, 10, MovementRule.EIGHT_NEIGHBOURS);
+        int cell = geometry.cellIndex(199, 149);
+
+        assertEquals(30000 - 1, cell);
+        assertEquals(199, geometry.cellX(cell));
+        assertEquals(149, geometry.cellY(cell));
+        assertEquals((30000 + 63) / 64, geometry.getBitsetWords());
+        assertTrue(geometry.isInside(199, 149));
+        assertFalse(geometry.isInside(200, 0));
+    }
+
+    @Test
+    void distanceShouldFollowMovementRule() {
+        BoardGeometry eight = new BoardGeometry(10, 10, 1, MovementRule.EIGHT_NEIGHBOURS);
+        BoardGeometry four = new BoardGeometry(10, 10, 1, MovementRule.FOUR_NEIGHBOURS);
+
+        assertEquals(4, eight.distance(0, 0, 4, 3), "Расстояние Чебышёва при движении в 8 направлениях");
+        assertEquals(7, four.distance(0, 0, 4, 3), "Манхэттенское расстояние при движении в 4 направлениях");
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new BoardGeometry(0, 10, 1, MovementRule.EIGHT_NEIGHBOURS));
+        assertThrows(IllegalArgumentException.class, () -> new BoardGeometry(10, 10, 11, MovementRule.EIGHT_NEIGHBOURS));
+        assertThrows(IllegalArgumentException.class, () -> new BoardGeometry(10, 10, 1, null));
+    }
+}
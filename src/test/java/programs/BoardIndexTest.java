@@ -0,0 +1,101 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardIndexTest {
+
+    private BoardIndex index;
+    private Unit first;
+    private Unit second;
+    private Unit enemy;
+
+    @BeforeEach
+    void setUp() {
+        first = createUnit("P1", 1, 2);
+        second = createUnit("P2", 1, 5);
+        enemy = createUnit("C1", 25, 5);
+        index = new BoardIndex();
+        index.reset(new Army(new ArrayList<>(List.of(first, second))), new Army(new ArrayList<>(List.of(enemy))));
+    }
+
+    private Unit createUnit(String name, int x, int y) {
+        Unit unit = new Unit(name, name, 10, 5, 0, "MELEE", new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    @Test
+    void shouldBuildColumnMasksPerArmy() {
+        assertEquals((1 << 2) | (1 << 5), index.getColumnMask(BoardIndex.PLAYER, 1));
+        assertEquals(1 << 5, index.getColumnMask(BoardIndex.COMPUTER, 25));
+        assertEquals(0, index.getColumnMask(BoardIndex.PLAYER, 25));
+        assertEquals(List.of(first, second), index.getColumnUnits(BoardIndex.PLAYER, 1));
+    }
+
+    @Test
+    void shouldUpdateMaskOnDeath() {
+        long version = index.getVersion();
+        second.setAlive(false);
+        index.onUnitDied(second);
+
+        assertEquals(1 << 2, index.getColumnMask(BoardIndex.PLAYER, 1));
+        assertEquals(List.of(first, second), index.getColumnUnits(BoardIndex.PLAYER, 1),
+                "Погибший юнит остаётся в списке колонки, как в getUnitsByRow");
+        assertTrue(index.getVersion() > version);
+    }
+
+    @Test
+    void shouldMoveUnitKeepingArmyOrder() {
+        first.setxCoordinate(2);
+        first.setyCoordinate(7);
+        index.onUnitMoved(first, 1, 2);
+        second.setxCoordinate(2);
+        index.onUnitMoved(second, 1, 5);
+        second.setxCoordinate(1);
+        index.onUnitMoved(second, 2, 5);
+        second.setxCoordinate(2);
+        index.onUnitMoved(second, 1, 5);
+
+        assertEquals(0, index.getColumnMask(BoardIndex.PLAYER, 1));
+        assertEquals((1 << 7) | (1 << 5), index.getColumnMask(BoardIndex.PLAYER, 2));
+        assertEquals(List.of(first, second), index.getColumnUnits(BoardIndex.PLAYER, 2));
+    }
+
+    @Test
+    void shouldCountStackedUnitsInOneCell() {
+        Unit stacked = createUnit("P3", 1, 5);
+        index.reset(new Army(new ArrayList<>(List.of(second, stacked))), new Army(new ArrayList<>()));
+
+        stacked.setAlive(false);
+        index.onUnitDied(stacked);
+
+        assertEquals(1 << 5, index.getColumnMask(BoardIndex.PLAYER, 1), "Клетка занята вторым живым юнитом");
+    }
+
+    @Test
+    void shouldIndexColumnsOfWideBoard() {
+        BoardIndex wide = new BoardIndex(new BoardGeometry(60, 10, 5, MovementRule.EIGHT_NEIGHBOURS));
+        Unit far = createUnit("C2", 57, 9);
+        wide.reset(new Army(new ArrayList<>(List.of(first))), new Army(new ArrayList<>(List.of(far))));
+
+        assertEquals(1 << 9, wide.getColumnMask(BoardIndex.COMPUTER, 57));
+        assertEquals(List.of(far), wide.getColumnUnits(BoardIndex.COMPUTER, 57));
+    }
+
+    @Test
+    void shouldRejectBoardTallerThanColumnMask() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoardIndex(new BoardGeometry(27, 33, 3, MovementRule.EIGHT_NEIGHBOURS)));
+    }
+}
@@ -0,0 +1,118 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class CachingGeneratePresetTest {
+
+    private CachingGeneratePreset cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CachingGeneratePreset(new GeneratePresetImpl(BattleContext.seeded(5)), 2);
+    }
+
+    private List<Unit> catalogue() {
+        List<Unit> units = new ArrayList<>();
+        units.add(createUnit("ARCHER", 50, 25, 20));
+        units.add(createUnit("SWORDSMAN", 80, 30, 30));
+        units.add(createUnit("KNIGHT", 100, 40, 50));
+        return units;
+    }
+
+    private Unit createUnit(String type, int hp, int atk, int cost) {
+        Unit unit = new Unit(type, type, hp, atk, cost, "MELEE", new HashMap<>(), new HashMap<>(), 0, 0);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    @Test
+    void shouldServeEqualCatalogueFromCache() {
+        Army first = cache.generate(catalogue(), 500);
+        Army second = cache.generate(catalogue(), 500);
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+        assertEquals(first.getPoints(), second.getPoints());
+        assertEquals(first.getUnits().size(), second.getUnits().size());
+        for (int i = 0; i < first.getUnits().size(); i++) {
+            assertEquals(first.getUnits().get(i).getName(), second.getUnits().get(i).getName(),
+                    "Состав армии из кэша должен совпадать");
+            assertNotSame(first.getUnits().get(i), second.getUnits().get(i), "Юниты должны создаваться заново");
+        }
+    }
+
+    @Test
+    void shouldMissWhenBudgetOrTemplateChanges() {
+        cache.generate(catalogue(), 500);
+        cache.generate(catalogue(), 600);
+
+        List<Unit> changed = catalogue();
+        changed.get(0).setHealth(51);
+        cache.generate(changed, 500);
+
+        List<Unit> withBonus = catalogue();
+        withBonus.get(1).getAttackBonuses().put("KNIGHT", 1.5);
+        cache.generate(withBonus, 500);
+
+        assertEquals(4, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        cache.generate(catalogue(), 100);
+        cache.generate(catalogue(), 200);
+        cache.generate(catalogue(), 100);
+        cache.generate(catalogue(), 300);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.generate(catalogue(), 100);
+        assertEquals(2, cache.getHitCount(), "Недавно использованная запись должна остаться в кэше");
+    }
+
+    @Test
+    void shouldNotBeAffectedByLaterTemplateMutation() {
+        List<Unit> units = catalogue();
+        cache.generate(units, 500);
+        units.get(0).getAttackBonuses().put("KNIGHT", 2.0);
+
+        cache.generate(catalogue(), 500);
+
+        assertEquals(1, cache.getHitCount(), "Ключ кэша не должен зависеть от изменений исходных карт бонусов");
+    }
+
+    @Test
+    void shouldRecordEveryPresetInGeneratorMetrics() {
+        GeneratePresetImpl generator = new GeneratePresetImpl(BattleContext.seeded(5));
+        MetricsRegistry registry = new MetricsRegistry();
+        generator.setMetrics(registry);
+        CachingGeneratePreset metered = new CachingGeneratePreset(generator, 2);
+
+        Army first = metered.generate(catalogue(), 500);
+        metered.generate(catalogue(), 500);
+
+        Histogram units = registry.getHistogram("preset.units");
+        assertEquals(2, units.getTotalCount(), "Пресеты из кэша и при промахе должны попадать в метрики");
+        assertEquals(first.getUnits().size(), units.getMax());
+    }
+
+    @Test
+    void shouldHashEqualCataloguesEqually() {
+        assertEquals(CachingGeneratePreset.hash(catalogue(), 500), CachingGeneratePreset.hash(catalogue(), 500));
+        assertNotEquals(CachingGeneratePreset.hash(catalogue(), 500), CachingGeneratePreset.hash(catalogue(), 501));
+    }
+}
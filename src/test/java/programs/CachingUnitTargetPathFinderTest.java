@@ -0,0 +1,167 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Edge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingUnitTargetPathFinderTest {
+
+    private OccupancyGrid grid;
+    private CachingUnitTargetPathFinder finder;
+    private List<Unit> units;
+
+    @BeforeEach
+    void setUp() {
+        grid = new OccupancyGrid();
+        finder = new CachingUnitTargetPathFinder(new UnitTargetPathFinderImpl(grid), grid, 2);
+        units = new ArrayList<>();
+    }
+
+    private Unit createUnit(int x, int y) {
+        Unit unit = new Unit(
+                "SWORDSMAN",
+                "SWORDSMAN",
+                100,
+                10,
+                50,
+                "MELEE",
+                new HashMap<>(),
+                new HashMap<>(),
+                x, y
+        );
+        unit.setAlive(true);
+        units.add(unit);
+        return unit;
+    }
+
+    private void resetGrid() {
+        grid.reset(new Army(units), new Army());
+    }
+
+    @Test
+    void shouldReturnCachedPathWhileBoardIsUnchanged() {
+        Unit attacker = createUnit(0, 0);
+        Unit target = createUnit(5, 5);
+        resetGrid();
+
+        List<Edge> first = finder.getTargetPath(attacker, target, units);
+        List<Edge> second = finder.getTargetPath(attacker, target, units);
+
+        assertSame(first, second);
+        assertEquals(1, finder.getMissCount());
+        assertEquals(1, finder.getHitCount());
+    }
+
+    @Test
+    void shouldMissAfterBoardVersionChanges() {
+        Unit attacker = createUnit(0, 0);
+        Unit target = createUnit(2, 0);
+        Unit wall = createUnit(1, 0);
+        createUnit(1, 1);
+        createUnit(0, 1);
+        resetGrid();
+
+        List<Edge> blocked = finder.getTargetPath(attacker, target, units);
+        wall.setAlive(false);
+        grid.onUnitDied(wall);
+        List<Edge> opened = finder.getTargetPath(attacker, target, units);
+
+        assertTrue(blocked.isEmpty());
+        assertEquals(3, opened.size(), "После гибели юнита путь должен пересчитываться");
+        assertEquals(2, finder.getMissCount());
+        assertEquals(0, finder.getHitCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        Unit attacker = createUnit(0, 0);
+        Unit first = createUnit(3, 3);
+        Unit second = createUnit(6, 6);
+        Unit third = createUnit(9, 9);
+        resetGrid();
+
+        finder.getTargetPath(attacker, first, units);
+        finder.getTargetPath(attacker, second, units);
+        finder.getTargetPath(attacker, first, units);
+        finder.getTargetPath(attacker, third, units);
+
+        assertEquals(1, finder.getEvictionCount());
+        assertEquals(2, finder.size());
+
+        finder.getTargetPath(attacker, first, units);
+        assertEquals(2, finder.getHitCount(), "Недавно использованная запись не должна вытесняться");
+    }
+
+    @Test
+    void shouldCacheUnreachableTargets() {
+        Unit attacker = createUnit(0, 0);
+        Unit target = createUnit(2, 0);
+        createUnit(1, 0);
+        createUnit(1, 1);
+        createUnit(0, 1);
+        resetGrid();
+
+        assertTrue(finder.getTargetPath(attacker, target, units).isEmpty());
+        assertTrue(finder.getTargetPath(attacker, target, units).isEmpty());
+        assertEquals(1, finder.getHitCount());
+    }
+
+    @Test
+    void cachedPathShouldBeImmutable() {
+        Unit attacker = createUnit(0, 0);
+        Unit target = createUnit(3, 0);
+        resetGrid();
+
+        List<Edge> path = finder.getTargetPath(attacker, target, units);
+
+        assertThrows(UnsupportedOperationException.class, () -> path.add(new Edge(1, 1)));
+        assertThrows(UnsupportedOperationException.class, () -> path.get(0).setX(5));
+        assertThrows(UnsupportedOperationException.class, () -> path.get(0).setY(5));
+    }
+
+    @Test
+    void shouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingUnitTargetPathFinder(new UnitTargetPathFinderImpl(grid), grid, 0));
+    }
+
+    @Test
+    void shouldReturnEmptyListForNullArguments() {
+        assertTrue(finder.getTargetPath(null, createUnit(1, 1), units).isEmpty());
+        assertEquals(0, finder.getMissCount());
+    }
+
+    @Test
+    void shouldCacheQueriesOnLargeBoard() {
+        BoardGeometry geometry = new BoardGeometry(200, 150, 10, MovementRule.EIGHT_NEIGHBOURS);
+        OccupancyGrid largeGrid = new OccupancyGrid(geometry);
+        CachingUnitTargetPathFinder largeFinder = new CachingUnitTargetPathFinder(
+                new UnitTargetPathFinderImpl(largeGrid), largeGrid, 4);
+        Unit attacker = createUnit(5, 140);
+        Unit target = createUnit(190, 10);
+        largeGrid.reset(new Army(units), new Army());
+
+        List<Edge> first = largeFinder.getTargetPath(attacker, target, units);
+        List<Edge> second = largeFinder.getTargetPath(attacker, target, units);
+
+        assertEquals(186, first.size());
+        assertSame(first, second, "Запрос за пределами поля 27x21 должен обслуживаться из кэша");
+        assertEquals(1, largeFinder.getHitCount());
+    }
+
+    @Test
+    void shouldRejectBoardTooLargeForKey() {
+        OccupancyGrid hugeGrid = new OccupancyGrid(new BoardGeometry(2000, 1000, 3, MovementRule.EIGHT_NEIGHBOURS));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingUnitTargetPathFinder(new UnitTargetPathFinderImpl(hugeGrid), hugeGrid, 4));
+    }
+}
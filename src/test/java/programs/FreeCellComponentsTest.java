@@ -0,0 +1,121 @@
+package programs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FreeCellComponentsTest {
+
+    private BoardGeometry geometry = BoardGeometry.STANDARD;
+    private long[] bits = new long[geometry.getBitsetWords()];
+    private FreeCellComponents components = new FreeCellComponents(geometry, bits);
+
+    private void useGeometry(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.bits = new long[geometry.getBitsetWords()];
+        this.components = new FreeCellComponents(geometry, bits);
+    }
+
+    private void occupy(int x, int y) {
+        int cell = geometry.cellIndex(x, y);
+        if (!GridPathEngine.isBlocked(bits, cell)) {
+            bits[cell >>> 6] |= 1L << cell;
+            components.onCellOccupied(cell);
+        }
+    }
+
+    private void free(int x, int y) {
+        int cell = geometry.cellIndex(x, y);
+        if (GridPathEngine.isBlocked(bits, cell)) {
+            bits[cell >>> 6] &= ~(1L << cell);
+            components.onCellFreed(cell);
+        }
+    }
+
+    private boolean isReachable(int sx, int sy, int tx, int ty) {
+        return components.isReachable(geometry.cellIndex(sx, sy), geometry.cellIndex(tx, ty));
+    }
+
+    @Test
+    void shouldDetectWallAndOpeningInIt() {
+        for (int y = 0; y < geometry.getHeight(); y++) {
+            occupy(13, y);
+        }
+
+        assertFalse(isReachable(0, 10, 26, 10), "Стена через всё поле должна разделять компоненты");
+
+        free(13, 20);
+
+        assertTrue(isReachable(0, 10, 26, 10), "Проход в стене должен соединять компоненты");
+
+        occupy(13, 20);
+
+        assertFalse(isReachable(0, 10, 26, 10), "Закрытый проход снова должен разделять компоненты");
+    }
+
+    @Test
+    void shouldTreatAdjacentCellsAsReachableEvenWhenSurrounded() {
+        for (int dx = -1; dx <= 2; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                occupy(5 + dx, 5 + dy);
+            }
+        }
+
+        assertTrue(isReachable(5, 5, 6, 5), "Соседние клетки атакующего и цели всегда достижимы");
+        assertFalse(isReachable(5, 5, 20, 5));
+    }
+
+    @Test
+    void diagonalWallShouldSeparateOnlyFourNeighbourBoards() {
+        for (MovementRule movement : MovementRule.values()) {
+            useGeometry(new BoardGeometry(10, 10, 2, movement));
+            for (int i = 0; i < 10; i++) {
+                occupy(i, 9 - i);
+            }
+
+            assertEquals(movement == MovementRule.EIGHT_NEIGHBOURS, isReachable(0, 0, 9, 9),
+                    "Диагональная стена проходима только при движении в 8 направлениях: " + movement);
+        }
+    }
+
+    @Test
+    void shouldMatchPathSearchUnderRandomIncrementalUpdates() {
+        checkRandomUpdates(new Random(19), 20000);
+    }
+
+    @Test
+    void shouldMatchPathSearchOnFourNeighbourBoard() {
+        useGeometry(new BoardGeometry(40, 30, 3, MovementRule.FOUR_NEIGHBOURS));
+
+        checkRandomUpdates(new Random(20), 20000);
+    }
+
+    private void checkRandomUpdates(Random random, int steps) {
+        GridPathEngine astar = new GridPathEngine(geometry);
+
+        for (int step = 0; step < steps; step++) {
+            int x = random.nextInt(geometry.getWidth());
+            int y = random.nextInt(geometry.getHeight());
+            if (random.nextInt(10) < 6) {
+                occupy(x, y);
+            } else {
+                free(x, y);
+            }
+
+            if (step % 10 == 0) {
+                int sx = random.nextInt(geometry.getWidth());
+                int sy = random.nextInt(geometry.getHeight());
+                int tx = random.nextInt(geometry.getWidth());
+                int ty = random.nextInt(geometry.getHeight());
+                boolean expected = astar.findPath(sx, sy, tx, ty, bits) > 0;
+
+                assertEquals(expected, isReachable(sx, sy, tx, ty),
+                        "Достижимость должна совпадать с результатом поиска пути на шаге " + step);
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -69,6 +70,16 @@ class GeneratePresetImplTest {
         );
     }
 
+    @Test
+    void shouldGenerateEmptyArmyForNegativeBudget() {
+        for (PresetStrategy strategy : List.of(new GreedyPresetStrategy(), KnapsackPresetStrategy.totalAttack())) {
+            Army army = new GeneratePresetImpl(BattleContext.seeded(1), strategy).generate(unitList, -100);
+
+            assertTrue(army.getUnits().isEmpty(), "При отрицательном лимите армия должна быть пустой");
+            assertEquals(0, army.getPoints());
+        }
+    }
+
     @Test
     void shouldRespectMaxUnitsPerType() {
         Army army = generator.generate(unitList, 1500);
@@ -122,4 +133,62 @@ class GeneratePresetImplTest {
             assertTrue(unit.isAlive(), "Юнит должен быть живым");
         }
     }
+
+    @Test
+    void sameSeedShouldProduceSamePositions() {
+        Army first = new GeneratePresetImpl(BattleContext.seeded(17)).generate(unitList, 1500);
+        Army second = new GeneratePresetImpl(BattleContext.seeded(17)).generate(unitList, 1500);
+
+        for (int i = 0; i < first.getUnits().size(); i++) {
+            assertEquals(first.getUnits().get(i).getxCoordinate(), second.getUnits().get(i).getxCoordinate());
+            assertEquals(first.getUnits().get(i).getyCoordinate(), second.getUnits().get(i).getyCoordinate());
+        }
+    }
+
+    @Test
+    void shouldPlaceUnitsInDeploymentZoneOfCustomBoard() {
+        BoardGeometry geometry = new BoardGeometry(200, 150, 2, MovementRule.EIGHT_NEIGHBOURS);
+        GeneratePresetImpl largeBoardGenerator =
+                new GeneratePresetImpl(BattleContext.seeded(3), new GreedyPresetStrategy(), geometry);
+
+        Army army = largeBoardGenerator.generate(unitList, 1500);
+        Set<Integer> cells = new HashSet<>();
+
+        for (Unit unit : army.getUnits()) {
+            assertTrue(unit.getxCoordinate() >= 0 && unit.getxCoordinate() < 2, "Юнит вне зоны развёртывания по X");
+            assertTrue(unit.getyCoordinate() >= 0 && unit.getyCoordinate() < 150, "Юнит вне поля по Y");
+            cells.add(geometry.cellIndex(unit.getxCoordinate(), unit.getyCoordinate()));
+        }
+        assertEquals(army.getUnits().size(), cells.size(), "Юниты не должны занимать одну клетку");
+    }
+
+    @Test
+    void shouldGenerateAllBudgetsMatchingSingleCalls() {
+        int[] budgets = new int[31];
+        for (int i = 0; i < budgets.length; i++) {
+            budgets[i] = 500 + i * 50;
+        }
+        GeneratePresetImpl batchGenerator = new GeneratePresetImpl(BattleContext.seeded(5));
+
+        PresetBatch batch = batchGenerator.generateAll(unitList, budgets);
+
+        assertEquals(budgets.length, batch.size());
+        for (int i = 0; i < budgets.length; i++) {
+            assertEquals(budgets[i], batch.getBudget(i));
+            PresetComposition expected = batchGenerator.compose(unitList, budgets[i]);
+            PresetComposition actual = batch.getComposition(i);
+            assertEquals(expected.size(), actual.size());
+            for (int t = 0; t < expected.size(); t++) {
+                assertTrue(expected.getTemplate(t) == actual.getTemplate(t), "Порядок шаблонов совпадает");
+                assertEquals(expected.getCount(t), actual.getCount(t), "Жадный состав совпадает, лимит " + budgets[i]);
+            }
+        }
+
+        Army first = batch.materialize(budgets.length - 1);
+        Army second = batch.materialize(budgets.length - 1);
+        assertEquals(batch.getComposition(budgets.length - 1).getUnitCount(), first.getUnits().size());
+        assertEquals(batch.getComposition(budgets.length - 1).getPoints(), first.getPoints());
+        assertTrue(first.getPoints() <= 2000);
+        assertFalse(first.getUnits().get(0) == second.getUnits().get(0), "Каждая армия создаётся заново");
+    }
 }
@@ -0,0 +1,163 @@
+package programs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridPathEngineTest {
+    private static final BoardGeometry BOARD = BoardGeometry.STANDARD;
+
+    private GridPathEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GridPathEngine();
+    }
+
+    @Test
+    void shouldEncodeCellsRowByRow() {
+        int cell = BOARD.cellIndex(5, 3);
+
+        assertEquals(3 * 27 + 5, cell);
+        assertEquals(5, BOARD.cellX(cell));
+        assertEquals(3, BOARD.cellY(cell));
+    }
+
+    @Test
+    void shouldReturnSingleCellPathForSameStartAndTarget() {
+        assertEquals(1, engine.findPath(4, 4, 4, 4));
+        assertEquals(BOARD.cellIndex(4, 4), engine.getPathCell(0));
+    }
+
+    @Test
+    void shouldReturnZeroWhenTargetIsOutsideField() {
+        assertEquals(0, engine.findPath(0, 0, 27, 0));
+        assertEquals(0, engine.findPath(0, 0, 0, 21));
+    }
+
+    @Test
+    void shouldTreatTargetCellAsFreeEvenIfBlocked() {
+        engine.block(3, 0);
+
+        assertEquals(4, engine.findPath(0, 0, 3, 0));
+    }
+
+    @Test
+    void shouldUnblockCell() {
+        engine.block(1, 0);
+        engine.block(1, 1);
+        engine.block(0, 1);
+        assertEquals(0, engine.findPath(0, 0, 2, 2));
+
+        engine.unblock(1, 1);
+
+        assertEquals(3, engine.findPath(0, 0, 2, 2));
+    }
+
+    @Test
+    void shouldMatchReferenceAStarOnRandomBoards() {
+        Random random = new Random(42);
+
+        for (int board = 0; board < 300; board++) {
+            Set<String> blocked = new HashSet<>();
+            engine.clearBlocked();
+            int obstacles = random.nextInt(250);
+            for (int i = 0; i < obstacles; i++) {
+                int x = random.nextInt(BOARD.getWidth());
+                int y = random.nextInt(BOARD.getHeight());
+                blocked.add(x + "," + y);
+                engine.block(x, y);
+            }
+
+            for (int query = 0; query < 10; query++) {
+                int sx = random.nextInt(BOARD.getWidth());
+                int sy = random.nextInt(BOARD.getHeight());
+                int tx = random.nextInt(BOARD.getWidth());
+                int ty = random.nextInt(BOARD.getHeight());
+
+                List<int[]> expected = referencePath(sx, sy, tx, ty, blocked);
+                int length = engine.findPath(sx, sy, tx, ty);
+
+                assertEquals(expected.size(), length, "Длина пути должна совпадать с эталонным A*");
+                for (int i = 0; i < length; i++) {
+                    int cell = engine.getPathCell(i);
+                    assertEquals(expected.get(i)[0], BOARD.cellX(cell), "Путь должен совпадать клетка в клетку");
+                    assertEquals(expected.get(i)[1], BOARD.cellY(cell), "Путь должен совпадать клетка в клетку");
+                }
+            }
+        }
+    }
+
+    /**
+     * Исходная реализация A* на объектах узлов и строковых ключах, используемая как эталон.
+     */
+    private List<int[]> referencePath(int sx, int sy, int tx, int ty, Set<String> blockedCells) {
+        List<int[]> path = new ArrayList<>();
+        if (sx == tx && sy == ty) {
+            path.add(new int[]{sx, sy});
+            return path;
+        }
+        Set<String> blocked = new HashSet<>(blockedCells);
+        blocked.remove(tx + "," + ty);
+
+        PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingInt(n -> n.f));
+        Map<String, Node> all = new HashMap<>();
+        Node start = new Node(sx, sy, null, 0, Math.max(Math.abs(sx - tx), Math.abs(sy - ty)));
+        open.add(start);
+        all.put(sx + "," + sy, start);
+
+        while (!open.isEmpty()) {
+            Node current = open.poll();
+            if (current.x == tx && current.y == ty) {
+                for (Node n = current; n != null; n = n.parent) {
+                    path.add(0, new int[]{n.x, n.y});
+                }
+                return path;
+            }
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if (dx == 0 && dy == 0) continue;
+                    int nx = current.x + dx;
+                    int ny = current.y + dy;
+                    if (!BOARD.isInside(nx, ny)) continue;
+                    String key = nx + "," + ny;
+                    if (blocked.contains(key)) continue;
+                    int g = current.g + 1;
+                    Node next = all.get(key);
+                    if (next == null || g < next.g) {
+                        Node node = new Node(nx, ny, current, g, g + Math.max(Math.abs(nx - tx), Math.abs(ny - ty)));
+                        all.put(key, node);
+                        open.add(node);
+                    }
+                }
+            }
+        }
+        return path;
+    }
+
+    private static class Node {
+        int x, y;
+        int g;
+        int f;
+        Node parent;
+
+        Node(int x, int y, Node parent, int g, int f) {
+            this.x = x;
+            this.y = y;
+            this.parent = parent;
+            this.g = g;
+            this.f = f;
+        }
+    }
+}
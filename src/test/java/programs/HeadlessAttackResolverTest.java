@@ -0,0 +1,93 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Program;
+import com.battle.heroes.util.GameSpeedUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeadlessAttackResolverTest {
+
+    private Unit createUnit(String type, int x, int y) {
+        Unit unit = new Unit(type + " " + x + "," + y, type, 50, 10, 10, "MELEE",
+                new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    @Test
+    void customProgramTurnShouldUpdateOnlyAttackerAndTarget() throws InterruptedException {
+        Unit stepper = createUnit("Stepper", 5, 5);
+        Unit target = createUnit("Knight", 8, 5);
+        Unit bystander = createUnit("Knight", 9, 9);
+        Army player = new Army(new ArrayList<>(List.of(stepper)));
+        Army computer = new Army(new ArrayList<>(List.of(target, bystander)));
+        stepper.setProgram(new StepAndStrikeProgram(stepper, player, computer));
+
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.reset(player, computer);
+        BattleState state = BattleState.of(player, computer);
+        HeadlessAttackResolver resolver = new HeadlessAttackResolver(new BitsetSuitableForAttackUnitsFinder(),
+                new UnitTargetPathFinderImpl(grid), BattleContext.seeded(1));
+        resolver.setOccupancyGrid(grid);
+        resolver.reset(state, player, computer);
+
+        assertEquals(1, resolver.attack(0));
+
+        assertEquals(6, state.getX(0), "Перемещение атакующего должно попасть в состояние");
+        assertFalse(state.isAlive(1));
+        assertEquals(1, state.getAliveCount(BattleState.COMPUTER));
+        assertFalse(grid.isOccupied(5, 5), "Исходная клетка атакующего должна освободиться");
+        assertTrue(grid.isOccupied(6, 5));
+        assertFalse(grid.isOccupied(8, 5), "Клетка погибшей цели должна освободиться");
+        assertTrue(grid.isOccupied(9, 9));
+    }
+
+    @Test
+    void meleeTargetsShouldComeFromDeploymentZoneOfGeometry() throws InterruptedException {
+        BoardGeometry geometry = new BoardGeometry(40, 10, 5, MovementRule.EIGHT_NEIGHBOURS);
+        Unit swordsman = createUnit("Swordsman", 37, 5);
+        Unit knight = createUnit("Knight", 4, 5);
+        Army player = new Army(new ArrayList<>(List.of(swordsman)));
+        Army computer = new Army(new ArrayList<>(List.of(knight)));
+
+        OccupancyGrid grid = new OccupancyGrid(geometry);
+        grid.reset(player, computer);
+        BattleState state = BattleState.of(player, computer);
+        HeadlessAttackResolver resolver = new HeadlessAttackResolver(geometry, new BitsetSuitableForAttackUnitsFinder(),
+                new UnitTargetPathFinderImpl(grid), BattleContext.seeded(1));
+        resolver.setOccupancyGrid(grid);
+        resolver.reset(state, player, computer);
+
+        assertEquals(1, resolver.attack(0), "Колонка 4 входит в левую зону шириной 5");
+        assertEquals(40, state.getHealth(1));
+        assertEquals(0, resolver.attack(1), "Колонка 37 входит в правую зону [35, 40)");
+    }
+
+    /**
+     * Собственная программа: шаг вправо без возврата и убийство первого юнита противника.
+     */
+    private static class StepAndStrikeProgram extends Program {
+
+        StepAndStrikeProgram(Unit unit, Army allyArmy, Army enemyArmy) {
+            super(unit, allyArmy, enemyArmy, new GameSpeedUtil(0));
+        }
+
+        @Override
+        public Unit attack() {
+            unit.setxCoordinate(unit.getxCoordinate() + 1);
+            Unit target = enemyArmy.getUnits().get(0);
+            target.setHealth(0);
+            target.setAlive(false);
+            return target;
+        }
+    }
+}
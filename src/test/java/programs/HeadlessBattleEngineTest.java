@@ -0,0 +1,285 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.computer.ComputerKnightProgram;
+import com.battle.heroes.army.programs.user.UserKnightProgram;
+import com.battle.heroes.army.programs.user.UserSwordsmanProgram;
+import com.battle.heroes.util.GameSpeedUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadlessBattleEngineTest {
+
+    private Unit createUnit(String type, int hp, int atk, int x, int y) {
+        Unit unit = new Unit(
+                type + " " + x + "," + y,
+                type,
+                hp,
+                atk,
+                10,
+                "MELEE",
+                new HashMap<>(),
+                new HashMap<>(),
+                x, y
+        );
+        unit.setAlive(true);
+        return unit;
+    }
+
+    private Army stackedArmy(int x, int[] healths, int atk) {
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < healths.length; i++) {
+            units.add(createUnit("Knight", healths[i], atk + i, x, 5 + i));
+        }
+        return new Army(units);
+    }
+
+    private void assignKnightPrograms(Army player, Army computer, int speed) {
+        GameSpeedUtil gameSpeed = new GameSpeedUtil(speed);
+        for (Unit unit : player.getUnits()) {
+            unit.setProgram(new UserKnightProgram(unit, player, computer, gameSpeed,
+                    new SuitableForAttackUnitsFinderImpl(), new UnitTargetPathFinderImpl()));
+        }
+        for (Unit unit : computer.getUnits()) {
+            unit.setProgram(new ComputerKnightProgram(unit, computer, player, gameSpeed,
+                    new SuitableForAttackUnitsFinderImpl(), new UnitTargetPathFinderImpl()));
+        }
+    }
+
+    @Test
+    void shouldMatchLibraryProgramsWhenTargetChoiceIsForced() throws InterruptedException {
+        int[] playerHealth = {40, 55, 30, 70};
+        int[] computerHealth = {60, 35, 45, 50};
+
+        Army libraryPlayer = stackedArmy(24, playerHealth, 12);
+        Army libraryComputer = stackedArmy(2, computerHealth, 11);
+        assignKnightPrograms(libraryPlayer, libraryComputer, 0);
+        new SimulateBattleImpl().simulate(libraryPlayer, libraryComputer);
+
+        Army headlessPlayer = stackedArmy(24, playerHealth, 12);
+        Army headlessComputer = stackedArmy(2, computerHealth, 11);
+        assignKnightPrograms(headlessPlayer, headlessComputer, 0);
+        new HeadlessBattleEngine(BattleContext.seeded(1)).run(headlessPlayer, headlessComputer);
+
+        assertSameState(libraryPlayer, headlessPlayer);
+        assertSameState(libraryComputer, headlessComputer);
+    }
+
+    @Test
+    void shouldNotSleepBetweenSteps() {
+        Army player = stackedArmy(24, new int[]{40, 55}, 12);
+        Army computer = stackedArmy(2, new int[]{60, 35}, 11);
+        assignKnightPrograms(player, computer, 60_000);
+
+        BattleOutcome outcome = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> new HeadlessBattleEngine(BattleContext.seeded(1)).run(player, computer));
+
+        assertNotEquals(BattleOutcome.Winner.DRAW, outcome.getWinner());
+    }
+
+    @Test
+    void shouldBeReproducibleForSameSeed() {
+        BattleOutcome first = new HeadlessBattleEngine(BattleContext.seeded(99)).run(mixedArmy(24, 3), mixedArmy(1, 4));
+        BattleOutcome second = new HeadlessBattleEngine(BattleContext.seeded(99)).run(mixedArmy(24, 3), mixedArmy(1, 4));
+
+        assertEquals(first.getWinner(), second.getWinner());
+        assertEquals(first.getRounds(), second.getRounds());
+        assertEquals(first.getAttacks(), second.getAttacks());
+        assertEquals(first.getPlayerSurvivors(), second.getPlayerSurvivors());
+        assertEquals(first.getComputerSurvivors(), second.getComputerSurvivors());
+    }
+
+    @Test
+    void shouldReportOutcome() {
+        Army player = new Army(new ArrayList<>(List.of(createUnit("Archer", 100, 50, 25, 0))));
+        Army computer = new Army(new ArrayList<>(List.of(createUnit("Archer", 40, 1, 1, 0))));
+
+        BattleOutcome outcome = new HeadlessBattleEngine(BattleContext.seeded(3)).run(player, computer);
+
+        assertEquals(BattleOutcome.Winner.PLAYER, outcome.getWinner());
+        assertEquals(1, outcome.getRounds());
+        assertEquals(1, outcome.getAttacks());
+        assertEquals(1, outcome.getPlayerSurvivors());
+        assertEquals(0, outcome.getComputerSurvivors());
+        assertEquals(100, player.getUnits().get(0).getHealth(), "Погибший юнит не должен успеть атаковать");
+    }
+
+    @Test
+    void shouldStopWithDrawWhenRoundLimitIsReached() {
+        Army player = new Army(new ArrayList<>(List.of(createUnit("Knight", 100, 0, 24, 0))));
+        Army computer = new Army(new ArrayList<>(List.of(createUnit("Archer", 100, 0, 0, 0))));
+
+        HeadlessBattleEngine engine = new HeadlessBattleEngine(BattleContext.seeded(5));
+        engine.setMaxRounds(20);
+        BattleOutcome outcome = engine.run(player, computer);
+
+        assertEquals(BattleOutcome.Winner.DRAW, outcome.getWinner());
+        assertEquals(20, outcome.getRounds());
+        assertEquals(40, outcome.getAttacks());
+    }
+
+    @Test
+    void stateBattleShouldMatchUnitReference() throws InterruptedException {
+        Army referencePlayer = knightBlock(24, 4, 6);
+        Army referenceComputer = knightBlock(0, 3, 7);
+        SimulateBattleImpl reference = new SimulateBattleImpl();
+        reference.setAttackResolver(new ReferenceMeleeResolver(BattleContext.seeded(21)));
+        reference.setMaxRounds(HeadlessBattleEngine.DEFAULT_MAX_ROUNDS);
+        reference.simulate(referencePlayer, referenceComputer);
+
+        Army statePlayer = knightBlock(24, 4, 6);
+        Army stateComputer = knightBlock(0, 3, 7);
+        BattleOutcome outcome = new HeadlessBattleEngine(BattleContext.seeded(21)).run(statePlayer, stateComputer);
+
+        assertEquals(reference.getRoundCount(), outcome.getRounds());
+        assertEquals(reference.getAttackCount(), outcome.getAttacks());
+        assertSameState(referencePlayer, statePlayer);
+        assertSameState(referenceComputer, stateComputer);
+    }
+
+    @Test
+    void walledInAttackerShouldCountLikeLibraryPrograms() throws InterruptedException {
+        Army libraryPlayer = new Army(new ArrayList<>());
+        Army libraryComputer = new Army(new ArrayList<>());
+        walledBattle(libraryPlayer, libraryComputer);
+        SimulateBattleImpl library = new SimulateBattleImpl();
+        library.setMaxRounds(3);
+        library.simulate(libraryPlayer, libraryComputer);
+
+        Army headlessPlayer = new Army(new ArrayList<>());
+        Army headlessComputer = new Army(new ArrayList<>());
+        walledBattle(headlessPlayer, headlessComputer);
+        HeadlessBattleEngine engine = new HeadlessBattleEngine(BattleContext.seeded(2));
+        engine.setMaxRounds(3);
+        BattleOutcome outcome = engine.run(headlessPlayer, headlessComputer);
+
+        assertEquals(27, library.getAttackCount(),
+                "Мечник без пути возвращает себя, рыцарь компьютера без пути — null");
+        assertEquals(library.getAttackCount(), outcome.getAttacks());
+        assertEquals(library.getRoundCount(), outcome.getRounds());
+        assertSameState(libraryPlayer, headlessPlayer);
+        assertSameState(libraryComputer, headlessComputer);
+    }
+
+    @Test
+    void jumpPointSearchShouldNotChangeBattle() {
+        Army aStarPlayer = knightBlock(24, 3, 5);
+        Army aStarComputer = knightBlock(0, 3, 6);
+        new HeadlessBattleEngine(BattleContext.seeded(8), PathSearchMode.A_STAR).run(aStarPlayer, aStarComputer);
+
+        Army jpsPlayer = knightBlock(24, 3, 5);
+        Army jpsComputer = knightBlock(0, 3, 6);
+        new HeadlessBattleEngine(BattleContext.seeded(8), PathSearchMode.JUMP_POINT).run(jpsPlayer, jpsComputer);
+
+        assertSameState(aStarPlayer, jpsPlayer);
+        assertSameState(aStarComputer, jpsComputer);
+    }
+
+    /**
+     * Мечник игрока в клетке (25, 10), со всех сторон окружённый рыцарями компьютера без атаки,
+     * и рыцарь компьютера в клетке (0, 0). У каждого атакующего ровно одна доступная цель,
+     * поэтому перемешивание в программах библиотеки не влияет на ход боя.
+     */
+    private void walledBattle(Army player, Army computer) {
+        GameSpeedUtil speed = new GameSpeedUtil(0);
+        Unit swordsman = createUnit("Swordsman", 100, 5, 25, 10);
+        swordsman.setProgram(new UserSwordsmanProgram(swordsman, player, computer, speed,
+                new SuitableForAttackUnitsFinderImpl(), new UnitTargetPathFinderImpl()));
+        player.getUnits().add(swordsman);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx != 0 || dy != 0) {
+                    computer.getUnits().add(createUnit("Knight", 1000, 0, 25 + dx, 10 + dy));
+                }
+            }
+        }
+        computer.getUnits().add(createUnit("Knight", 1000, 0, 0, 0));
+        for (Unit knight : computer.getUnits()) {
+            knight.setProgram(new ComputerKnightProgram(knight, computer, player, speed,
+                    new SuitableForAttackUnitsFinderImpl(), new UnitTargetPathFinderImpl()));
+        }
+    }
+
+    private Army knightBlock(int x, int columns, int rows) {
+        List<Unit> units = new ArrayList<>();
+        for (int c = 0; c < columns && c < 3; c++) {
+            for (int r = 0; r < rows; r++) {
+                units.add(createUnit("Knight", 20 + 3 * r + c, 6 + (r * 7 + c) % 5, x + c, 3 + 2 * r + c % 2));
+            }
+        }
+        return new Army(units);
+    }
+
+    private Army mixedArmy(int x, int size) {
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String type = i % 2 == 0 ? "Archer" : "Knight";
+            units.add(createUnit(type, 30 + 7 * i, 9 + i, x + (i % 2), 2 + 3 * i));
+        }
+        return new Army(units);
+    }
+
+    private void assertSameState(Army expected, Army actual) {
+        for (int i = 0; i < expected.getUnits().size(); i++) {
+            Unit e = expected.getUnits().get(i);
+            Unit a = actual.getUnits().get(i);
+            assertEquals(e.getHealth(), a.getHealth(), "Здоровье юнита " + e.getName() + " должно совпадать");
+            assertEquals(e.isAlive(), a.isAlive(), "Состояние юнита " + e.getName() + " должно совпадать");
+            assertEquals(e.getxCoordinate(), a.getxCoordinate());
+            assertEquals(e.getyCoordinate(), a.getyCoordinate());
+        }
+    }
+
+    /**
+     * Ближний бой по объектам юнитов, как в программах библиотеки: ряды из списка армии,
+     * поиск доступных целей, случайная цель и удар при существующем пути. Если пути нет,
+     * рыцарь игрока возвращает себя, рыцарь компьютера — {@code null}.
+     */
+    private static class ReferenceMeleeResolver implements AttackResolver {
+        private final BattleContext context;
+        private final SuitableForAttackUnitsFinderImpl suitableFinder = new SuitableForAttackUnitsFinderImpl();
+        private final UnitTargetPathFinderImpl pathFinder = new UnitTargetPathFinderImpl();
+
+        ReferenceMeleeResolver(BattleContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public Unit attack(Unit attacker, Army allyArmy, Army enemyArmy, boolean isPlayerUnit) {
+            int firstColumn = isPlayerUnit ? 0 : 24;
+            List<List<Unit>> unitsByRow = new ArrayList<>();
+            for (int column = firstColumn; column < firstColumn + 3; column++) {
+                List<Unit> row = new ArrayList<>();
+                for (Unit unit : enemyArmy.getUnits()) {
+                    if (unit.getxCoordinate() == column) {
+                        row.add(unit);
+                    }
+                }
+                unitsByRow.add(row);
+            }
+            List<Unit> suitable = new ArrayList<>(suitableFinder.getSuitableUnits(unitsByRow, isPlayerUnit));
+            context.shuffle(suitable);
+            if (suitable.isEmpty()) {
+                return null;
+            }
+            Unit target = suitable.get(0);
+            List<Unit> obstacles = new ArrayList<>(enemyArmy.getUnits());
+            obstacles.addAll(allyArmy.getUnits());
+            if (pathFinder.getTargetPath(attacker, target, obstacles).isEmpty()) {
+                return isPlayerUnit ? attacker : null;
+            }
+            target.setHealth(target.getHealth() - attacker.getBaseAttack());
+            if (target.getHealth() <= 0) {
+                target.setAlive(false);
+            }
+            return target;
+        }
+    }
+}
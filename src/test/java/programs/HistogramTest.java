@@ -0,0 +1,83 @@
+package programs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void shouldKeepSmallValuesExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(90, histogram.getValueAtPercentile(90));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    void shouldBoundRelativeErrorForLargeValues() {
+        Histogram histogram = new Histogram();
+        for (long value = 1_000; value <= 1_000_000_000L; value = value * 3 / 2) {
+            histogram.reset();
+            histogram.record(value);
+            histogram.record(value * 2);
+            long median = histogram.getValueAtPercentile(50);
+            assertTrue(median >= value && median <= value + value / 64,
+                    "Погрешность квантиля не больше 1/64: " + value + " -> " + median);
+        }
+    }
+
+    @Test
+    void shouldCoverWholeLongRangeWithMonotonicBuckets() {
+        int previous = -1;
+        for (int bit = 0; bit < 63; bit++) {
+            long value = 1L << bit;
+            int index = Histogram.indexOf(value);
+            assertTrue(index > previous, "Номер корзины растёт вместе со значением");
+            assertTrue(Histogram.highestValueAt(index) >= value);
+            previous = index;
+        }
+        int last = Histogram.indexOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, Histogram.highestValueAt(last));
+
+        Histogram histogram = new Histogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+        assertEquals(0, histogram.getMin(), "Отрицательные значения учитываются как 0");
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void shouldMergeAndReset() {
+        Histogram first = new Histogram();
+        Histogram second = new Histogram();
+        first.record(10);
+        first.record(20);
+        second.record(5);
+        second.record(1_000);
+
+        first.add(second);
+        assertEquals(4, first.getTotalCount());
+        assertEquals(5, first.getMin());
+        assertEquals(1_000, first.getMax());
+        assertEquals(1_035, first.getSum());
+
+        first.reset();
+        assertEquals(0, first.getTotalCount());
+        assertEquals(0, first.getMin());
+        assertEquals(0, first.getValueAtPercentile(99));
+        assertThrows(IllegalArgumentException.class, () -> first.getValueAtPercentile(101));
+    }
+}
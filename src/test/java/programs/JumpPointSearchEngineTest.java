@@ -0,0 +1,115 @@
+package programs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JumpPointSearchEngineTest {
+    private static final BoardGeometry BOARD = BoardGeometry.STANDARD;
+
+    private final JumpPointSearchEngine jps = new JumpPointSearchEngine();
+    private final GridPathEngine astar = new GridPathEngine();
+
+    private static void block(long[] bits, int x, int y) {
+        int cell = BOARD.cellIndex(x, y);
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    @Test
+    void shouldFindStraightPathOnOpenBoard() {
+        long[] bits = new long[BOARD.getBitsetWords()];
+
+        assertEquals(27, jps.findPath(0, 10, 26, 10, bits));
+        for (int i = 0; i < 27; i++) {
+            assertEquals(BOARD.cellIndex(i, 10), jps.getPathCell(i));
+        }
+    }
+
+    @Test
+    void shouldTreatTargetCellAsFree() {
+        long[] bits = new long[BOARD.getBitsetWords()];
+        block(bits, 3, 0);
+
+        assertEquals(4, jps.findPath(0, 0, 3, 0, bits));
+    }
+
+    @Test
+    void shouldReturnZeroForWalledOffTarget() {
+        long[] bits = new long[BOARD.getBitsetWords()];
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx != 0 || dy != 0) {
+                    block(bits, 20 + dx, 10 + dy);
+                }
+            }
+        }
+
+        assertEquals(0, jps.findPath(0, 0, 20, 10, bits));
+        assertEquals(0, jps.getPathLength());
+    }
+
+    @Test
+    void shouldMatchAStarLengthOnRandomBoards() {
+        Random random = new Random(1);
+
+        for (int board = 0; board < 1000; board++) {
+            long[] bits = new long[BOARD.getBitsetWords()];
+            int obstacles = random.nextInt(400);
+            for (int i = 0; i < obstacles; i++) {
+                block(bits, random.nextInt(BOARD.getWidth()), random.nextInt(BOARD.getHeight()));
+            }
+
+            for (int query = 0; query < 10; query++) {
+                int sx = random.nextInt(BOARD.getWidth());
+                int sy = random.nextInt(BOARD.getHeight());
+                int tx = random.nextInt(BOARD.getWidth());
+                int ty = random.nextInt(BOARD.getHeight());
+                if (random.nextBoolean()) {
+                    block(bits, sx, sy);
+                }
+
+                int length = jps.findPath(sx, sy, tx, ty, bits);
+                assertEquals(astar.findPath(sx, sy, tx, ty, bits), length, "Длина пути должна совпадать с A*");
+                if (length > 0) {
+                    assertValidPath(bits, length, BOARD.cellIndex(sx, sy), BOARD.cellIndex(tx, ty));
+                }
+            }
+        }
+    }
+
+    private void assertValidPath(long[] bits, int length, int start, int target) {
+        assertEquals(start, jps.getPathCell(0));
+        assertEquals(target, jps.getPathCell(length - 1));
+        for (int i = 1; i < length; i++) {
+            int prev = jps.getPathCell(i - 1);
+            int cell = jps.getPathCell(i);
+            int step = Math.max(Math.abs(BOARD.cellX(cell) - BOARD.cellX(prev)),
+                    Math.abs(BOARD.cellY(cell) - BOARD.cellY(prev)));
+            assertEquals(1, step, "Соседние клетки пути должны быть смежными");
+            if (i < length - 1) {
+                assertFalse(GridPathEngine.isBlocked(bits, cell), "Путь не должен проходить через препятствия");
+            }
+        }
+    }
+
+    @Test
+    void shouldExpandFewerNodesThanAStarOnOpenBoard() {
+        long[] bits = new long[BOARD.getBitsetWords()];
+        for (int y = 0; y < 18; y++) {
+            block(bits, 13, y);
+        }
+
+        assertEquals(astar.findPath(0, 0, 26, 0, bits), jps.findPath(0, 0, 26, 0, bits));
+        assertTrue(astar.getExpandedNodes() > 0 && astar.getOpenSetPeak() > 0);
+        assertTrue(jps.getExpandedNodes() < astar.getExpandedNodes(),
+                "JPS раскрывает только точки прыжка: " + jps.getExpandedNodes() + " против " + astar.getExpandedNodes());
+
+        assertEquals(1, jps.findPath(4, 4, 4, 4, bits));
+        assertEquals(0, jps.getExpandedNodes(), "Счётчики сбрасываются перед каждым поиском");
+        assertEquals(0, jps.getOpenSetPeak());
+    }
+}
@@ -0,0 +1,142 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KnapsackPresetStrategyTest {
+
+    private Unit createUnit(String type, int hp, int atk, int cost) {
+        Unit unit = new Unit(type, type, hp, atk, cost, "MELEE", new HashMap<>(), new HashMap<>(), 0, 0);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    @Test
+    void shouldBeatGreedyWhenGreedyLeavesPointsUnused() {
+        List<Unit> units = new ArrayList<>();
+        units.add(createUnit("A", 10, 7, 6));
+        units.add(createUnit("B", 10, 5, 5));
+
+        PresetComposition greedy = new GreedyPresetStrategy().compose(units, 10);
+        PresetComposition knapsack = KnapsackPresetStrategy.totalAttack().compose(units, 10);
+
+        assertEquals(7, totalAttack(greedy));
+        assertEquals(10, totalAttack(knapsack), "Рюкзак должен взять двух юнитов B");
+        assertEquals(10, knapsack.getPoints());
+    }
+
+    @Test
+    void shouldMatchBruteForceOnRandomInstances() {
+        Random random = new Random(7);
+
+        for (int instance = 0; instance < 200; instance++) {
+            List<Unit> units = new ArrayList<>();
+            int types = 1 + random.nextInt(3);
+            for (int t = 0; t < types; t++) {
+                units.add(createUnit("T" + t, 1 + random.nextInt(100), 1 + random.nextInt(40), 1 + random.nextInt(30)));
+            }
+            int maxPoints = random.nextInt(400);
+            int attackWeight = random.nextInt(3);
+            int healthWeight = random.nextInt(3);
+            KnapsackPresetStrategy strategy = new KnapsackPresetStrategy(attackWeight, healthWeight);
+
+            PresetComposition composition = strategy.compose(units, maxPoints);
+
+            assertTrue(composition.getPoints() <= maxPoints, "Очки состава не должны превышать лимит");
+            for (int t = 0; t < composition.size(); t++) {
+                assertTrue(composition.getCount(t) <= GeneratePresetImpl.MAX_UNITS_PER_TYPE, "Превышен лимит юнитов типа");
+            }
+            assertEquals(bruteForce(units, 0, maxPoints, attackWeight, healthWeight),
+                    score(composition, attackWeight, healthWeight),
+                    "Оценка должна совпадать с полным перебором");
+        }
+    }
+
+    @Test
+    void shouldComposeAllBudgetsFromOneTableWithSameScores() {
+        Random random = new Random(11);
+
+        for (int instance = 0; instance < 50; instance++) {
+            List<Unit> units = new ArrayList<>();
+            int types = 1 + random.nextInt(4);
+            for (int t = 0; t < types; t++) {
+                units.add(createUnit("T" + t, 1 + random.nextInt(100), 1 + random.nextInt(40), 1 + random.nextInt(30)));
+            }
+            int[] budgets = new int[1 + random.nextInt(8)];
+            for (int i = 0; i < budgets.length; i++) {
+                budgets[i] = random.nextInt(500) - 20;
+            }
+            int attackWeight = 1 + random.nextInt(2);
+            int healthWeight = random.nextInt(2);
+            KnapsackPresetStrategy strategy = new KnapsackPresetStrategy(attackWeight, healthWeight);
+
+            List<PresetComposition> batch = strategy.composeAll(units, budgets);
+
+            assertEquals(budgets.length, batch.size());
+            for (int i = 0; i < budgets.length; i++) {
+                PresetComposition single = strategy.compose(units, budgets[i]);
+                PresetComposition fromBatch = batch.get(i);
+                assertTrue(fromBatch.getPoints() <= Math.max(0, budgets[i]), "Очки состава не должны превышать лимит");
+                for (int t = 0; t < fromBatch.size(); t++) {
+                    assertTrue(fromBatch.getCount(t) <= GeneratePresetImpl.MAX_UNITS_PER_TYPE, "Превышен лимит юнитов типа");
+                }
+                assertEquals(score(single, attackWeight, healthWeight), score(fromBatch, attackWeight, healthWeight),
+                        "Оценка состава из общей таблицы совпадает с отдельным вызовом, лимит " + budgets[i]);
+            }
+        }
+    }
+
+    @Test
+    void shouldGenerateArmyWithSelectedStrategy() {
+        List<Unit> units = new ArrayList<>();
+        units.add(createUnit("A", 10, 7, 6));
+        units.add(createUnit("B", 10, 5, 5));
+
+        Army army = new GeneratePresetImpl(BattleContext.seeded(3), KnapsackPresetStrategy.totalAttack())
+                .generate(units, 10);
+
+        assertEquals(2, army.getUnits().size());
+        assertEquals(10, army.getPoints());
+        for (Unit unit : army.getUnits()) {
+            assertEquals("B", unit.getUnitType());
+            assertTrue(unit.getxCoordinate() >= 0 && unit.getxCoordinate() < 3, "Некорректная координата X");
+        }
+    }
+
+    private int totalAttack(PresetComposition composition) {
+        return score(composition, 1, 0);
+    }
+
+    private int score(PresetComposition composition, int attackWeight, int healthWeight) {
+        int total = 0;
+        for (int t = 0; t < composition.size(); t++) {
+            Unit unit = composition.getTemplate(t);
+            total += composition.getCount(t) * (attackWeight * unit.getBaseAttack() + healthWeight * unit.getHealth());
+        }
+        return total;
+    }
+
+    private int bruteForce(List<Unit> units, int type, int pointsLeft, int attackWeight, int healthWeight) {
+        if (type == units.size()) {
+            return 0;
+        }
+        Unit unit = units.get(type);
+        int best = 0;
+        for (int count = 0; count <= GeneratePresetImpl.MAX_UNITS_PER_TYPE && count * unit.getCost() <= pointsLeft; count++) {
+            int value = count * (attackWeight * unit.getBaseAttack() + healthWeight * unit.getHealth())
+                    + bruteForce(units, type + 1, pointsLeft - count * unit.getCost(), attackWeight, healthWeight);
+            best = Math.max(best, value);
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,113 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    private Unit createUnit(String type, int hp, int atk, int cost, int x, int y) {
+        Unit unit = new Unit(type + " " + x + "," + y, type, hp, atk, cost, "MELEE",
+                new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    private Army army(int x, int count, int atk) {
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            units.add(createUnit("Knight", 40 + i * 5, atk + i, 10, x, 5 + i));
+        }
+        return new Army(units);
+    }
+
+    @Test
+    void shouldCollectBattleAndPathMetricsFromHeadlessEngine() {
+        MetricsRegistry registry = new MetricsRegistry();
+        HeadlessBattleEngine engine = new HeadlessBattleEngine(BattleContext.seeded(3));
+        engine.setMetrics(registry);
+
+        Army player = army(24, 4, 12);
+        Army computer = army(2, 4, 11);
+        BattleOutcome outcome = engine.run(player, computer);
+
+        Histogram turns = registry.getHistogram("simulate.turns");
+        assertEquals(1, turns.getTotalCount());
+        assertEquals(outcome.getRounds(), registry.getHistogram("simulate.rounds").getMax());
+        assertEquals(outcome.getAttacks(), registry.getHistogram("simulate.attacks").getMax());
+        assertTrue(turns.getMax() >= outcome.getAttacks(), "Ходов не меньше, чем атак");
+
+        Histogram expanded = registry.getHistogram("path.expanded_nodes");
+        assertTrue(expanded.getTotalCount() > 0, "Юниты ближнего боя ищут путь к цели");
+        assertTrue(expanded.getMax() > 0);
+        assertTrue(registry.getHistogram("path.open_set_peak").getMax() > 0);
+        assertTrue(registry.getHistogram("suitable.targets").getTotalCount() > 0);
+        assertTrue(registry.getAttacksPerSecond() > 0);
+    }
+
+    @Test
+    void shouldRecordPresetAndDumpTextAndJson() {
+        MetricsRegistry registry = new MetricsRegistry();
+        GeneratePresetImpl generator = new GeneratePresetImpl(BattleContext.seeded(1));
+        generator.setMetrics(registry);
+        List<Unit> templates = List.of(createUnit("Archer", 30, 8, 20, 0, 0), createUnit("Knight", 60, 12, 30, 0, 0));
+        Army preset = generator.generate(templates, 400);
+
+        Histogram units = registry.getHistogram("preset.units");
+        assertEquals(1, units.getTotalCount());
+        assertEquals(preset.getUnits().size(), units.getMax());
+
+        String json = registry.toJson();
+        assertTrue(json.startsWith("{\"simulate.latency_ns\":{\"count\":0"), json);
+        assertTrue(json.contains("\"preset.units\":{\"count\":1,"), json);
+        assertTrue(json.endsWith("\"attacks_per_second\":0.000}"), json);
+
+        String[] lines = registry.toText().split("\n");
+        assertEquals(14, lines.length, "Заголовок, 12 метрик и итоговая скорость атак");
+        assertTrue(lines[11].startsWith("preset.latency_ns"));
+    }
+
+    @Test
+    void shouldMergeRegistriesAndRejectUnknownMetric() {
+        MetricsRegistry first = new MetricsRegistry();
+        MetricsRegistry second = new MetricsRegistry();
+        first.recordPathSearch(1_000, 20, 8, 5);
+        second.recordPathSearch(3_000, 40, 12, 0);
+        second.recordBattle(1_000_000_000L, 3, 30, 20);
+
+        first.add(second);
+        assertEquals(2, first.getHistogram("path.latency_ns").getTotalCount());
+        assertEquals(60, first.getHistogram("path.expanded_nodes").getSum());
+        assertEquals(20.0, first.getAttacksPerSecond(), 1e-9);
+
+        first.reset();
+        assertEquals(0, first.getHistogram("path.latency_ns").getTotalCount());
+        assertThrows(IllegalArgumentException.class, () -> first.getHistogram("path.unknown"));
+    }
+
+    @Test
+    void shouldRecordNothingByDefault() {
+        assertFalse(BattleMetrics.NOOP.isEnabled());
+        UnitTargetPathFinderImpl pathFinder = new UnitTargetPathFinderImpl();
+        Unit attacker = createUnit("Knight", 10, 1, 1, 0, 0);
+        Unit target = createUnit("Knight", 10, 1, 1, 5, 5);
+        assertEquals(6, pathFinder.getTargetPath(attacker, target, List.of()).size());
+
+        MetricsRegistry registry = new MetricsRegistry();
+        pathFinder.setMetrics(registry);
+        pathFinder.getTargetPath(attacker, target, List.of());
+        Histogram expanded = registry.getHistogram("path.expanded_nodes");
+        assertEquals(1, expanded.getTotalCount());
+        assertEquals(6, registry.getHistogram("path.length").getMax());
+        assertTrue(expanded.getMax() >= 5, "A* раскрывает как минимум клетки пути без цели");
+    }
+}
@@ -0,0 +1,97 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloBattleRunnerTest {
+
+    private static final String[] TYPES = {"Archer", "Knight", "Swordsman", "Pikeman"};
+
+    private Unit createUnit(String type, int hp, int atk, int cost, int x, int y) {
+        Unit unit = new Unit(
+                type,
+                type,
+                hp,
+                atk,
+                cost,
+                "MELEE",
+                new HashMap<>(),
+                new HashMap<>(),
+                x, y
+        );
+        unit.setAlive(true);
+        return unit;
+    }
+
+    private Army preset() {
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            units.add(createUnit(TYPES[i % TYPES.length], 40 + i, 10 + i % 5, 10, i % 3, i));
+        }
+        return new Army(units);
+    }
+
+    private Army randomPlayerArmy(BattleContext context) {
+        List<Integer> cells = new ArrayList<>();
+        for (int cell = 0; cell < 63; cell++) {
+            cells.add(cell);
+        }
+        context.shuffle(cells);
+        List<Unit> units = new ArrayList<>();
+        int size = 1 + context.nextInt(12);
+        for (int i = 0; i < size; i++) {
+            int cell = cells.get(i);
+            units.add(createUnit(TYPES[context.nextInt(TYPES.length)],
+                    30 + context.nextInt(30), 5 + context.nextInt(15), 10,
+                    24 + cell % 3, cell / 3));
+        }
+        return new Army(units);
+    }
+
+    @Test
+    void shouldAggregateAllBattles() {
+        MonteCarloBattleRunner runner = new MonteCarloBattleRunner(new ForkJoinPool(4), 8);
+
+        MonteCarloReport report = runner.run(preset(), this::randomPlayerArmy, 100, 1L);
+
+        assertEquals(100, report.getBattles());
+        assertEquals(100, report.getPlayerWins() + report.getComputerWins() + report.getDraws());
+        assertTrue(report.getTotalRounds() >= report.getMaxRounds());
+        assertTrue(report.getTotalAttacks() > 0);
+    }
+
+    @Test
+    void resultShouldNotDependOnParallelism() {
+        MonteCarloReport serial = new MonteCarloBattleRunner(new ForkJoinPool(1), 1000)
+                .run(preset(), this::randomPlayerArmy, 60, 42L);
+        MonteCarloReport parallel = new MonteCarloBattleRunner(new ForkJoinPool(4), 3)
+                .run(preset(), this::randomPlayerArmy, 60, 42L);
+
+        assertEquals(serial.toString(), parallel.toString(), "Итоги не должны зависеть от числа потоков");
+    }
+
+    @Test
+    void shouldNotModifyPreset() {
+        Army preset = preset();
+        MonteCarloBattleRunner runner = new MonteCarloBattleRunner(new ForkJoinPool(2), 4);
+
+        runner.run(preset, this::randomPlayerArmy, 20, 7L);
+
+        for (Unit unit : preset.getUnits()) {
+            assertTrue(unit.isAlive(), "Пресет должен копироваться для каждого боя");
+        }
+    }
+
+    @Test
+    void shouldRejectNonPositiveBattlesPerTask() {
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloBattleRunner(ForkJoinPool.commonPool(), 0));
+    }
+}
@@ -0,0 +1,64 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MutableBattleStateTest {
+
+    private Unit createUnit(String name, int hp, int x, int y, boolean alive) {
+        Unit unit = new Unit(name, "Knight", hp, 10, 10, "MELEE", new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(alive);
+        return unit;
+    }
+
+    @Test
+    void shouldRestoreCopiedFieldsOnly() {
+        Unit knight = createUnit("Knight 1", 100, 1, 2, true);
+        Unit fallen = createUnit("Knight 2", 0, 25, 3, false);
+        Army player = new Army(new ArrayList<>(List.of(knight)));
+        Army computer = new Army(new ArrayList<>(List.of(fallen)));
+        MutableBattleState state = MutableBattleState.of(player, computer);
+
+        knight.setHealth(1);
+        knight.setxCoordinate(20);
+        knight.setName("Renamed");
+        state.applyTo(player, computer);
+
+        assertEquals(100, knight.getHealth());
+        assertEquals(1, knight.getxCoordinate());
+        assertEquals("Renamed", knight.getName(), "Неизменяемые поля юнита не копируются");
+        assertFalse(state.isAlive(1));
+        assertEquals(0, state.getAliveCount(BattleState.COMPUTER));
+    }
+
+    @Test
+    void shouldReadSingleUnitAndBumpVersionOnlyOnChange() {
+        Unit knight = createUnit("Knight 1", 100, 1, 2, true);
+        Army player = new Army(new ArrayList<>(List.of(knight)));
+        MutableBattleState state = MutableBattleState.of(player, new Army(new ArrayList<>()));
+        long version = state.getVersion();
+
+        knight.setHealth(60);
+        state.readFrom(0, knight);
+        assertEquals(60, state.getHealth(0));
+        assertEquals(version, state.getVersion(), "Изменение здоровья не меняет поле");
+
+        knight.setHealth(0);
+        knight.setAlive(false);
+        state.readFrom(0, knight);
+        assertFalse(state.isAlive(0));
+        assertTrue(state.getVersion() > version);
+        assertThrows(IllegalArgumentException.class,
+                () -> state.applyTo(new Army(new ArrayList<>()), new Army(new ArrayList<>())));
+    }
+}
@@ -0,0 +1,130 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyGridTest {
+    private static final BoardGeometry BOARD = BoardGeometry.STANDARD;
+
+    private OccupancyGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new OccupancyGrid();
+    }
+
+    private Unit createUnit(int x, int y, boolean alive) {
+        Unit unit = new Unit(
+                "SWORDSMAN",
+                "SWORDSMAN",
+                100,
+                10,
+                50,
+                "MELEE",
+                new HashMap<>(),
+                new HashMap<>(),
+                x, y
+        );
+        unit.setAlive(alive);
+        return unit;
+    }
+
+    private Army createArmy(Unit... units) {
+        return new Army(new ArrayList<>(List.of(units)));
+    }
+
+    @Test
+    void shouldOccupyCellsOfAliveUnitsOnly() {
+        Unit alive = createUnit(1, 1, true);
+        Unit dead = createUnit(2, 2, false);
+
+        grid.reset(createArmy(alive), createArmy(dead));
+
+        assertTrue(grid.isOccupied(1, 1));
+        assertFalse(grid.isOccupied(2, 2));
+    }
+
+    @Test
+    void shouldHandleNullArmies() {
+        grid.reset(null, new Army());
+
+        assertFalse(grid.isOccupied(0, 0));
+    }
+
+    @Test
+    void shouldMoveUnitIncrementally() {
+        Unit unit = createUnit(0, 0, true);
+        grid.reset(createArmy(unit), createArmy());
+
+        unit.setxCoordinate(5);
+        unit.setyCoordinate(6);
+        grid.onUnitMoved(unit, 0, 0);
+
+        assertFalse(grid.isOccupied(0, 0));
+        assertTrue(grid.isOccupied(5, 6));
+    }
+
+    @Test
+    void shouldReleaseCellOnDeath() {
+        Unit unit = createUnit(3, 4, true);
+        grid.reset(createArmy(unit), createArmy());
+
+        unit.setAlive(false);
+        grid.onUnitDied(unit);
+
+        assertFalse(grid.isOccupied(3, 4));
+    }
+
+    @Test
+    void shouldKeepCellOccupiedWhileAnotherUnitStandsThere() {
+        Unit first = createUnit(3, 4, true);
+        Unit second = createUnit(3, 4, true);
+        grid.reset(createArmy(first), createArmy(second));
+
+        first.setAlive(false);
+        grid.onUnitDied(first);
+
+        assertTrue(grid.isOccupied(3, 4), "Клетка занята, пока в ней есть живой юнит");
+    }
+
+    @Test
+    void shouldIgnoreUnitsOutsideField() {
+        grid.reset(createArmy(createUnit(-1, 0, true), createUnit(27, 21, true)), createArmy());
+
+        assertFalse(grid.isOccupied(-1, 0));
+        assertFalse(grid.isOccupied(26, 20));
+    }
+
+    @Test
+    void shouldTrackReachabilityThroughMovesAndDeaths() {
+        List<Unit> wall = new ArrayList<>();
+        for (int y = 0; y < BOARD.getHeight(); y++) {
+            wall.add(createUnit(13, y, true));
+        }
+        grid.reset(new Army(wall), createArmy());
+
+        assertFalse(grid.isReachable(0, 10, 26, 10));
+
+        Unit door = wall.get(20);
+        door.setxCoordinate(14);
+        grid.onUnitMoved(door, 13, 20);
+
+        assertTrue(grid.isReachable(0, 10, 26, 10), "Ушедший из стены юнит должен открыть проход");
+
+        Unit blocker = wall.get(19);
+        blocker.setAlive(false);
+        grid.onUnitDied(blocker);
+        door.setxCoordinate(13);
+        grid.onUnitMoved(door, 14, 20);
+
+        assertTrue(grid.isReachable(0, 10, 26, 10), "Клетка погибшего юнита должна остаться проходом");
+    }
+}
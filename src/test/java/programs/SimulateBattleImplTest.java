@@ -195,6 +195,28 @@ class SimulateBattleImplTest {
     }
 
 
+    @Test
+    void occupancyGridShouldTrackDeathsDuringBattle() throws InterruptedException {
+        Unit p = createUnit("P", 30, 10);
+        Unit c = createUnit("C", 20, 5);
+        c.setxCoordinate(26);
+        c.setyCoordinate(20);
+
+        Army playerArmy = createArmy(List.of(p));
+        Army computerArmy = createArmy(List.of(c));
+
+        assignPrograms(playerArmy, computerArmy);
+        assignPrograms(computerArmy, playerArmy);
+
+        OccupancyGrid grid = new OccupancyGrid();
+        simulator.setOccupancyGrid(grid);
+        simulator.simulate(playerArmy, computerArmy);
+
+        assertTrue(grid.isOccupied(0, 0), "Клетка выжившего юнита должна оставаться занятой");
+        assertFalse(grid.isOccupied(26, 20), "Клетка погибшего юнита должна освободиться");
+    }
+
+
     private static class TestProgram extends Program {
 
         public TestProgram(Unit unit, Army allyArmy, Army enemyArmy) {
@@ -0,0 +1,114 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StateBoardIndexTest {
+
+    private Unit createUnit(String name, int x, int y) {
+        Unit unit = new Unit(name, name, 10, 5, 0, "MELEE", new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    private BattleState state(List<Unit> player, List<Unit> computer) {
+        return BattleState.of(new Army(new ArrayList<>(player)), new Army(new ArrayList<>(computer)));
+    }
+
+    private int[] columnUnits(StateBoardIndex index, int side, int x) {
+        return Arrays.copyOf(index.getColumnUnits(side, x), index.getColumnSize(side, x));
+    }
+
+    @Test
+    void shouldBuildColumnMasksPerSide() {
+        BattleState state = state(List.of(createUnit("P1", 1, 2), createUnit("P2", 1, 5)),
+                List.of(createUnit("C1", 25, 5), createUnit("C2", 25, 40)));
+        StateBoardIndex index = new StateBoardIndex();
+        index.reset(state);
+
+        assertEquals((1 << 2) | (1 << 5), index.getColumnMask(BattleState.PLAYER, 1));
+        assertEquals(1 << 5, index.getColumnMask(BattleState.COMPUTER, 25));
+        assertEquals(1, index.getOutsideCount(BattleState.COMPUTER, 25), "y = 40 не помещается в маску int");
+        assertArrayEquals(new int[]{2, 3}, columnUnits(index, BattleState.COMPUTER, 25));
+    }
+
+    @Test
+    void shouldReleaseDeadUnitAndKeepItInColumn() {
+        BattleState state = state(List.of(createUnit("P1", 1, 2), createUnit("P2", 1, 5)), List.of());
+        StateBoardIndex index = new StateBoardIndex();
+        index.reset(state);
+
+        state.markDead(0);
+        index.onUnitDied(0);
+
+        assertEquals(1 << 5, index.getColumnMask(BattleState.PLAYER, 1));
+        assertArrayEquals(new int[]{0, 1}, columnUnits(index, BattleState.PLAYER, 1),
+                "Погибший юнит остаётся в списке колонки, как в BoardIndex");
+    }
+
+    @Test
+    void shouldMoveUnitKeepingIndexOrder() {
+        BattleState state = state(List.of(createUnit("P1", 1, 2), createUnit("P2", 2, 5)), List.of());
+        StateBoardIndex index = new StateBoardIndex();
+        index.reset(state);
+
+        state.moveTo(0, 2, 7);
+        index.onUnitChanged(0, 1, 2, true);
+
+        assertEquals(0, index.getColumnMask(BattleState.PLAYER, 1));
+        assertEquals((1 << 7) | (1 << 5), index.getColumnMask(BattleState.PLAYER, 2));
+        assertArrayEquals(new int[]{0, 1}, columnUnits(index, BattleState.PLAYER, 2));
+    }
+
+    @Test
+    void incrementalUpdatesShouldMatchRebuiltIndex() {
+        Random random = new Random(11);
+
+        for (int battle = 0; battle < 50; battle++) {
+            List<Unit> computer = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                computer.add(createUnit("C" + i, random.nextInt(4), random.nextInt(40) - 3));
+            }
+            BattleState state = state(List.of(), computer);
+            StateBoardIndex index = new StateBoardIndex();
+            index.reset(state);
+
+            for (int step = 0; step < 40; step++) {
+                int unit = random.nextInt(state.size());
+                if (!state.isAlive(unit)) {
+                    continue;
+                }
+                if (random.nextBoolean()) {
+                    state.markDead(unit);
+                    index.onUnitDied(unit);
+                } else {
+                    int fromX = state.getX(unit);
+                    int fromY = state.getY(unit);
+                    state.moveTo(unit, random.nextInt(4), random.nextInt(40) - 3);
+                    index.onUnitChanged(unit, fromX, fromY, true);
+                }
+            }
+
+            StateBoardIndex rebuilt = new StateBoardIndex();
+            rebuilt.reset(state);
+            for (int x = 0; x < 4; x++) {
+                assertEquals(rebuilt.getColumnMask(BattleState.COMPUTER, x),
+                        index.getColumnMask(BattleState.COMPUTER, x), "Маска колонки должна совпадать с перестроенной");
+                assertEquals(rebuilt.getOutsideCount(BattleState.COMPUTER, x),
+                        index.getOutsideCount(BattleState.COMPUTER, x));
+                assertArrayEquals(columnUnits(rebuilt, BattleState.COMPUTER, x),
+                        columnUnits(index, BattleState.COMPUTER, x));
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package programs;
 
+import com.battle.heroes.army.Army;
 import com.battle.heroes.army.Unit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -258,4 +260,41 @@ class SuitableForAttackUnitsFinderImplTest {
         assertEquals(unit2, resultRight.get(1));
         assertEquals(unit3, resultRight.get(2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void indexedSearchShouldMatchRowSearch() {
+        Random random = new Random(11);
+
+        for (int board = 0; board < 200; board++) {
+            List<Unit> units = new ArrayList<>();
+            int count = random.nextInt(40);
+            for (int i = 0; i < count; i++) {
+                Unit unit = createUnit("U" + i, random.nextInt(3), random.nextInt(21));
+                unit.setAlive(random.nextInt(4) != 0);
+                units.add(unit);
+            }
+            Army enemy = new Army(units);
+            BoardIndex index = new BoardIndex();
+            index.reset(new Army(new ArrayList<>()), enemy);
+
+            List<List<Unit>> rows = new ArrayList<>();
+            for (int x = 0; x < 3; x++) {
+                List<Unit> row = new ArrayList<>();
+                for (Unit unit : units) {
+                    if (unit.getxCoordinate() == x) {
+                        row.add(unit);
+                    }
+                }
+                rows.add(row);
+            }
+
+            for (boolean isLeftArmyTarget : new boolean[]{true, false}) {
+                assertEquals(
+                        finder.getSuitableUnits(rows, isLeftArmyTarget),
+                        finder.getSuitableUnits(index, BoardIndex.COMPUTER, 0, 3, isLeftArmyTarget),
+                        "Поиск по маскам колонок должен возвращать те же юниты в том же порядке"
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SuitableTargetCacheTest {
+
+    private BoardIndex index;
+    private SuitableTargetCache<List<Unit>> cache;
+    private Unit player;
+    private Unit computer;
+
+    @BeforeEach
+    void setUp() {
+        player = createUnit("P", 25, 4);
+        computer = createUnit("C", 1, 4);
+        index = new BoardIndex();
+        index.reset(new Army(new ArrayList<>(List.of(player))), new Army(new ArrayList<>(List.of(computer))));
+        cache = new SuitableTargetCache<>(index::getVersion);
+    }
+
+    private Unit createUnit(String name, int x, int y) {
+        Unit unit = new Unit(name, name, 10, 5, 0, "MELEE", new HashMap<>(), new HashMap<>(), x, y);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    @Test
+    void shouldShareResultWhileBoardIsUnchanged() {
+        List<Unit> targets = List.of(computer);
+        assertNull(cache.get(true));
+        cache.put(true, targets);
+
+        assertSame(targets, cache.get(true));
+        assertSame(targets, cache.get(true));
+        assertNull(cache.get(false), "Направления кэшируются независимо");
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void shouldInvalidateOnBoardChange() {
+        cache.put(true, List.of(computer));
+        cache.put(false, List.of(player));
+
+        computer.setAlive(false);
+        index.onUnitDied(computer);
+
+        assertNull(cache.get(true), "После гибели юнита запись должна устареть");
+        assertNull(cache.get(false));
+    }
+}
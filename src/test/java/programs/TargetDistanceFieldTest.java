@@ -0,0 +1,174 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import com.battle.heroes.army.programs.Edge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TargetDistanceFieldTest {
+
+    private TargetDistanceField field;
+
+    @BeforeEach
+    void setUp() {
+        field = new TargetDistanceField();
+    }
+
+    private Unit createUnit(int x, int y) {
+        Unit unit = new Unit(
+                "SWORDSMAN",
+                "SWORDSMAN",
+                100,
+                10,
+                50,
+                "MELEE",
+                new HashMap<>(),
+                new HashMap<>(),
+                x, y
+        );
+        unit.setAlive(true);
+        return unit;
+    }
+
+    @Test
+    void shouldReturnUnreachableForNullArguments() {
+        int[] distances = field.computeDistances(null, List.of(createUnit(1, 1)), new ArrayList<>());
+
+        assertArrayEquals(new int[]{TargetDistanceField.UNREACHABLE}, distances);
+        assertEquals(0, field.computeDistances(createUnit(0, 0), null, new ArrayList<>()).length);
+    }
+
+    @Test
+    void shouldComputeDistancesToAllTargets() {
+        Unit attacker = createUnit(0, 0);
+        Unit near = createUnit(2, 1);
+        Unit far = createUnit(10, 3);
+        List<Unit> obstacles = new ArrayList<>(List.of(attacker, near, far));
+
+        int[] distances = field.computeDistances(attacker, List.of(far, near), obstacles);
+
+        assertArrayEquals(new int[]{10, 2}, distances);
+    }
+
+    @Test
+    void shouldNotPassThroughOtherTargets() {
+        Unit attacker = createUnit(0, 0);
+        Unit blocker = createUnit(1, 0);
+        Unit behind = createUnit(2, 0);
+        List<Unit> obstacles = new ArrayList<>(List.of(attacker, blocker, behind,
+                createUnit(0, 1), createUnit(1, 1), createUnit(2, 1)));
+
+        int[] distances = field.computeDistances(attacker, List.of(blocker, behind), obstacles);
+
+        assertEquals(1, distances[0]);
+        assertEquals(TargetDistanceField.UNREACHABLE, distances[1], "Клетка другой цели не должна быть проходимой");
+    }
+
+    @Test
+    void shouldFindNearestReachableTarget() {
+        Unit attacker = createUnit(0, 0);
+        Unit walledOff = createUnit(2, 0);
+        Unit reachable = createUnit(8, 8);
+        List<Unit> obstacles = new ArrayList<>(List.of(attacker, walledOff, reachable,
+                createUnit(1, 0), createUnit(1, 1), createUnit(0, 1)));
+        obstacles.add(createUnit(2, 1));
+        obstacles.add(createUnit(3, 1));
+        obstacles.add(createUnit(3, 0));
+
+        Unit nearest = field.findNearest(attacker, List.of(walledOff, reachable), obstacles);
+
+        assertNull(nearest);
+
+        obstacles.get(4).setAlive(false);
+        nearest = field.findNearest(attacker, List.of(walledOff, reachable), obstacles);
+
+        assertSame(walledOff, nearest);
+    }
+
+    @Test
+    void shouldBuildValidShortestPath() {
+        Unit attacker = createUnit(0, 0);
+        Unit target = createUnit(4, 0);
+        List<Unit> obstacles = new ArrayList<>(List.of(attacker, target,
+                createUnit(1, 0), createUnit(2, 0), createUnit(3, 0)));
+
+        field.computeDistances(attacker, List.of(target), obstacles);
+        List<Edge> path = field.getPath(target);
+
+        assertEquals(5, path.size());
+        assertEquals(0, path.get(0).getX());
+        assertEquals(4, path.get(path.size() - 1).getX());
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(Math.abs(path.get(i).getX() - path.get(i - 1).getX()) <= 1);
+            assertTrue(Math.abs(path.get(i).getY() - path.get(i - 1).getY()) <= 1);
+        }
+    }
+
+    @Test
+    void shouldMatchAStarPathLengthsOnRandomBoards() {
+        Random random = new Random(7);
+        UnitTargetPathFinderImpl pathFinder = new UnitTargetPathFinderImpl();
+
+        for (int board = 0; board < 100; board++) {
+            List<Unit> obstacles = new ArrayList<>();
+            for (int i = 0; i < 150; i++) {
+                obstacles.add(createUnit(random.nextInt(27), random.nextInt(21)));
+            }
+            Unit attacker = obstacles.get(0);
+            List<Unit> targets = obstacles.subList(1, 6);
+
+            int[] distances = field.computeDistances(attacker, targets, obstacles);
+
+            for (int i = 0; i < targets.size(); i++) {
+                List<Edge> path = pathFinder.getTargetPath(attacker, targets.get(i), obstacles);
+                int expected = path.isEmpty() ? TargetDistanceField.UNREACHABLE : path.size() - 1;
+                assertEquals(expected, distances[i], "Расстояние должно совпадать с длиной пути A*");
+            }
+        }
+    }
+
+    @Test
+    void shouldUseOccupancyGridWhenProvided() {
+        Unit attacker = createUnit(0, 0);
+        Unit target = createUnit(2, 0);
+        Unit wall = createUnit(1, 0);
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.reset(new Army(new ArrayList<>(List.of(attacker, wall, createUnit(1, 1), createUnit(0, 1)))),
+                new Army(new ArrayList<>(List.of(target))));
+        TargetDistanceField gridField = new TargetDistanceField(grid);
+
+        assertEquals(TargetDistanceField.UNREACHABLE, gridField.computeDistances(attacker, List.of(target), null)[0]);
+
+        wall.setAlive(false);
+        grid.onUnitDied(wall);
+
+        assertEquals(2, gridField.computeDistances(attacker, List.of(target), null)[0]);
+    }
+
+    @Test
+    void shouldFollowBoardGeometry() {
+        TargetDistanceField fourWay = new TargetDistanceField(
+                new BoardGeometry(60, 10, 5, MovementRule.FOUR_NEIGHBOURS), null);
+        Unit attacker = createUnit(0, 0);
+        Unit target = createUnit(50, 3);
+
+        assertEquals(53, fourWay.computeDistances(attacker, List.of(target), List.of(attacker, target))[0],
+                "Без диагональных шагов расстояние равно манхэттенскому");
+        assertEquals(54, fourWay.getPath(target).size());
+    }
+
+    @Test
+    void shouldRejectOccupancyGridOfOtherGeometry() {
+        OccupancyGrid grid = new OccupancyGrid(new BoardGeometry(60, 10, 5, MovementRule.EIGHT_NEIGHBOURS));
+
+        assertThrows(IllegalArgumentException.class, () -> new TargetDistanceField(BoardGeometry.STANDARD, grid));
+    }
+}
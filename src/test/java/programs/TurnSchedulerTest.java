@@ -0,0 +1,155 @@
+package programs;
+
+import com.battle.heroes.army.Army;
+import com.battle.heroes.army.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TurnSchedulerTest {
+
+    private Unit createUnit(String name, int atk) {
+        Unit unit = new Unit(name, name, 10, atk, 0, "MELEE", new HashMap<>(), new HashMap<>(), 0, 0);
+        unit.setAlive(true);
+        return unit;
+    }
+
+    private List<String> round(TurnScheduler scheduler) {
+        List<String> turns = new ArrayList<>();
+        scheduler.startRound();
+        while (scheduler.nextTurn()) {
+            turns.add(scheduler.getAttacker().getName());
+        }
+        return turns;
+    }
+
+    @Test
+    void shouldAlternateSidesByAttackDescending() {
+        Army player = new Army(new ArrayList<>(List.of(createUnit("P1", 5), createUnit("P2", 20), createUnit("P3", 10))));
+        Army computer = new Army(new ArrayList<>(List.of(createUnit("C1", 1))));
+        TurnScheduler scheduler = new TurnScheduler();
+        scheduler.reset(player, computer);
+
+        assertEquals(List.of("P2", "C1", "P3", "P1"), round(scheduler));
+    }
+
+    @Test
+    void shouldKeepArmyOrderForEqualAttack() {
+        Army player = new Army(new ArrayList<>(List.of(createUnit("P1", 7), createUnit("P2", 7), createUnit("P3", 9))));
+        TurnScheduler scheduler = new TurnScheduler();
+        scheduler.reset(player, new Army(new ArrayList<>()));
+
+        assertEquals(List.of("P3", "P1", "P2"), round(scheduler), "При равной атаке сохраняется порядок армии");
+    }
+
+    @Test
+    void shouldUsePluggableTieBreak() {
+        Army player = new Army(new ArrayList<>(List.of(createUnit("P1", 7), createUnit("P2", 7))));
+        Comparator<Unit> order = TurnScheduler.BY_ATTACK_DESC.thenComparing(Unit::getName, Comparator.reverseOrder());
+        TurnScheduler scheduler = new TurnScheduler(order);
+        scheduler.reset(player, new Army(new ArrayList<>()));
+
+        assertEquals(List.of("P2", "P1"), round(scheduler));
+    }
+
+    @Test
+    void unitKilledDuringRoundShouldKeepItsSlot() {
+        Unit p1 = createUnit("P1", 30);
+        Unit p2 = createUnit("P2", 20);
+        Unit p3 = createUnit("P3", 10);
+        Unit c1 = createUnit("C1", 30);
+        Unit c2 = createUnit("C2", 20);
+        Unit c3 = createUnit("C3", 10);
+        TurnScheduler scheduler = new TurnScheduler();
+        scheduler.reset(new Army(new ArrayList<>(List.of(p1, p2, p3))), new Army(new ArrayList<>(List.of(c1, c2, c3))));
+
+        scheduler.startRound();
+        List<String> turns = new ArrayList<>();
+        while (scheduler.nextTurn()) {
+            turns.add(scheduler.getAttacker().getName());
+            if (scheduler.getAttacker() == c1) {
+                p2.setAlive(false);
+            }
+        }
+
+        assertEquals(List.of("P1", "C1", "C2", "P3", "C3"), turns,
+                "Ход погибшего юнита пропускается без нарушения чередования");
+        assertEquals(List.of("P1", "C1", "P3", "C2", "C3"), round(scheduler),
+                "В следующем раунде погибший юнит снимается с очереди");
+    }
+
+    @Test
+    void stateModeShouldReadDeathsFromBattleState() {
+        Unit p1 = createUnit("P1", 30);
+        Unit p2 = createUnit("P2", 20);
+        Unit c1 = createUnit("C1", 30);
+        Unit c2 = createUnit("C2", 20);
+        Army player = new Army(new ArrayList<>(List.of(p1, p2)));
+        Army computer = new Army(new ArrayList<>(List.of(c1, c2)));
+        BattleState state = BattleState.of(player, computer);
+        TurnScheduler scheduler = new TurnScheduler();
+        scheduler.reset(player, computer, state);
+
+        scheduler.startRound();
+        List<Integer> turns = new ArrayList<>();
+        while (scheduler.nextTurn()) {
+            turns.add(scheduler.getAttackerIndex());
+            if (scheduler.getAttackerIndex() == 2) {
+                state.markDead(1);
+            }
+        }
+
+        assertEquals(List.of(0, 2, 3), turns, "Гибель юнита берётся из состояния, а не из объекта юнита");
+        assertTrue(p2.isAlive(), "Очередь не должна менять юнитов армии");
+    }
+
+    @Test
+    void shouldReturnNoTurnsForEmptyArmies() {
+        TurnScheduler scheduler = new TurnScheduler();
+        scheduler.reset(new Army(new ArrayList<>()), new Army(new ArrayList<>()));
+        scheduler.startRound();
+
+        assertFalse(scheduler.nextTurn());
+    }
+
+    @Test
+    void shouldRestoreCursorOnArmyCopies() {
+        Army player = new Army(new ArrayList<>(List.of(createUnit("P1", 5), createUnit("P2", 20), createUnit("P3", 10))));
+        Army computer = new Army(new ArrayList<>(List.of(createUnit("C1", 1), createUnit("C2", 3))));
+        TurnScheduler scheduler = new TurnScheduler();
+        scheduler.reset(player, computer);
+        scheduler.startRound();
+        scheduler.nextTurn();
+        scheduler.nextTurn();
+        assertEquals("C2", scheduler.getAttacker().getName());
+        TurnScheduler.Cursor cursor = scheduler.saveCursor();
+
+        List<String> rest = new ArrayList<>();
+        while (scheduler.nextTurn()) {
+            rest.add(scheduler.getAttacker().getName());
+        }
+        assertEquals(List.of("P3", "C1", "P1"), rest);
+
+        Army playerCopy = ArmyCopier.copy(player);
+        Army computerCopy = ArmyCopier.copy(computer);
+        TurnScheduler restored = new TurnScheduler();
+        restored.restoreCursor(cursor, playerCopy, computerCopy);
+        assertEquals("C2", restored.getAttacker().getName(), "Текущий ход восстанавливается вместе с позицией");
+        assertFalse(restored.isPlayerTurn());
+
+        List<String> restoredRest = new ArrayList<>();
+        while (restored.nextTurn()) {
+            restoredRest.add(restored.getAttacker().getName());
+            assertTrue(playerCopy.getUnits().contains(restored.getAttacker())
+                    || computerCopy.getUnits().contains(restored.getAttacker()), "Ходят юниты копий армий");
+        }
+        assertEquals(rest, restoredRest);
+    }
+}
@@ -1,5 +1,6 @@
 package programs;
 
+import com.battle.heroes.army.Army;
 import com.battle.heroes.army.Unit;
 import com.battle.heroes.army.programs.Edge;
 import org.junit.jupiter.api.BeforeEach;
@@ -276,4 +277,129 @@ class UnitTargetPathFinderImplTest {
             assertTrue(Math.abs(current.getY() - next.getY()) <= 1);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldUseOccupancyGridInsteadOfObstaclesList() {
+        Unit attackUnit = createUnit("SWORDSMAN", 0, 0, true);
+        Unit targetUnit = createUnit("ARCHER", 4, 0, true);
+        Unit wall = createUnit("WALL", 2, 0, true);
+
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.reset(new Army(new ArrayList<>(List.of(attackUnit, wall))),
+                new Army(new ArrayList<>(List.of(targetUnit))));
+        UnitTargetPathFinderImpl gridFinder = new UnitTargetPathFinderImpl(grid);
+
+        List<Edge> result = gridFinder.getTargetPath(attackUnit, targetUnit, Collections.emptyList());
+
+        assertEquals(5, result.size());
+        for (Edge edge : result) {
+            assertFalse(edge.getX() == 2 && edge.getY() == 0, "Путь не должен проходить через занятую клетку");
+        }
+    }
+
+    @Test
+    void shouldSeeGridUpdatesWithoutRebuildingObstacles() {
+        Unit attackUnit = createUnit("SWORDSMAN", 0, 0, true);
+        Unit targetUnit = createUnit("ARCHER", 2, 0, true);
+        List<Unit> walls = List.of(
+                createUnit("WALL", 1, 0, true),
+                createUnit("WALL", 1, 1, true),
+                createUnit("WALL", 0, 1, true)
+        );
+
+        List<Unit> all = new ArrayList<>(walls);
+        all.add(attackUnit);
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.reset(new Army(all),
+                new Army(new ArrayList<>(List.of(targetUnit))));
+        UnitTargetPathFinderImpl gridFinder = new UnitTargetPathFinderImpl(grid);
+
+        assertTrue(gridFinder.getTargetPath(attackUnit, targetUnit, all).isEmpty());
+
+        walls.get(0).setAlive(false);
+        grid.onUnitDied(walls.get(0));
+
+        assertEquals(3, gridFinder.getTargetPath(attackUnit, targetUnit, all).size());
+    }
+
+    @Test
+    void allSearchModesShouldKeepTargetExemptionAndEmptyResult() {
+        Unit attackUnit = createUnit("SWORDSMAN", 1, 10, true);
+        Unit targetUnit = createUnit("ARCHER", 25, 10, true);
+        List<Unit> obstacles = new ArrayList<>(List.of(attackUnit, targetUnit));
+        Unit walledTarget = createUnit("ARCHER", 25, 3, true);
+        List<Unit> walled = new ArrayList<>(List.of(attackUnit, walledTarget));
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx != 0 || dy != 0) {
+                    walled.add(createUnit("WALL", 25 + dx, 3 + dy, true));
+                }
+            }
+        }
+
+        for (PathSearchMode mode : PathSearchMode.values()) {
+            UnitTargetPathFinderImpl modeFinder = new UnitTargetPathFinderImpl(null, mode);
+
+            List<Edge> path = modeFinder.getTargetPath(attackUnit, targetUnit, obstacles);
+            assertEquals(25, path.size(), "Режим " + mode + " должен найти кратчайший путь до занятой клетки цели");
+            assertEquals(25, path.get(path.size() - 1).getX());
+
+            assertTrue(modeFinder.getTargetPath(attackUnit, walledTarget, walled).isEmpty(),
+                    "Режим " + mode + " должен вернуть пустой список для недостижимой цели");
+        }
+    }
+
+    @Test
+    void shouldFindPathAcrossLargeBoardWithGrid() {
+        BoardGeometry geometry = new BoardGeometry(200, 150, 10, MovementRule.EIGHT_NEIGHBOURS);
+        Unit attackUnit = createUnit("SWORDSMAN", 0, 75, true);
+        Unit targetUnit = createUnit("ARCHER", 199, 75, true);
+        List<Unit> all = new ArrayList<>(List.of(attackUnit, targetUnit));
+        for (int y = 0; y < 149; y++) {
+            all.add(createUnit("WALL", 100, y, true));
+        }
+        OccupancyGrid grid = new OccupancyGrid(geometry);
+        grid.reset(new Army(all), null);
+
+        for (PathSearchMode mode : PathSearchMode.values()) {
+            UnitTargetPathFinderImpl largeFinder = new UnitTargetPathFinderImpl(geometry, grid, mode);
+
+            List<Edge> path = largeFinder.getTargetPath(attackUnit, targetUnit, all);
+
+            assertEquals(200, path.size(), "Режим " + mode + " должен найти кратчайший путь через нижний проход");
+            assertEquals(199, path.get(path.size() - 1).getX());
+            assertTrue(path.stream().anyMatch(e -> e.getX() == 100 && e.getY() == 149),
+                    "Путь должен проходить через единственный проход в стене");
+        }
+    }
+
+    @Test
+    void shouldMoveOnlyOrthogonallyOnFourNeighbourBoard() {
+        BoardGeometry geometry = new BoardGeometry(27, 21, 3, MovementRule.FOUR_NEIGHBOURS);
+        Unit attackUnit = createUnit("SWORDSMAN", 0, 0, true);
+        Unit targetUnit = createUnit("ARCHER", 4, 3, true);
+
+        for (PathSearchMode mode : new PathSearchMode[]{PathSearchMode.A_STAR, PathSearchMode.BIDIRECTIONAL}) {
+            UnitTargetPathFinderImpl fourFinder = new UnitTargetPathFinderImpl(geometry, null, mode);
+
+            List<Edge> path = fourFinder.getTargetPath(attackUnit, targetUnit, Collections.emptyList());
+
+            assertEquals(8, path.size(), "Длина пути должна равняться манхэттенскому расстоянию плюс стартовая клетка");
+            for (int i = 1; i < path.size(); i++) {
+                int dx = Math.abs(path.get(i).getX() - path.get(i - 1).getX());
+                int dy = Math.abs(path.get(i).getY() - path.get(i - 1).getY());
+                assertEquals(1, dx + dy, "Диагональные шаги запрещены");
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectUnsupportedGeometryCombinations() {
+        BoardGeometry four = new BoardGeometry(27, 21, 3, MovementRule.FOUR_NEIGHBOURS);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new UnitTargetPathFinderImpl(four, null, PathSearchMode.JUMP_POINT));
+        assertThrows(IllegalArgumentException.class,
+                () -> new UnitTargetPathFinderImpl(four, new OccupancyGrid(), PathSearchMode.A_STAR));
+    }
+}